@@ -4,7 +4,6 @@ import com.jfoenix.controls.JFXButton;
 import com.jfoenix.controls.JFXTextArea;
 import javafx.fxml.FXML;
 import model.Task;
-import ui.ListView;
 import ui.PomoTodoApp;
 import utility.Logger;
 
@@ -26,7 +25,7 @@ public class AddTaskController {
         Logger.log("AddTaskController", "Add new Task with description " + description.getText());
         try {
             Task task = new Task(description.getText());
-            PomoTodoApp.getTasks().add(task);
+            PomoTodoApp.addTask(task);
         } catch (RuntimeException e) {
             Logger.log("AddTaskController", "Failed to create a new task from description " + description.getText());
         } finally {
@@ -44,6 +43,6 @@ public class AddTaskController {
     // EFFECTS: return to the list view UI
     private void returnToListView() {
         Logger.log("AddTaskController", "Return to the list view UI.");
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showTasks();
     }
 }
@@ -8,8 +8,8 @@ import javafx.fxml.Initializable;
 import model.DueDate;
 import model.Status;
 import model.Tag;
+import model.TagRegistry;
 import model.Task;
-import ui.ListView;
 import ui.PomoTodoApp;
 import utility.Logger;
 
@@ -119,7 +119,8 @@ public class EditTaskController implements Initializable {
     
     // REQUIRES: task != null
     // MODIFIES: this
-    // EFFECTS: save the updates on UI to task
+    // EFFECTS: save the updates on UI to task, record them in the journal, and check task in (see
+    //          PomoTodoApp.checkIn)
     @FXML
     public void saveTask() {
         saveDescription();
@@ -127,8 +128,9 @@ public class EditTaskController implements Initializable {
         saveStatus();
         savePriority();
         saveTags();
+        PomoTodoApp.checkIn(task, true);
         Logger.log("EditTaskController", "Save task:\n" + task);
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.showTasks();
     }
     
     // REQUIRES: task != null
@@ -158,16 +160,23 @@ public class EditTaskController implements Initializable {
     }
     
     // REQUIRES: task != null
+    // EFFECTS: removes the tags no longer shown as chips and adds the new ones, leaving unchanged tags
+    //          (and so their index of tasks) untouched
     private void saveTags() {
-        Logger.log("EditTaskController", "Delete the tags in task");
-        List<Tag> tagsToBeRemoved = new ArrayList<>(task.getTags());
+        ObservableList<String> chips = tags.getChips();
+        Logger.log("EditTaskController", "Delete the removed tags from task");
+        List<Tag> tagsToBeRemoved = new ArrayList<>();
+        for (Tag t : task.getTags()) {
+            if (!chips.contains(t.getName())) {
+                tagsToBeRemoved.add(t);
+            }
+        }
         for (Tag t : tagsToBeRemoved) {
             task.removeTag(t);
         }
         Logger.log("EditTaskController", "Save the tags to task");
-        ObservableList<String> chips = tags.getChips();
         for (String name : chips) {
-            task.addTag(name);
+            task.addTag(TagRegistry.getTag(name));
         }
     }
     
@@ -187,7 +196,8 @@ public class EditTaskController implements Initializable {
     @FXML
     public void cancelEditTask() {
         Logger.log("EditTaskController", "Edit Task cancelled.");
-        PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+        PomoTodoApp.checkIn(task, false);
+        PomoTodoApp.showTasks();
         /*Logger.log("EditTaskController", "Close application");
         Platform.exit();*/
     }
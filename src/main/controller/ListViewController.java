@@ -1,22 +1,147 @@
 package controller;
 
+import com.jfoenix.controls.JFXButton;
 import javafx.fxml.FXML;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 import model.Task;
+import persistence.TaskCache;
 import ui.Todobar;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-// Controller class for ListView UI
+// Controller class for ListView UI; the tasks are listed one page at a time, and only the Todobars of the tasks on
+// the page shown are loaded (when the tasks are loaded lazily, only their headers are read)
 public class ListViewController {
+    public static final int PAGE_SIZE = 50;
+
     @FXML
     private VBox tasks;
-    
-    // EFFECTS: adds Todobar UI to ListView UI for each task
-    public void setData(List<Task> tasks) {
-        for (Task t : tasks) {
-            Todobar todobar = new Todobar(t);
-            this.tasks.getChildren().add(todobar);
+    @FXML
+    private JFXButton previousButton;
+    @FXML
+    private JFXButton nextButton;
+    @FXML
+    private Label pageLabel;
+
+    private List<Task> list;
+    private TaskCache cache;
+    private int first;
+    private Map<Long, Todobar> shown = new HashMap<>();
+
+    // MODIFIES: this
+    // EFFECTS: lists tasks, showing the page with the first-th task (counting from 0) of them
+    public void setData(List<Task> tasks, int first) {
+        this.list = tasks;
+        showPage(first);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: lists the tasks of cache, showing the page with the first-th task (counting from 0) of them; the
+    //          Todobars are built from the headers of the tasks, so that no task is loaded
+    public void setData(TaskCache cache, int first) {
+        this.cache = cache;
+        showPage(first);
+    }
+
+    // EFFECTS: returns the index of the first task on the page shown
+    public int getFirst() {
+        return first;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the page with the first-th task (counting from 0), or the last page if there are fewer tasks
+    public void showPage(int first) {
+        int last = Math.max(0, count() - 1);
+        this.first = Math.max(0, Math.min(first, last)) / PAGE_SIZE * PAGE_SIZE;
+        Map<Long, Todobar> rows = cache != null ? rowsOfCache() : rowsOfList();
+        shown = rows;
+        place(new ArrayList<>(rows.values()));
+        updatePager();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the page shown after tasks were added, removed or edited (see PomoTodoApp): only the
+    //          Todobars of the tasks that came onto or left the page are added or removed, and only those of the
+    //          edited tasks on the page are refreshed; the other Todobars are kept as they are
+    public void update(Collection<Task> edited) {
+        showPage(first);
+        for (Task t : edited) {
+            Todobar todobar = shown.get(t.getId());
+            if (todobar != null) {
+                todobar.setTask(t);
+            }
         }
     }
-}
\ No newline at end of file
+
+    // MODIFIES: this
+    // EFFECTS: shows the page before the one shown
+    @FXML
+    public void previousPage() {
+        showPage(first - PAGE_SIZE);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows the page after the one shown
+    @FXML
+    public void nextPage() {
+        showPage(first + PAGE_SIZE);
+    }
+
+    // EFFECTS: returns the number of tasks listed
+    private int count() {
+        return cache != null ? cache.getCount() : list.size();
+    }
+
+    // EFFECTS: returns the Todobars of the tasks of cache on the page, by id; the Todobars already shown are kept
+    private Map<Long, Todobar> rowsOfCache() {
+        Map<Long, Todobar> rows = new LinkedHashMap<>();
+        for (long id : cache.getIds(first, PAGE_SIZE)) {
+            Todobar todobar = shown.get(id);
+            rows.put(id, todobar != null ? todobar : new Todobar(cache.getHeader(id)));
+        }
+        return rows;
+    }
+
+    // EFFECTS: returns the Todobars of the tasks of list on the page, by id; the Todobars already shown are kept
+    private Map<Long, Todobar> rowsOfList() {
+        Map<Long, Todobar> rows = new LinkedHashMap<>();
+        for (Task t : list.subList(first, Math.min(first + PAGE_SIZE, list.size()))) {
+            Todobar todobar = shown.get(t.getId());
+            rows.put(t.getId(), todobar != null ? todobar : new Todobar(t));
+        }
+        return rows;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes rows the children of the list, removing the children that are not rows and inserting the rows
+    //          that are not children yet, so that the rows shown already are not laid out again
+    private void place(List<Todobar> rows) {
+        List<Node> children = tasks.getChildren();
+        children.retainAll(rows);
+        for (int i = 0; i < rows.size(); i++) {
+            Todobar row = rows.get(i);
+            if (i < children.size() && children.get(i) == row) {
+                continue;
+            }
+            children.remove(row);
+            children.add(i, row);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: shows which tasks are on the page, and disables the buttons to the pages that do not exist
+    private void updatePager() {
+        int count = count();
+        int last = Math.min(first + PAGE_SIZE, count);
+        pageLabel.setText(count == 0 ? "0 of 0" : (first + 1) + "-" + last + " of " + count);
+        previousButton.setDisable(first == 0);
+        nextButton.setDisable(last >= count);
+    }
+}
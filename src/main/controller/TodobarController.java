@@ -12,8 +12,8 @@ import javafx.scene.control.Label;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
 import model.Task;
+import persistence.TaskHeader;
 import ui.EditTask;
-import ui.ListView;
 import ui.PomoTodoApp;
 import utility.Logger;
 
@@ -44,17 +44,26 @@ public class TodobarController implements Initializable {
     private JFXPopup optionsbarPopUp;
     private JFXPopup actionsbarPopUp;
     
-    private Task task;
+    private long taskId;  // the task itself is only asked for once it is edited (see PomoTodoApp.checkOut)
     
     // REQUIRES: task != null
     // MODIFIES: this
     // EFFECTS: sets the task in this Todobar
     //          updates the Todobar UI label to task's description
     public void setTask(Task task) {
-        this.task = task;
+        taskId = task.getId();
         descriptionLabel.setText(task.getDescription());
     }
     
+    // REQUIRES: header != null
+    // MODIFIES: this
+    // EFFECTS: sets the task in this Todobar from its header, without loading the task
+    //          updates the Todobar UI label to the task's description
+    public void setHeader(TaskHeader header) {
+        taskId = header.getId();
+        descriptionLabel.setText(header.getDescription());
+    }
+    
     @Override
     public void initialize(URL location, ResourceBundle resources) {
         loadTaskOptionsPopUp();
@@ -136,11 +145,17 @@ public class TodobarController implements Initializable {
         }
 
         private void removeTask() {
-            PomoTodoApp.getTasks().remove(task);
-            PomoTodoApp.setScene(new ListView(PomoTodoApp.getTasks()));
+            PomoTodoApp.removeTask(taskId);
+            PomoTodoApp.showTasks();
         }
 
         private void editTask() {
+            Task task = PomoTodoApp.checkOut(taskId);
+            if (task == null) {
+                Logger.log("TaskOptionsPopUpController", "The task to edit no longer exists");
+                PomoTodoApp.showTasks();
+                return;
+            }
             EditTask editer = new EditTask(task);
             PomoTodoApp.setScene(editer);
         }
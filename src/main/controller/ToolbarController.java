@@ -11,6 +11,7 @@ import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.input.MouseEvent;
 import javafx.scene.layout.StackPane;
+import ui.PomoTodoApp;
 import utility.Logger;
 
 import java.io.File;
@@ -45,7 +46,7 @@ public class ToolbarController implements Initializable {
         loadViewOptionsPopUpActionListener();
     }
     
-    // EFFECTS: load options pop up (setting, exit)
+    // EFFECTS: load options pop up (setting, export, exit)
     private void loadToolbarPopUp() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(toolbarPopUpFxmlFile.toURI().toURL());
@@ -133,6 +134,10 @@ public class ToolbarController implements Initializable {
                     Logger.log("TodobarOptionsPopUpController", "Setting is not supported in this version");
                     break;
                 case 1:
+                    Logger.log("TodobarOptionsPopUpController", "Export tasks");
+                    PomoTodoApp.exportTasks();
+                    break;
+                case 2:
                     Logger.log("TodobarOptionsPopUpController", "Close application");
                     Platform.exit();
                     break;
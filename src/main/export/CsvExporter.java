@@ -0,0 +1,79 @@
+package export;
+
+import model.DueDate;
+import model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Iterator;
+
+// Comma-separated values, as in RFC 4180: a header row, then one row for each task, ending with CRLF. A field
+// holding a comma, a double quote or a line break is quoted, its double quotes doubled. The tags of a task are
+// given in one field, sorted by name and separated by ';', and its due date (if any) in local time.
+public class CsvExporter implements TaskExporter {
+    public static final String HEADER = "id,description,status,important,urgent,due date,tags,etc hours,progress";
+    public static final String DATE_FORMAT = "yyyy-MM-dd HH:mm";
+
+    @Override
+    public String getName() {
+        return "csv";
+    }
+
+    @Override
+    public String getExtension() {
+        return "csv";
+    }
+
+    @Override
+    public void export(Iterator<? extends Task> tasks, Writer out) throws IOException {
+        DateFormat dates = new SimpleDateFormat(DATE_FORMAT);
+        StringBuilder row = new StringBuilder(HEADER).append("\r\n");
+        out.append(row);
+        while (tasks.hasNext()) {
+            row.setLength(0);
+            appendRow(tasks.next(), dates, row);
+            out.append(row);
+        }
+        out.flush();
+    }
+
+    // MODIFIES: row
+    // EFFECTS: appends the row of task to row, with its due date formatted by dates
+    private static void appendRow(Task task, DateFormat dates, StringBuilder row) {
+        row.append(task.getId()).append(',');
+        appendField(task.getDescription(), row);
+        row.append(',');
+        appendField(task.getStatus().toString(), row);
+        row.append(',').append(task.getPriority().isImportant()).append(',').append(task.getPriority().isUrgent());
+        DueDate dueDate = task.getDueDate();
+        row.append(',').append(dueDate == null ? "" : dates.format(dueDate.getDate())).append(',');
+        appendField(String.join(";", TaskExporters.tagNames(task)), row);
+        row.append(',').append(task.getEstimatedTimeToComplete()).append(',').append(task.getProgress());
+        row.append("\r\n");
+    }
+
+    // MODIFIES: row
+    // EFFECTS: appends value to row as a field, quoted if it holds a comma, a double quote or a line break
+    private static void appendField(String value, StringBuilder row) {
+        boolean quoted = false;
+        for (int i = 0; i < value.length() && !quoted; i++) {
+            char c = value.charAt(i);
+            quoted = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quoted) {
+            row.append(value);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+}
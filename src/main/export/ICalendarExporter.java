@@ -0,0 +1,129 @@
+package export;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+
+// iCalendar, as in RFC 5545: one calendar holding a VTODO component for each task. Its properties are
+//     UID                 the id of the task, at UID_DOMAIN
+//     DTSTAMP             the time of the export, in UTC
+//     SUMMARY             the description of the task
+//     DUE                 its due date, if any, in local ("floating") time
+//     STATUS              NEEDS-ACTION (to do or up next), IN-PROCESS or COMPLETED
+//     PRIORITY            1 if important and urgent, 3 if important, 5 if urgent, 0 (undefined) otherwise
+//     CATEGORIES          the names of its tags, sorted, if any
+//     PERCENT-COMPLETE    its progress, if any
+// Text values are escaped, lines end with CRLF, and lines longer than 75 octets (in UTF-8) are folded.
+public class ICalendarExporter implements TaskExporter {
+    public static final String UID_DOMAIN = "pomotodo";
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final int[] PRIORITIES = {0, 1, 3, 5, 0};  // by priority level
+
+    @Override
+    public String getName() {
+        return "icalendar";
+    }
+
+    @Override
+    public String getExtension() {
+        return "ics";
+    }
+
+    @Override
+    public void export(Iterator<? extends Task> tasks, Writer out) throws IOException {
+        DateFormat stamps = new SimpleDateFormat("yyyyMMdd'T'HHmmss'Z'");
+        stamps.setTimeZone(TimeZone.getTimeZone("UTC"));
+        String stamp = stamps.format(new Date());
+        DateFormat dates = new SimpleDateFormat("yyyyMMdd'T'HHmmss");
+        StringBuilder text = new StringBuilder("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:-//PomoTodo//Export//EN\r\n");
+        out.append(text);
+        while (tasks.hasNext()) {
+            text.setLength(0);
+            appendTodo(tasks.next(), stamp, dates, text);
+            out.append(text);
+        }
+        out.write("END:VCALENDAR\r\n");
+        out.flush();
+    }
+
+    // MODIFIES: text
+    // EFFECTS: appends the VTODO of task to text, stamped with stamp and with its due date formatted by dates
+    private static void appendTodo(Task task, String stamp, DateFormat dates, StringBuilder text) {
+        text.append("BEGIN:VTODO\r\n");
+        appendLine("UID:" + task.getId() + "@" + UID_DOMAIN, text);
+        appendLine("DTSTAMP:" + stamp, text);
+        appendLine("SUMMARY:" + escape(task.getDescription()), text);
+        DueDate dueDate = task.getDueDate();
+        if (dueDate != null) {
+            appendLine("DUE:" + dates.format(dueDate.getDate()), text);
+        }
+        appendLine("STATUS:" + status(task.getStatus()), text);
+        appendLine("PRIORITY:" + PRIORITIES[task.getPriority().getLevel()], text);
+        appendCategories(task, text);
+        if (task.getProgress() > 0) {
+            appendLine("PERCENT-COMPLETE:" + task.getProgress(), text);
+        }
+        text.append("END:VTODO\r\n");
+    }
+
+    // MODIFIES: text
+    // EFFECTS: appends the CATEGORIES of task to text, unless it has no tags
+    private static void appendCategories(Task task, StringBuilder text) {
+        List<String> names = TaskExporters.tagNames(task);
+        if (!names.isEmpty()) {
+            names.replaceAll(ICalendarExporter::escape);
+            appendLine("CATEGORIES:" + String.join(",", names), text);
+        }
+    }
+
+    // EFFECTS: returns the iCalendar status of a task having the given status
+    private static String status(Status status) {
+        if (status == Status.IN_PROGRESS) {
+            return "IN-PROCESS";
+        }
+        return status == Status.DONE ? "COMPLETED" : "NEEDS-ACTION";
+    }
+
+    // EFFECTS: returns value escaped as an iCalendar text value
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' || c == ';' || c == ',') {
+                escaped.append('\\').append(c);
+            } else if (c == '\n') {
+                escaped.append("\\n");
+            } else if (c != '\r') {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    // MODIFIES: text
+    // EFFECTS: appends line to text, folded so that no line is longer than MAX_LINE_OCTETS octets in UTF-8 (each
+    //          line but the first starting with a space), and followed by CRLF; characters are never split
+    private static void appendLine(String line, StringBuilder text) {
+        int octets = 0;
+        for (int i = 0; i < line.length(); i = line.offsetByCodePoints(i, 1)) {
+            int codePoint = line.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + length > MAX_LINE_OCTETS) {
+                text.append("\r\n ");
+                octets = 1;
+            }
+            text.appendCodePoint(codePoint);
+            octets += length;
+        }
+        text.append("\r\n");
+    }
+}
@@ -0,0 +1,31 @@
+package export;
+
+import model.Task;
+import persistence.Jsonifier;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+// Newline-delimited JSON: each task on a line of its own, as the object written by Jsonifier.writeTask (the format
+// read by NdjsonTaskCodec), without building the JSONObject of the task
+public class NdjsonExporter implements TaskExporter {
+    @Override
+    public String getName() {
+        return "ndjson";
+    }
+
+    @Override
+    public String getExtension() {
+        return "ndjson";
+    }
+
+    @Override
+    public void export(Iterator<? extends Task> tasks, Writer out) throws IOException {
+        while (tasks.hasNext()) {
+            Jsonifier.writeTask(tasks.next(), out);
+            out.write('\n');
+        }
+        out.flush();
+    }
+}
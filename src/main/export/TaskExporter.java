@@ -0,0 +1,23 @@
+package export;
+
+import model.Task;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Iterator;
+
+// A format in which tasks are exported to other tools (see TaskExporters). Tasks are written straight from their
+// getters, one at a time, as the iterator feeding them yields them: only the output of the task being written is
+// held in memory, however many tasks are exported.
+public interface TaskExporter {
+    // EFFECTS: returns the name of this format
+    String getName();
+
+    // EFFECTS: returns the usual extension of files in this format, without the dot
+    String getExtension();
+
+    // EFFECTS: writes the tasks yielded by tasks to out in this format, writing out the text of each task before
+    //          taking the next one (so out should be buffered); out is flushed but not closed
+    //  throws IOException if out cannot be written
+    void export(Iterator<? extends Task> tasks, Writer out) throws IOException;
+}
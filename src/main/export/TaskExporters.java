@@ -0,0 +1,45 @@
+package export;
+
+import model.Tag;
+import model.Task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// The formats in which tasks are exported
+public final class TaskExporters {
+    public static final TaskExporter CSV = new CsvExporter();
+    public static final TaskExporter NDJSON = new NdjsonExporter();
+    public static final TaskExporter ICALENDAR = new ICalendarExporter();
+    private static final List<TaskExporter> ALL = Collections.unmodifiableList(Arrays.asList(CSV, NDJSON, ICALENDAR));
+
+    private TaskExporters() {
+    }
+
+    // EFFECTS: returns all the formats in which tasks are exported
+    public static List<TaskExporter> all() {
+        return ALL;
+    }
+
+    // EFFECTS: returns the format with the given name (see TaskExporter.getName), or null if there is none
+    public static TaskExporter forName(String name) {
+        for (TaskExporter exporter : ALL) {
+            if (exporter.getName().equals(name)) {
+                return exporter;
+            }
+        }
+        return null;
+    }
+
+    // EFFECTS: returns the names of the tags of task, sorted
+    static List<String> tagNames(Task task) {
+        List<String> names = new ArrayList<>(task.getTags().size());
+        for (Tag t : task.getTags()) {
+            names.add(t.getName());
+        }
+        Collections.sort(names);
+        return names;
+    }
+}
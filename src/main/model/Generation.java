@@ -0,0 +1,56 @@
+package model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// A counter of the changes made to todos, shared by all of them: every change advances it, so a saver can
+// tell whether anything changed since it last saved by comparing generations, without watching the todos
+// themselves. Owners of lists of todos advance it when they add or remove todos; building a todo (constructing
+// it, or restoring it from a saved file) does not, as no list holds it yet. Safe to use from any thread.
+public final class Generation {
+    private static final AtomicLong current = new AtomicLong();
+    private static final ThreadLocal<int[]> quietScopes = ThreadLocal.withInitial(() -> new int[1]);
+
+    private Generation() {
+    }
+
+    // A scope in which the changes made on the thread that opened it do not advance the generation (see quiet)
+    public static final class Quiet implements AutoCloseable {
+        private Quiet() {
+        }
+
+        // EFFECTS: ends this scope
+        @Override
+        public void close() {
+            quietScopes.get()[0]--;
+        }
+    }
+
+    // EFFECTS: returns the current generation; it has changed if, and only if, something changed since
+    public static long current() {
+        return current.get();
+    }
+
+    // EFFECTS: advances the generation, marking that something changed, unless this thread is in a quiet scope
+    public static void advance() {
+        if (quietScopes.get()[0] == 0) {
+            current.incrementAndGet();
+        }
+    }
+
+    // EFFECTS: opens a scope, to be closed by the same thread (e.g. with try-with-resources), in which the changes
+    //          made on this thread do not advance the generation: they are meant to be the changes made while
+    //          building todos that no list holds yet (e.g. while restoring them from a saved file)
+    public static Quiet quiet() {
+        quietScopes.get()[0]++;
+        return new Quiet();
+    }
+
+    // EFFECTS: runs changes in a quiet scope (see quiet), so that the changes it makes on this thread do not
+    //          advance the generation
+    @SuppressWarnings("try")  // the scope is only opened and closed
+    public static void quietly(Runnable changes) {
+        try (Quiet scope = quiet()) {
+            changes.run();
+        }
+    }
+}
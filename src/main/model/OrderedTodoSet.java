@@ -0,0 +1,157 @@
+package model;
+
+import utility.LongIntHashMap;
+
+import java.util.AbstractCollection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// An insertion-ordered set of todos with O(1) add, remove and contains.
+// Todos are keyed by id: the equals and hashCode of a Task depend on fields that change as the
+// task is edited, so they cannot key a hashed structure. The todo found by id is still compared with
+// == before it is taken as the one asked for, as another todo (e.g. a copy read back from a file) may
+// have the same id. A removed todo leaves a hole in the order array; the holes are compacted away once
+// they outnumber the todos. Like the collections of java.util, the iterators are fail-fast.
+final class OrderedTodoSet extends AbstractCollection<Todo> {
+    private static final int INITIAL_CAPACITY = 8;
+
+    private Todo[] order = new Todo[INITIAL_CAPACITY];
+    private int end;  // order[0 .. end) is in use; holes are null
+    private final LongIntHashMap positions = new LongIntHashMap();  // id -> index in order
+    private int modCount;  // changes to this set, so that iterators can tell they are out of date
+
+    @Override
+    public int size() {
+        return positions.size();
+    }
+
+    // EFFECTS: returns true if o itself (not just a todo with its id) is in this set
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Todo)) {
+            return false;
+        }
+        int position = positions.get(((Todo) o).getId(), -1);
+        return position >= 0 && order[position] == o;
+    }
+
+    // EFFECTS: returns true if a todo with the given id is in this set
+    boolean containsId(long id) {
+        return positions.containsKey(id);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends todo to this set and returns true, or returns false if it, or another todo with its id, is
+    //          already in this set
+    @Override
+    public boolean add(Todo todo) {
+        if (containsId(todo.getId())) {
+            return false;
+        }
+        modCount++;
+        if (end == order.length) {
+            makeRoom();
+        }
+        order[end] = todo;
+        positions.put(todo.getId(), end++);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes o from this set and returns true, or returns false if it is not in this set
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) {
+            return false;
+        }
+        modCount++;
+        long id = ((Todo) o).getId();
+        order[positions.get(id, -1)] = null;
+        positions.remove(id);
+        if (end - size() > size()) {
+            compact();
+        }
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: frees at least one slot at the end of order, by compacting holes or growing the array
+    private void makeRoom() {
+        if (end - size() >= order.length / 2) {
+            compact();
+        } else {
+            Todo[] grown = new Todo[order.length * 2];
+            System.arraycopy(order, 0, grown, 0, end);
+            order = grown;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves every todo to the front of order, keeping their order, and updates their positions
+    private void compact() {
+        int next = 0;
+        for (int i = 0; i < end; i++) {
+            if (order[i] != null) {
+                order[next] = order[i];
+                positions.put(order[next].getId(), next);
+                next++;
+            }
+        }
+        for (int i = next; i < end; i++) {
+            order[i] = null;
+        }
+        end = next;
+    }
+
+    // EFFECTS: returns the number of slots in use, holes included, so that the todos can be walked in insertion
+    //          order without an iterator (see slot)
+    int slots() {
+        return end;
+    }
+
+    // REQUIRES: 0 <= i < slots()
+    // EFFECTS: returns the todo in slot i, or null if the slot is a hole
+    Todo slot(int i) {
+        return order[i];
+    }
+
+    // EFFECTS: returns an iterator over the todos of this set in insertion order; its next throws
+    //          ConcurrentModificationException once this set was changed other than through the iterator
+    @Override
+    public Iterator<Todo> iterator() {
+        return new SetIterator();
+    }
+
+    // Iterates over the todos of this set in insertion order, skipping the holes
+    private final class SetIterator implements Iterator<Todo> {
+        private final int expectedModCount = modCount;
+        private int cursor = skipHoles(0);
+
+        @Override
+        public boolean hasNext() {
+            return cursor < end;
+        }
+
+        @Override
+        public Todo next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Todo next = order[cursor];
+            cursor = skipHoles(cursor + 1);
+            return next;
+        }
+    }
+
+    // EFFECTS: returns the first position at or after from that is not a hole
+    private int skipHoles(int from) {
+        while (from < end && order[from] == null) {
+            from++;
+        }
+        return from;
+    }
+}
@@ -0,0 +1,133 @@
+package model;
+
+import model.exceptions.InvalidPriorityLevelException;
+
+import java.util.Objects;
+
+// Represents a priority: a todo may be important and/or urgent, which puts it in one of four
+// quadrants, numbered as priority levels:
+//    1: important and urgent,  2: important,  3: urgent,  4: neither (the default)
+// The todos having this priority are told when it changes, so that indexes filing them by priority
+// stay up to date even when the priority is edited in place.
+public class Priority {
+    private static final Todo[] NO_OWNERS = new Todo[0];
+
+    private boolean important;
+    private boolean urgent;
+    private Todo[] owners = NO_OWNERS;  // the todos having this priority
+
+    // EFFECTS: constructs a default priority (i.e., not important nor urgent)
+    public Priority() {
+        important = false;
+        urgent = false;
+    }
+
+    // EFFECTS: constructs a priority of the given level (see above)
+    //  throws InvalidPriorityLevelException if level is not 1, 2, 3 or 4
+    public Priority(int level) {
+        this();
+        switch (level) {
+            case 1:
+                important = true;
+                urgent = true;
+                break;
+            case 2:
+                important = true;
+                break;
+            case 3:
+                urgent = true;
+                break;
+            case 4:
+                break;
+            default:
+                throw new InvalidPriorityLevelException("Valid priority levels are 1, 2, 3 and 4");
+        }
+    }
+
+    // EFFECTS: returns true if this priority is important
+    public boolean isImportant() {
+        return important;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether this priority is important
+    public void setImportant(boolean important) {
+        if (this.important != important) {
+            this.important = important;
+            changed();
+        }
+    }
+
+    // EFFECTS: returns true if this priority is urgent
+    public boolean isUrgent() {
+        return urgent;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: sets whether this priority is urgent
+    public void setUrgent(boolean urgent) {
+        if (this.urgent != urgent) {
+            this.urgent = urgent;
+            changed();
+        }
+    }
+
+    // EFFECTS: returns the priority level (1 to 4) of this priority
+    public int getLevel() {
+        if (important) {
+            return urgent ? 1 : 2;
+        }
+        return urgent ? 3 : 4;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that todo has this priority
+    void addOwner(Todo todo) {
+        owners = Todo.with(owners, todo);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that todo no longer has this priority
+    void removeOwner(Todo todo) {
+        owners = Todo.without(owners, todo);
+    }
+
+    // EFFECTS: tells the todos having this priority that it has changed
+    private void changed() {
+        for (Todo t : owners) {
+            t.priorityChanged();
+        }
+    }
+
+    // EFFECTS: returns a string representation of this priority
+    @Override
+    public String toString() {
+        if (important && urgent) {
+            return "IMPORTANT & URGENT";
+        }
+        if (important) {
+            return "IMPORTANT";
+        }
+        if (urgent) {
+            return "URGENT";
+        }
+        return "DEFAULT";
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Priority)) {
+            return false;
+        }
+        Priority priority = (Priority) o;
+        return important == priority.important && urgent == priority.urgent;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(important, urgent);
+    }
+}
@@ -4,11 +4,24 @@ import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
 import java.util.*;
+import java.util.function.Predicate;
 
 // Represents a Project, a collection of zero or more Tasks
 // Class Invariant: no duplicated task; order of tasks is preserved
-public class Project extends Todo implements Iterable<Todo>, Observer {
-    private List<Todo> tasks;
+// Note: membership is by identity, looked up by id, since the equality of a task changes as it is edited; a todo
+// whose id is taken by another child is not added
+public class Project extends Todo implements Iterable<Todo>, TodoListener {
+    private static final int PRIORITY_LEVELS = 4;
+    private static boolean verifyRollups = Boolean.getBoolean("pomotodo.verifyRollups");
+
+    private OrderedTodoSet tasks;
+    private final OrderedTodoSet[] byLevel = newLevels();  // byLevel[level - 1]: the children of each priority level
+    private int modCount;  // number of structural modifications, checked by iterators
+
+    // Rollups over the direct children, kept up to date as children are added, removed or changed
+    private int progressSum;      // sum of getProgress() of every child
+    private int completedCount;   // number of children whose progress is 100
+    private int taskProgressSum;  // sum of the progress of every task in this project's subtree
     
     // MODIFIES: this
     // EFFECTS: constructs a project with the given description
@@ -16,21 +29,33 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
     //  throws EmptyStringException if description is null or empty
     public Project(String description) {
         super(description);
-        tasks = new ArrayList<>();
+        tasks = new OrderedTodoSet();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as Project(description), but the project has the given id
+    //  throws EmptyStringException if description is null or empty
+    //  throws NegativeInputException if id < 0
+    public Project(long id, String description) {
+        super(id, description);
+        tasks = new OrderedTodoSet();
     }
     
     // MODIFIES: this
-    // EFFECTS: task is added to this project (if it was not already part of it)
+    // EFFECTS: task is added to this project (if neither it nor another todo with its id was already part of
+    //     it, and adding it would not make this project contain itself)
     //   throws NullArgumentException when task is null
     public void add(Todo task) {
         if (task == null) {
             throw new NullArgumentException();
         }
 
-        if (!contains(task) && !task.equals(this)) {
-            tasks.add(task);
-            task.addObserver(this);
-            task.etcChanged(task.getEstimatedTimeToComplete());
+        if (!tasks.containsId(task.getId()) && !task.equals(this) && !wouldCreateCycle(task)) {
+            int etcBefore = etcHours;
+            int taskProgressBefore = taskProgressSum;
+            int progressBefore = cachedProgress();
+            addChild(task);
+            publish(etcBefore, taskProgressBefore, progressBefore);
         }
     }
     
@@ -43,9 +68,147 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
         }
 
         if (contains(task)) {
-            task.deleteObserver(this);
-            this.etcChanged(-task.getEstimatedTimeToComplete());
-            tasks.remove(task);
+            int etcBefore = etcHours;
+            int taskProgressBefore = taskProgressSum;
+            int progressBefore = cachedProgress();
+            removeChild(task);
+            publish(etcBefore, taskProgressBefore, progressBefore);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds every todo in todos that is not already part of this project, in iteration order,
+    //     and returns true if this project changed; listeners of this project are notified once
+    //     for the whole batch
+    //   throws NullArgumentException when todos is null or contains null, leaving this project unchanged
+    public boolean addAll(Collection<? extends Todo> todos) {
+        checkBatch(todos);
+        int etcBefore = etcHours;
+        int taskProgressBefore = taskProgressSum;
+        int progressBefore = cachedProgress();
+        int sizeBefore = tasks.size();
+        for (Todo t : todos) {
+            if (!tasks.containsId(t.getId()) && !t.equals(this) && !wouldCreateCycle(t)) {
+                addChild(t);
+            }
+        }
+        publish(etcBefore, taskProgressBefore, progressBefore);
+        return tasks.size() != sizeBefore;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every todo in todos from this project and returns true if this project changed;
+    //     listeners of this project are notified once for the whole batch
+    //   throws NullArgumentException when todos is null or contains null, leaving this project unchanged
+    public boolean removeAll(Collection<? extends Todo> todos) {
+        checkBatch(todos);
+        int etcBefore = etcHours;
+        int taskProgressBefore = taskProgressSum;
+        int progressBefore = cachedProgress();
+        int sizeBefore = tasks.size();
+        for (Todo t : todos) {
+            if (contains(t)) {
+                removeChild(t);
+            }
+        }
+        publish(etcBefore, taskProgressBefore, progressBefore);
+        return tasks.size() != sizeBefore;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every todo of this project that satisfies filter and returns true if any was
+    //     removed; filter is applied to every todo before any is removed, and listeners of this project
+    //     are notified once for the whole batch
+    //   throws NullArgumentException when filter is null
+    public boolean removeIf(Predicate<? super Todo> filter) {
+        if (filter == null) {
+            throw new NullArgumentException("Illegal argument: filter is null");
+        }
+        List<Todo> matches = new ArrayList<>();
+        for (Todo t : tasks) {
+            if (filter.test(t)) {
+                matches.add(t);
+            }
+        }
+        return removeAll(matches);
+    }
+
+    // EFFECTS: throws NullArgumentException if todos is null or contains null
+    private static void checkBatch(Collection<? extends Todo> todos) {
+        if (todos == null) {
+            throw new NullArgumentException("Illegal argument: todos is null");
+        }
+        for (Todo t : todos) {
+            if (t == null) {
+                throw new NullArgumentException("Illegal argument: todos contains null");
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: makes child a child of this project and adds its values to the rollups of this project
+    private void addChild(Todo child) {
+        tasks.add(child);
+        byLevel[priorityLevel(child) - 1].add(child);
+        modCount++;
+        Generation.advance();
+        child.addListener(this);
+        child.addParent(this);
+        rollUp(child, 1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes child from this project and subtracts its values from the rollups of this project
+    private void removeChild(Todo child) {
+        child.removeListener(this);
+        child.removeParent(this);
+        tasks.remove(child);
+        levelOf(child).remove(child);
+        modCount++;
+        Generation.advance();
+        rollUp(child, -1);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds (sign = 1) or subtracts (sign = -1) the values of child to/from the rollups of this project
+    private void rollUp(Todo child, int sign) {
+        progressSum += sign * progressOf(child);
+        completedCount += sign * (progressOf(child) == 100 ? 1 : 0);
+        taskProgressSum += sign * taskProgressOf(child);
+        etcHours += sign * child.etcHours;
+    }
+
+    // EFFECTS: notifies the listeners of this project of the changes to its rollups since they had
+    //          the given values, at most once for the estimated time and once for the progress
+    private void publish(int etcBefore, int taskProgressBefore, int progressBefore) {
+        if (etcHours != etcBefore) {
+            etcChanged(etcHours - etcBefore);
+        }
+        progressChanged(cachedProgress() - progressBefore, taskProgressSum - taskProgressBefore);
+    }
+
+    // MODIFIES: nothing
+    // EFFECTS: when enabled, every read of a project's progress, completion, task progress or
+    //          estimated time to complete checks the cached rollups against a full recomputation
+    //          of its subtree, throwing IllegalStateException on a mismatch. Meant for debugging only;
+    //          can also be enabled with -Dpomotodo.verifyRollups=true
+    public static void setRollupVerification(boolean enabled) {
+        verifyRollups = enabled;
+    }
+
+    // EFFECTS: throws IllegalStateException if verification is enabled and a cached rollup of this
+    //          project differs from a full recomputation of its subtree
+    private void verifyRollups() {
+        if (!verifyRollups) {
+            return;
+        }
+        int completed = 0;
+        for (Todo t : tasks) {
+            completed += recomputeProgress(t) == 100 ? 1 : 0;
+        }
+        if (cachedProgress() != recomputeProgress(this) || completedCount != completed
+                || taskProgressSum != recomputeTaskProgress(this) || etcHours != recomputeEtc(this)) {
+            throw new IllegalStateException("Cached rollups of project \"" + description + "\" are stale");
         }
     }
 
@@ -66,6 +229,7 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
     //EFFECTS: returns the estimated time to completion of this based on all sub-projects/sub-tasks
     @Override
     public int getEstimatedTimeToComplete() {
+        verifyRollups();
         return etcHours;
     }
 
@@ -93,40 +257,76 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
 //     the value returned is the average of the percentage of completion of
 //     all the tasks and sub-projects in this project.
     public int getProgress() {
-        int numerator = 0;
-        int denominator = 0;
+        verifyRollups();
+        return cachedProgress();
+    }
 
-        for (Todo t : tasks) {
-            if (t instanceof Task) {
-                Task x = (Task) t;
-                denominator++;
-                numerator = numerator + x.getProgress();
-            } else {
-                Project p = (Project) t;
-                denominator++;
-                numerator = numerator + p.getProgress();
-            }
-        }
+    //EFFECTS: returns sum of progress of ALL sub-projects and sub-tasks
+    public int getSumOfTaskProgress() {
+        verifyRollups();
+        return taskProgressSum;
+    }
 
-        if (denominator == 0) {
+    // EFFECTS: returns the average progress of the children of this project, from the cached rollups
+    private int cachedProgress() {
+        if (tasks.isEmpty()) {
             return 0;
         }
+        return progressSum / tasks.size();
+    }
 
-        return (int) Math.floor(numerator / denominator);
+    // EFFECTS: returns the progress of todo, read from the cached rollups if it is a project
+    private static int progressOf(Todo todo) {
+        return todo instanceof Project ? ((Project) todo).cachedProgress() : todo.getProgress();
     }
 
-    //EFFECTS: returns sum of progress of ALL sub-projects and sub-tasks
-    public int getSumOfTaskProgress() {
-        int counter = 0;
-        for (Todo t : tasks) {
-            if (t instanceof Task) {
-                counter =  counter + t.getProgress();
-            } else {
-                Project p = (Project) t;
-                counter = counter + p.getSumOfTaskProgress();
-            }
+    // EFFECTS: returns the sum of the progress of every task in the subtree rooted at todo,
+    //          read from the cached rollups if it is a project
+    private static int taskProgressOf(Todo todo) {
+        return todo instanceof Project ? ((Project) todo).taskProgressSum : todo.getProgress();
+    }
+
+    // EFFECTS: returns the progress of todo, recomputed from its whole subtree
+    private static int recomputeProgress(Todo todo) {
+        if (!(todo instanceof Project)) {
+            return todo.getProgress();
         }
-        return counter;
+        Project p = (Project) todo;
+        int sum = 0;
+        for (Todo t : p.tasks) {
+            sum += recomputeProgress(t);
+        }
+        return p.tasks.isEmpty() ? 0 : sum / p.tasks.size();
+    }
+
+    // EFFECTS: returns the sum of the progress of every task in the subtree rooted at todo,
+    //          recomputed from the whole subtree
+    private static int recomputeTaskProgress(Todo todo) {
+        if (!(todo instanceof Project)) {
+            return todo.getProgress();
+        }
+        int sum = 0;
+        for (Todo t : ((Project) todo).tasks) {
+            sum += recomputeTaskProgress(t);
+        }
+        return sum;
+    }
+
+    // EFFECTS: returns the estimated time to complete todo, recomputed from its whole subtree
+    private static int recomputeEtc(Todo todo) {
+        if (!(todo instanceof Project)) {
+            return todo.getEstimatedTimeToComplete();
+        }
+        int sum = 0;
+        for (Todo t : ((Project) todo).tasks) {
+            sum += recomputeEtc(t);
+        }
+        return sum;
+    }
+
+    // EFFECTS: returns an unmodifiable view of the todos directly in this project, in the order they were added
+    public Collection<Todo> getChildren() {
+        return Collections.unmodifiableCollection(tasks);
     }
 
     // EFFECTS: returns the number of tasks (and sub-projects) in this project
@@ -149,7 +349,8 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
     // EFFECTS: returns true if every task (and sub-project) in this project is completed, and false otherwise
 //     If this project has no tasks (or sub-projects), return false.
     public boolean isCompleted() {
-        return getNumberOfTasks() != 0 && getProgress() == 100;
+        verifyRollups();
+        return !tasks.isEmpty() && completedCount == tasks.size();
     }
     
     // EFFECTS: returns true if this project contains the task
@@ -161,23 +362,25 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
         return tasks.contains(task);
     }
 
-/*    public boolean reallyContains(Todo task) {
-        boolean contains = false;
+    // EFFECTS: returns true if this project contains task, directly or through its sub-projects;
+    //     takes O(depth) since it walks up from task to its ancestors
+    //   throws NullArgumentException when task is null
+    public boolean reallyContains(Todo task) {
         if (task == null) {
             throw new NullArgumentException("Illegal argument: task is null");
         }
-        for (Todo t : tasks) {
-            if (task instanceof Task) {
-                if (tasks.contains(task)) {
-                    contains = true;
-                }
-            } else {
-                Project p = (Project) t;
-                p.reallyContains(task);
-            }
+        return task.isDescendantOf(this);
+    }
+
+    // EFFECTS: returns true if adding task to this project would make this project contain itself,
+    //     i.e. task is this project or one of its ancestors
+    //   throws NullArgumentException when task is null
+    public boolean wouldCreateCycle(Todo task) {
+        if (task == null) {
+            throw new NullArgumentException("Illegal argument: task is null");
         }
-        return contains;
-    }*/
+        return task == this || (task instanceof Project && isDescendantOf((Project) task));
+    }
     
     @Override
     public boolean equals(Object o) {
@@ -201,70 +404,116 @@ public class Project extends Todo implements Iterable<Todo>, Observer {
         return new ProjectIterator();
     }
 
+    // MODIFIES: this
+    // EFFECTS: adds the change in estimated time of a child to this project, and passes it on to the
+    //          listeners of this project
+    @Override
+    public void onEtcDelta(Todo source, int delta) {
+        etcHours = etcHours + delta;
+        etcChanged(delta);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: updates the rollups of this project after the progress of child source changed by the
+    //          given deltas, then passes the resulting change in progress on to the listeners of this project
     @Override
-    public void update(Observable o, Object arg) {
-        if (this.countObservers() >= 0) {
-            this.etcChanged((int) arg);
+    public void onProgressDelta(Todo source, int delta, int taskDelta) {
+        int before = cachedProgress();
+        int childProgress = progressOf(source);
+        int childBefore = childProgress - delta;
+        progressSum += delta;
+        completedCount += (childProgress == 100 ? 1 : 0) - (childBefore == 100 ? 1 : 0);
+        taskProgressSum += taskDelta;
+        progressChanged(cachedProgress() - before, taskDelta);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: moves child source to the end of the bucket of its new priority level, if it changed
+    @Override
+    public void onPriorityChanged(Todo source) {
+        OrderedTodoSet level = byLevel[priorityLevel(source) - 1];
+        if (tasks.contains(source) && !level.contains(source)) {
+            levelOf(source).remove(source);
+            level.add(source);
+            modCount++;
+        }
+    }
+
+    // EFFECTS: returns the priority level (1 to 4) of todo, 1 being important & urgent
+    //          and 4 being neither important nor urgent
+    private static int priorityLevel(Todo todo) {
+        return todo.getPriority().getLevel();
+    }
+
+    // EFFECTS: returns an empty bucket for each priority level
+    private static OrderedTodoSet[] newLevels() {
+        OrderedTodoSet[] levels = new OrderedTodoSet[PRIORITY_LEVELS];
+        for (int i = 0; i < PRIORITY_LEVELS; i++) {
+            levels[i] = new OrderedTodoSet();
         }
-        etcHours = etcHours + (int) arg;
+        return levels;
+    }
 
+    // REQUIRES: child is a child of this project
+    // EFFECTS: returns the bucket child is in, which is that of its priority level unless it is being moved
+    private OrderedTodoSet levelOf(Todo child) {
+        for (OrderedTodoSet level : byLevel) {
+            if (level.contains(child)) {
+                return level;
+            }
+        }
+        throw new IllegalStateException("Child not filed by priority level: " + child.getId());
     }
 
+    // Iterates over the tasks of a project in order of priority level (1 to 4), and within a level in the order
+    // they were added to the project or moved to that level. The iterator walks the buckets of the project in place;
+    // modifying the project afterwards (including changing the priority of a child) makes the iterator fail fast.
     private class ProjectIterator implements Iterator<Todo> {
-        //the priority level currently iterating over
-        int level = 1;
-        int cursor = 0;
-        int sent = 0;
+        private final int expectedModCount = modCount;
+        private int level = 0;  // index in byLevel of the bucket being walked; PRIORITY_LEVELS once all were
+        private int slot = -1;  // slot of the next todo in that bucket
 
+        ProjectIterator() {
+            advance();
+        }
 
         //EFFECTS: returns true if not all tasks have been returned by the iterator
         @Override
         public boolean hasNext() {
-            return !tasks.isEmpty() && sent < tasks.size();
+            return level < PRIORITY_LEVELS;
         }
 
         //MODIFIES: this
-        //EFFECTS: iterates through tasks in order of decreasing priority levels
+        //EFFECTS: returns the next task in order of decreasing priority
+        //  throws ConcurrentModificationException if the project was modified after this iterator was created
         @Override
         public Todo next() {
-            if (hasNext()) {
-                if (tasks.get(cursor).getPriority().equals(new Priority(level))) {
-                    return returnNextTodo();
-                } else {
-                    if (cursor >= tasks.size() - 1) {
-                        level++;
-                        cursor = 0;
-                        return next();
-                    } else {
-                        cursor = incrementCursor();
-                        return next();
-                    }
-                }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
             }
-            throw new NoSuchElementException();
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Todo next = byLevel[level].slot(slot);
+            advance();
+            return next;
         }
 
         //MODIFIES: this
-        //EFFECTS: increments cursor by 1 if not at the end of the list, if at the end then reset the position
-        private int incrementCursor() {
-            if (cursor >= tasks.size() - 1) {
+        //EFFECTS: moves on to the slot of the todo after the current one, skipping holes and empty buckets
+        private void advance() {
+            slot++;
+            while (level < PRIORITY_LEVELS) {
+                OrderedTodoSet bucket = byLevel[level];
+                while (slot < bucket.slots() && bucket.slot(slot) == null) {
+                    slot++;
+                }
+                if (slot < bucket.slots()) {
+                    return;
+                }
                 level++;
-                cursor = 0;
-            } else {
-                return cursor + 1;
+                slot = 0;
             }
-            //this should never hit
-            return cursor;
-        }
-
-        //MODIFIES: this
-        //EFFECTS:  if the task at the current position has the same priority as the current level
-        //          save that task to return, add the position to sent, and increment cursor
-        private Todo returnNextTodo() {
-            Todo next = tasks.get(cursor);
-            cursor = incrementCursor();
-            sent++;
-            return next;
         }
     }
-}
\ No newline at end of file
+}
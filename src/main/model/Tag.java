@@ -3,15 +3,22 @@ package model;
 import model.exceptions.EmptyStringException;
 import model.exceptions.NullArgumentException;
 
+import utility.CompressedBitmap;
+import utility.LongHashMap;
+
+import java.util.AbstractSet;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Objects;
 import java.util.Set;
 
 // Represents a tag having a name
+// Tasks are kept by id, so editing a task does not affect whether this tag finds it.
+// The ordinals of the tasks (see TaskOrdinals) are also kept in a bitmap, which TagQuery combines.
 public class Tag {
     private String name;
-    private Set<Task> tasks;
+    private LongHashMap<Task> tasks;
+    private CompressedBitmap ordinals;
 
     // MODIFIES: this
     // EFFECTS: creates a Tag with the given name
@@ -21,7 +28,8 @@ public class Tag {
             throw new EmptyStringException("Cannot construct a tag with no name");
         }
         this.name = name;
-        tasks = new HashSet<>();
+        tasks = new LongHashMap<>();
+        ordinals = new CompressedBitmap();
     }
     
     // EFFECTS: returns the name of this tag
@@ -34,7 +42,8 @@ public class Tag {
     //  throws NullArgumentException if task is null
     public void addTask(Task task) {
         if (!containsTask(task)) {
-            tasks.add(task);
+            tasks.put(task.getId(), task);
+            ordinals.add(TaskOrdinals.acquire(task));
             task.addTag(this);
         }
     }
@@ -44,8 +53,12 @@ public class Tag {
     //  throws NullArgumentException if task is null
     public void removeTask(Task task) {
         if (containsTask(task)) {
-            tasks.remove(task);
+            tasks.remove(task.getId());
+            ordinals.remove(task.ordinal);
             task.removeTag(this);
+            if (task.getTags().isEmpty()) {
+                TaskOrdinals.release(task);
+            }
         }
     }
     
@@ -56,15 +69,35 @@ public class Tag {
         if (task == null) {
             throw new NullArgumentException("Invalid argument: task cannot be null");
         }
-        return tasks.contains(task);
+        return tasks.containsKey(task.getId());
     }
     
-    // EFFECTS: returns an unmodifiable set of tasks that have this tag
+    // EFFECTS: returns an unmodifiable (live) view of the set of tasks that have this tag
     public Set<Task> getTasks() {
-        return Collections.unmodifiableSet(tasks);
+        return new AbstractSet<Task>() {
+            @Override
+            public Iterator<Task> iterator() {
+                return Collections.unmodifiableCollection(tasks.values()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return tasks.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Task && containsTask((Task) o);
+            }
+        };
     }
     
     
+    // EFFECTS: returns the ordinals of the tasks that have this tag; the bitmap must not be modified
+    CompressedBitmap ordinals() {
+        return ordinals;
+    }
+
     // EFFECTS: returns the tag name preceded by #
     @Override
     public String toString() {
@@ -0,0 +1,121 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import utility.CompressedBitmap;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// Represents a query over the registered tags (see TagRegistry), such as
+//     TagQuery.withTag("cpsc210").and("exams").andNot("done")
+// Terms are combined from left to right: withTag("a").or("b").and("c") finds the tasks with (a OR b) AND c.
+// The query is answered from the bitmaps of task ordinals kept by the tags, never by scanning tasks.
+// Each call to iterator() evaluates the query against the tags as they are at that moment and then
+// yields the matching tasks lazily.
+public class TagQuery implements Iterable<Task> {
+    private enum Operator { AND, OR, AND_NOT }
+
+    private final List<Operator> operators;  // operators.get(i) combines names.get(i) with the terms before it
+    private final List<String> names;
+
+    private TagQuery(String name) {
+        operators = new ArrayList<>();
+        names = new ArrayList<>();
+        term(null, name);
+    }
+
+    // EFFECTS: returns a query for the tasks having the tag named name
+    //  throws EmptyStringException if name is null or empty
+    public static TagQuery withTag(String name) {
+        return new TagQuery(name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: narrows this query to the tasks that also have the tag named name, and returns this
+    //  throws EmptyStringException if name is null or empty
+    public TagQuery and(String name) {
+        return term(Operator.AND, name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: widens this query to the tasks that have the tag named name, and returns this
+    //  throws EmptyStringException if name is null or empty
+    public TagQuery or(String name) {
+        return term(Operator.OR, name);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: narrows this query to the tasks that do not have the tag named name, and returns this
+    //  throws EmptyStringException if name is null or empty
+    public TagQuery andNot(String name) {
+        return term(Operator.AND_NOT, name);
+    }
+
+    // EFFECTS: returns the number of tasks matching this query
+    public int count() {
+        return evaluate().cardinality();
+    }
+
+    // EFFECTS: returns an iterator over the tasks matching this query when it is called;
+    //          the iterator throws ConcurrentModificationException if a task loses its last tag
+    //          while it is in use
+    @Override
+    public Iterator<Task> iterator() {
+        PrimitiveIterator.OfInt matches = evaluate().iterator();
+        int releases = TaskOrdinals.releases();
+        return new Iterator<Task>() {
+            @Override
+            public boolean hasNext() {
+                return matches.hasNext();
+            }
+
+            @Override
+            public Task next() {
+                if (TaskOrdinals.releases() != releases) {
+                    throw new ConcurrentModificationException();
+                }
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return TaskOrdinals.get(matches.nextInt());
+            }
+        };
+    }
+
+    // EFFECTS: returns the ordinals of the tasks matching this query
+    private CompressedBitmap evaluate() {
+        CompressedBitmap result = ordinalsOf(names.get(0)).copy();
+        for (int i = 1; i < names.size(); i++) {
+            CompressedBitmap term = ordinalsOf(names.get(i));
+            if (operators.get(i) == Operator.OR) {
+                result = CompressedBitmap.or(result, term);
+            } else if (!result.isEmpty()) {  // narrowing an empty result leaves it empty
+                result = operators.get(i) == Operator.AND
+                        ? CompressedBitmap.and(result, term) : CompressedBitmap.andNot(result, term);
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns the ordinals of the tasks having the tag named name
+    private static CompressedBitmap ordinalsOf(String name) {
+        Tag tag = TagRegistry.findTag(name);
+        return tag == null ? new CompressedBitmap() : tag.ordinals();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: appends the term "op name" to this query and returns this
+    //  throws EmptyStringException if name is null or empty
+    private TagQuery term(Operator op, String name) {
+        if (name == null || name.length() == 0) {
+            throw new EmptyStringException("Cannot query a tag with no name");
+        }
+        operators.add(op);
+        names.add(name);
+        return this;
+    }
+}
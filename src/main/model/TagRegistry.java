@@ -0,0 +1,53 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import model.exceptions.NullArgumentException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The registry of the tags in use: there is one Tag per name, shared by every task having that tag,
+// so Tag.getTasks() of a registered tag is an inverted index of all the loaded tasks with that tag.
+// Registered tags are never discarded; memory grows with the number of distinct tag names.
+public final class TagRegistry {
+    private static final Map<String, Tag> tags = new ConcurrentHashMap<>();
+
+    private TagRegistry() {
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the tag named name, registering a new tag if there is none
+    //  throws EmptyStringException if name is null or empty
+    public static Tag getTag(String name) {
+        if (name == null || name.length() == 0) {
+            throw new EmptyStringException("Cannot get a tag with no name");
+        }
+        return tags.computeIfAbsent(name, Tag::new);
+    }
+
+    // EFFECTS: returns the tag named name, or null if no such tag is registered
+    public static Tag findTag(String name) {
+        return name == null ? null : tags.get(name);
+    }
+
+    // EFFECTS: returns an unmodifiable snapshot of every registered tag
+    public static Collection<Tag> getTags() {
+        return Collections.unmodifiableCollection(new ArrayList<>(tags.values()));
+    }
+
+    // MODIFIES: task, its tags
+    // EFFECTS: removes every tag from task, so that a task deleted from the application is no longer
+    //          listed by any tag
+    //  throws NullArgumentException if task is null
+    public static void removeTask(Task task) {
+        if (task == null) {
+            throw new NullArgumentException("Invalid argument: task cannot be null");
+        }
+        for (Tag t : new ArrayList<>(task.getTags())) {
+            task.removeTag(t);
+        }
+    }
+}
@@ -4,19 +4,19 @@ import model.exceptions.EmptyStringException;
 import model.exceptions.InvalidProgressException;
 import model.exceptions.NegativeInputException;
 import model.exceptions.NullArgumentException;
-import parsers.Parser;
-import parsers.TagParser;
-import parsers.exceptions.ParsingException;
+import parsers.MetadataParser;
 
 import java.util.*;
 
 // Represents a Task having a description, status, priorities, set of tags and due date.
 public class Task extends Todo {
     public static final DueDate NO_DUE_DATE = null;
+    private static final MetadataParser METADATA_PARSER = new MetadataParser();  // apply() is thread-safe
 
     private Set<Tag> tags;
     private DueDate dueDate;
     private Status status;
+    int ordinal = -1;  // see TaskOrdinals; -1 while this task has no tags
 
     // MODIFIES: this
     // EFFECTS: constructs a task with the given description
@@ -29,16 +29,70 @@ public class Task extends Todo {
         tags = new HashSet<>();
         dueDate = NO_DUE_DATE;
         status = Status.TODO;
-        setDescription(description);
+        Generation.quietly(() -> setDescription(description));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as Task(description), but the task has the given id (e.g. one restored from a saved file)
+    //  throws EmptyStringException if description is null or empty
+    //  throws NegativeInputException if id < 0
+    public Task(long id, String description) {
+        super(id, description);
+        tags = new HashSet<>();
+        dueDate = NO_DUE_DATE;
+        status = Status.TODO;
+        Generation.quietly(() -> setDescription(description));
+    }
+
+    // EFFECTS: returns a task with the given id and meta-data, taken as they are. Unlike the constructors,
+    //    this does not parse description, so it is meant for restoring tasks saved by this application,
+    //    whose descriptions no longer hold meta-data. Tags are added afterwards with addTag. Building the task
+    //    does not advance the Generation (nor does adding its tags, if done in a quiet scope: see Generation).
+    //  throws EmptyStringException if description is null or empty
+    //  throws NegativeInputException if id < 0
+    //  throws NullArgumentException if priority or status is null
+    public static Task restore(long id, String description, DueDate dueDate, Priority priority, Status status) {
+        Task task = new Task(id, description, dueDate);
+        Generation.quietly(() -> {
+            task.setPriority(priority);
+            task.setStatus(status);
+        });
+        return task;
+    }
+
+    // EFFECTS: same as restore(id, description, dueDate, priority, status), but the task is given a new id
+    public static Task restore(String description, DueDate dueDate, Priority priority, Status status) {
+        Task task = new Task(description, dueDate);
+        Generation.quietly(() -> {
+            task.setPriority(priority);
+            task.setStatus(status);
+        });
+        return task;
+    }
+
+    // EFFECTS: constructs a task with the given description and due date, without parsing the description
+    private Task(String description, DueDate dueDate) {
+        super(description);
+        tags = new HashSet<>();
+        this.dueDate = dueDate;
+        status = Status.TODO;
+    }
+
+    // EFFECTS: constructs a task with the given id, description and due date, without parsing the description
+    private Task(long id, String description, DueDate dueDate) {
+        super(id, description);
+        tags = new HashSet<>();
+        this.dueDate = dueDate;
+        status = Status.TODO;
     }
 
 
     // MODIFIES: this
-    // EFFECTS: creates a tag with name tagName and adds it to this task
+    // EFFECTS: adds the registered tag named tagName (see TagRegistry) to this task
     //  throws EmptyStringException if tagName is null or empty
     // Note: no two tags are to have the same name
     public void addTag(String tagName) {
-        addTag(new Tag(tagName));
+        addTag(TagRegistry.getTag(tagName));
     }
     
     // MODIFIES: this
@@ -48,6 +102,7 @@ public class Task extends Todo {
         if (!containsTag(tag)) {
             tags.add(tag);
             tag.addTask(this);
+            Generation.advance();
         }
     }
     
@@ -59,14 +114,27 @@ public class Task extends Todo {
     }
     
     // MODIFIES: this
-    // EFFECTS: removes tag from this task
+    // EFFECTS: removes tag (or the tag of this task having the same name) from this task
     //  throws NullArgumentException if tag is null
     public void removeTag(Tag tag) {
         if (containsTag(tag)) {
-            tags.remove(tag);
-            tag.removeTask(this);
+            Tag own = ownTag(tag);
+            tags.remove(own);
+            own.removeTask(this);
+            Generation.advance();
         }
     }
+
+    // REQUIRES: containsTag(tag)
+    // EFFECTS: returns the tag instance held by this task that is equal to tag
+    private Tag ownTag(Tag tag) {
+        for (Tag t : tags) {
+            if (t.equals(tag)) {
+                return t;
+            }
+        }
+        return tag;
+    }
     
     // EFFECTS: returns an unmodifiable set of tags
     public Set<Tag> getTags() {
@@ -85,7 +153,11 @@ public class Task extends Todo {
         if (status == null) {
             throw new NullArgumentException("Illegal argument: status is null");
         }
+        Status previous = this.status;
         this.status = status;
+        if (previous != status) {
+            statusChanged(this, previous);
+        }
     }
 
     // EFFECTS: returns the description of this task
@@ -111,7 +183,9 @@ public class Task extends Todo {
             throw new InvalidProgressException();
         }
 
+        int changed = progress - this.progress;
         this.progress = progress;
+        progressChanged(changed, changed);
     }
 
     // MODIFIES: this
@@ -136,6 +210,7 @@ public class Task extends Todo {
             throw new EmptyStringException("setDescription is called with no description");
         }
         this.description = description;
+        Generation.advance();
         parseDescription(description);
     }
 
@@ -145,9 +220,11 @@ public class Task extends Todo {
     }
 
     // MODIFIES: this
-    // EFFECTS: sets the due date of this task
+    // EFFECTS: sets the due date of this task and notifies listeners; a due date that is edited in place
+    //          (e.g. postponed) must be set again for listeners to learn of the change
     public void setDueDate(DueDate dueDate) {
         this.dueDate = dueDate;
+        dueDateChanged(this);
     }
 
     // EFFECTS: returns true if task contains a tag with tagName,
@@ -174,13 +251,8 @@ public class Task extends Todo {
     // MODIFIES: this
     // EFFECTS: parses the description to extract meta-data (i.e., tags, status, priority and deadline).
     private void parseDescription(String description) {
-        Parser parser = new TagParser();
-        try {
-            parser.parse(description, this);
-            this.description = parser.getDescription();
-        } catch (ParsingException e) {
-            this.description = description;
-        }
+        String parsed = METADATA_PARSER.apply(description, this);
+        this.description = parsed == null ? description : parsed;
     }
 
     //EFFECTS: returns a string representation of this task in the following format
@@ -0,0 +1,199 @@
+package model;
+
+import model.exceptions.NullArgumentException;
+import utility.LongHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+// Indexes a set of tasks by status, by priority level (see Priority) and by due date, so that
+// "what is in progress", "what is important & urgent" or "what is due this week" does not need a scan.
+// The index listens to its tasks and re-files a task whenever its status, priority or due date changes.
+// Equality queries return live views in O(1); due date ranges are answered in O(log n + k) for k results.
+// Not synchronized: the index and its tasks are expected to be confined to one thread.
+public class TaskIndex implements TodoListener {
+    private static final int PRIORITY_LEVELS = 4;
+
+    private final LongHashMap<Filing> filings;                        // where each indexed task is filed
+    private final Map<Status, LongHashMap<Task>> byStatus;
+    private final List<LongHashMap<Task>> byLevel;                    // byLevel.get(level - 1)
+    private final NavigableMap<Long, LongHashMap<Task>> byDueMinute;  // keyed by minutes since the epoch
+
+    // EFFECTS: constructs an empty index
+    public TaskIndex() {
+        filings = new LongHashMap<>();
+        byStatus = new EnumMap<>(Status.class);
+        for (Status s : Status.values()) {
+            byStatus.put(s, new LongHashMap<>());
+        }
+        byLevel = new ArrayList<>(PRIORITY_LEVELS);
+        for (int level = 1; level <= PRIORITY_LEVELS; level++) {
+            byLevel.add(new LongHashMap<>());
+        }
+        byDueMinute = new TreeMap<>();
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: adds task to this index, if it is not already indexed
+    //  throws NullArgumentException if task is null
+    public void add(Task task) {
+        if (task == null) {
+            throw new NullArgumentException("Invalid argument: task cannot be null");
+        }
+        if (!contains(task)) {
+            file(task);
+            task.addListener(this);
+        }
+    }
+
+    // MODIFIES: this, tasks
+    // EFFECTS: adds every task of tasks to this index
+    //  throws NullArgumentException if tasks, or any task in it, is null
+    public void addAll(Collection<Task> tasks) {
+        if (tasks == null) {
+            throw new NullArgumentException("Invalid argument: tasks cannot be null");
+        }
+        for (Task t : tasks) {
+            add(t);
+        }
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: removes task from this index
+    public void remove(Task task) {
+        if (task != null && contains(task)) {
+            unfile(task);
+            task.removeListener(this);
+        }
+    }
+
+    // EFFECTS: returns true if task is in this index
+    public boolean contains(Task task) {
+        return task != null && filings.containsKey(task.getId());
+    }
+
+    // EFFECTS: returns the number of tasks in this index
+    public int size() {
+        return filings.size();
+    }
+
+    // EFFECTS: returns an unmodifiable live view of the indexed tasks having status
+    //  throws NullArgumentException if status is null
+    public Collection<Task> getTasksWithStatus(Status status) {
+        if (status == null) {
+            throw new NullArgumentException("Illegal argument: status is null");
+        }
+        return byStatus.get(status).values();
+    }
+
+    // EFFECTS: returns an unmodifiable live view of the indexed tasks having the same priority level as priority
+    //  throws NullArgumentException if priority is null
+    public Collection<Task> getTasksWithPriority(Priority priority) {
+        if (priority == null) {
+            throw new NullArgumentException("Illegal argument: priority is null");
+        }
+        return byLevel.get(priority.getLevel() - 1).values();
+    }
+
+    // EFFECTS: returns the indexed tasks due at or after from and before to, ordered by due date
+    //          (to the minute); tasks with no due date are never returned
+    //  throws NullArgumentException if from or to is null
+    public List<Task> getTasksDueBetween(Date from, Date to) {
+        if (from == null || to == null) {
+            throw new NullArgumentException("Illegal argument: from and to cannot be null");
+        }
+        List<Task> due = new ArrayList<>();
+        if (minuteOf(from) < minuteOf(to)) {
+            for (LongHashMap<Task> sameMinute : byDueMinute.subMap(minuteOf(from), minuteOf(to)).values()) {
+                due.addAll(sameMinute.values());
+            }
+        }
+        return Collections.unmodifiableList(due);
+    }
+
+    @Override
+    public void onEtcDelta(Todo source, int delta) {
+    }
+
+    @Override
+    public void onProgressDelta(Todo source, int delta, int taskDelta) {
+    }
+
+    @Override
+    public void onStatusChanged(Task source, Status previous) {
+        refile(source);
+    }
+
+    @Override
+    public void onPriorityChanged(Todo source) {
+        if (source instanceof Task) {
+            refile((Task) source);
+        }
+    }
+
+    @Override
+    public void onDueDateChanged(Task source) {
+        refile(source);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: files task again under its current status, priority level and due date
+    private void refile(Task task) {
+        if (contains(task)) {
+            unfile(task);
+            file(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: files task under its current status, priority level and due date
+    private void file(Task task) {
+        Filing filing = new Filing(task);
+        filings.put(task.getId(), filing);
+        byStatus.get(filing.status).put(task.getId(), task);
+        byLevel.get(filing.level - 1).put(task.getId(), task);
+        if (filing.dueMinute != null) {
+            byDueMinute.computeIfAbsent(filing.dueMinute, m -> new LongHashMap<>()).put(task.getId(), task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes task from where it was filed
+    private void unfile(Task task) {
+        Filing filing = filings.remove(task.getId());
+        byStatus.get(filing.status).remove(task.getId());
+        byLevel.get(filing.level - 1).remove(task.getId());
+        if (filing.dueMinute != null) {
+            LongHashMap<Task> sameMinute = byDueMinute.get(filing.dueMinute);
+            sameMinute.remove(task.getId());
+            if (sameMinute.isEmpty()) {
+                byDueMinute.remove(filing.dueMinute);
+            }
+        }
+    }
+
+    // EFFECTS: returns the number of whole minutes from the epoch to date
+    private static long minuteOf(Date date) {
+        return Math.floorDiv(date.getTime(), 60_000L);
+    }
+
+    // Where a task was filed, so that it can be found and removed after the task has changed
+    private static final class Filing {
+        private final Status status;
+        private final int level;
+        private final Long dueMinute;  // null if the task has no due date
+
+        Filing(Task task) {
+            status = task.getStatus();
+            level = task.getPriority().getLevel();
+            dueMinute = task.getDueDate() == null ? null : minuteOf(task.getDueDate().getDate());
+        }
+    }
+}
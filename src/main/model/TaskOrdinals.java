@@ -0,0 +1,57 @@
+package model;
+
+import java.util.Arrays;
+
+// Gives every task that has at least one tag a small int, its ordinal, so that a tag can keep its tasks
+// in a CompressedBitmap. The ordinal of a task that loses its last tag is reused by the next task to be
+// tagged, which keeps the ordinals (and so the bitmaps) dense. Not synchronized: like the tags
+// themselves, ordinals are expected to be changed from one thread at a time.
+final class TaskOrdinals {
+    private static Task[] tasks = new Task[16];   // the task holding each ordinal, or null if it is free
+    private static int[] free = new int[16];
+    private static int freeCount;
+    private static int next;                      // smallest ordinal never given out
+    private static int releases;                  // number of ordinals released so far
+
+    private TaskOrdinals() {
+    }
+
+    // MODIFIES: task
+    // EFFECTS: gives task an ordinal if it does not have one yet, and returns its ordinal
+    static int acquire(Task task) {
+        if (task.ordinal < 0) {
+            int ordinal = freeCount > 0 ? free[--freeCount] : next++;
+            if (ordinal == tasks.length) {
+                tasks = Arrays.copyOf(tasks, tasks.length * 2);
+            }
+            tasks[ordinal] = task;
+            task.ordinal = ordinal;
+        }
+        return task.ordinal;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: takes the ordinal of task back so that it can be given to another task
+    static void release(Task task) {
+        if (task.ordinal >= 0) {
+            tasks[task.ordinal] = null;
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = task.ordinal;
+            task.ordinal = -1;
+            releases++;
+        }
+    }
+
+    // EFFECTS: returns the task holding ordinal, or null if no task holds it
+    static Task get(int ordinal) {
+        return tasks[ordinal];
+    }
+
+    // EFFECTS: returns the number of ordinals released so far; while it is unchanged, an ordinal
+    //          cannot have moved from one task to another
+    static int releases() {
+        return releases;
+    }
+}
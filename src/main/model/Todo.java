@@ -1,30 +1,63 @@
 package model;
 
 import model.exceptions.EmptyStringException;
+import model.exceptions.NegativeInputException;
 import model.exceptions.NullArgumentException;
 
-import java.util.Observable;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Represents a component of the Todo composite (a Task or a Project)
+// Listeners are not synchronized: a todo and its listeners are expected to be confined to one thread.
+public abstract class Todo {
+    private static final TodoListener[] NO_LISTENERS = new TodoListener[0];
+    private static final Project[] NO_PARENTS = new Project[0];
+    private static final AtomicLong nextId = new AtomicLong(1);
+
+    private final long id;  // stable identity; unlike equals, it does not change as the todo is edited
 
-public abstract class Todo extends Observable {
     protected String description;
     protected int progress;
     protected int etcHours;  // Estimated Time To Complete
     protected Priority priority;
+    private TodoListener[] listeners = NO_LISTENERS;  // copied on write, so notifying never allocates
+    private Project[] parents = NO_PARENTS;           // projects directly containing this todo
 
     // MODIFIES: this
     // EFFECTS: sets the "description" using the given description
     //          sets "progress" and "estimated time to complete" to zero
     // throws EmptyStringException if description is null or empty
     public Todo(String description) {
+        this(nextId.getAndIncrement(), description);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as Todo(description), but with the given id (e.g. one restored from a saved file);
+    //          ids later given to new todos are all greater than id
+    // throws EmptyStringException if description is null or empty
+    // throws NegativeInputException if id < 0
+    protected Todo(long id, String description) {
         if (description == null || description.length() == 0) {
             throw new EmptyStringException("Cannot construct a task with no description");
         }
+        if (id < 0) {
+            throw new NegativeInputException("Cannot construct a task with a negative id");
+        }
+        this.id = id;
+        nextId.accumulateAndGet(id + 1, Math::max);
         this.description = description;
         priority = new Priority(4);
+        priority.addOwner(this);
         progress = 0;
         etcHours = 0;
     }
 
+    // EFFECTS: returns the id of this todo, which never changes and is unique among the todos
+    //          of a running application
+    public long getId() {
+        return id;
+    }
+
     // EFFECTS: returns the description
     public String getDescription() {
         return description;
@@ -45,18 +78,154 @@ public abstract class Todo extends Observable {
     }
 
     // MODIFIES: this
-    // EFFECTS: sets the priority of this task
+    // EFFECTS: sets the priority of this task; listeners are notified of later changes made to priority
+    //          itself, as well as of this change
     //   throws NullArgumentException when priority is null
     public void setPriority(Priority priority) {
         if (priority == null) {
             throw new NullArgumentException("Illegal argument: priority is null");
         }
+        this.priority.removeOwner(this);
         this.priority = priority;
+        priority.addOwner(this);
+        priorityChanged();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: registers listener to be notified of changes to this todo (if it is not already registered)
+    //   throws NullArgumentException when listener is null
+    public void addListener(TodoListener listener) {
+        if (listener == null) {
+            throw new NullArgumentException("Illegal argument: listener is null");
+        }
+        listeners = with(listeners, listener);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops notifying listener of changes to this todo
+    public void removeListener(TodoListener listener) {
+        listeners = without(listeners, listener);
+    }
+
+    // EFFECTS: returns the number of listeners registered on this todo
+    public int countListeners() {
+        return listeners.length;
+    }
+
+    // EFFECTS: returns an unmodifiable list of the projects that directly contain this todo
+    public List<Project> getParents() {
+        return Collections.unmodifiableList(Arrays.asList(parents));
+    }
+
+    // EFFECTS: returns true if ancestor contains this todo, directly or through its sub-projects;
+    //          walks up from this todo, so it takes O(depth) for a todo that has a single parent
+    //   throws NullArgumentException when ancestor is null
+    public boolean isDescendantOf(Project ancestor) {
+        if (ancestor == null) {
+            throw new NullArgumentException("Illegal argument: ancestor is null");
+        }
+        Deque<Todo> toVisit = new ArrayDeque<>();
+        Set<Todo> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        toVisit.push(this);
+        while (!toVisit.isEmpty()) {
+            for (Project p : toVisit.pop().parents) {
+                if (p == ancestor) {
+                    return true;
+                }
+                if (visited.add(p)) {
+                    toVisit.push(p);
+                }
+            }
+        }
+        return false;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that project directly contains this todo
+    void addParent(Project project) {
+        parents = with(parents, project);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records that project no longer contains this todo
+    void removeParent(Project project) {
+        parents = without(parents, project);
+    }
+
+    // EFFECTS: returns a copy of array with element appended, or array itself if it already holds element
+    static <T> T[] with(T[] array, T element) {
+        if (indexOf(array, element) >= 0) {
+            return array;
+        }
+        T[] copy = Arrays.copyOf(array, array.length + 1);
+        copy[array.length] = element;
+        return copy;
+    }
+
+    // EFFECTS: returns a copy of array without element, or array itself if it does not hold element
+    static <T> T[] without(T[] array, T element) {
+        int i = indexOf(array, element);
+        if (i < 0) {
+            return array;
+        }
+        T[] copy = Arrays.copyOf(array, array.length - 1);
+        System.arraycopy(array, i + 1, copy, i, copy.length - i);
+        return copy;
+    }
+
+    // EFFECTS: returns the position of element in array (compared by identity), or -1 if it is not there
+    private static int indexOf(Object[] array, Object element) {
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] == element) {
+                return i;
+            }
+        }
+        return -1;
     }
 
-    //EFFECTS: notifies observers of how much the estimated time has changed by
+    //EFFECTS: notifies listeners of how much the estimated time has changed by, and advances the Generation
     public void etcChanged(int changed) {
-        setChanged();
-        notifyObservers(changed);
+        if (changed != 0) {
+            Generation.advance();
+            for (TodoListener l : listeners) {
+                l.onEtcDelta(this, changed);
+            }
+        }
+    }
+
+    //EFFECTS: notifies listeners of how much the progress of this todo, and the sum of the progress of
+    //         all the tasks under it, have changed by, and advances the Generation; nothing is done if neither
+    //         has changed
+    protected void progressChanged(int progress, int taskProgress) {
+        if (progress != 0 || taskProgress != 0) {
+            Generation.advance();
+            for (TodoListener l : listeners) {
+                l.onProgressDelta(this, progress, taskProgress);
+            }
+        }
+    }
+
+    //EFFECTS: notifies listeners that the status of task has changed from previous, and advances the Generation
+    protected void statusChanged(Task task, Status previous) {
+        Generation.advance();
+        for (TodoListener l : listeners) {
+            l.onStatusChanged(task, previous);
+        }
+    }
+
+    //EFFECTS: notifies listeners that the priority of this todo has changed, and advances the Generation
+    void priorityChanged() {
+        Generation.advance();
+        for (TodoListener l : listeners) {
+            l.onPriorityChanged(this);
+        }
+    }
+
+    //EFFECTS: notifies listeners that the due date of task has been set, and advances the Generation
+    protected void dueDateChanged(Task task) {
+        Generation.advance();
+        for (TodoListener l : listeners) {
+            l.onDueDateChanged(task);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,28 @@
+package model;
+
+// Listens for changes made to a Todo.
+// Each change is delivered exactly once to every listener registered on the changed todo, after the
+// change has been applied, on the thread that made it. A Project listens to its children and, when
+// one of them changes, updates its own rollups and then notifies its own listeners once, so a change
+// travels up the composite one level at a time.
+public interface TodoListener {
+
+    // EFFECTS: called when the estimated time to complete source has changed by delta hours
+    void onEtcDelta(Todo source, int delta);
+
+    // EFFECTS: called when the progress of source has changed by delta, and the sum of the progress
+    //          of every task under source (source itself, if it is a task) has changed by taskDelta
+    void onProgressDelta(Todo source, int delta, int taskDelta);
+
+    // EFFECTS: called when the status of source has changed from previous to source.getStatus()
+    default void onStatusChanged(Task source, Status previous) {
+    }
+
+    // EFFECTS: called when the priority of source has been replaced, or changed in place
+    default void onPriorityChanged(Todo source) {
+    }
+
+    // EFFECTS: called when the due date of source has been set (possibly to the same, but edited, due date)
+    default void onDueDateChanged(Task source) {
+    }
+}
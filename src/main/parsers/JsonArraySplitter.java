@@ -0,0 +1,117 @@
+package parsers;
+
+import org.json.JSONException;
+
+import java.util.Arrays;
+
+// Splits the text of a JSON array into the spans of its elements without parsing them, so that the
+// elements can be parsed independently (and in parallel). Only the nesting of brackets and braces and
+// the extent of double-quoted strings are followed; the elements themselves are left for JSONTokener
+// to check. An empty element (as in [a,,b], or after a trailing comma) is left out.
+class JsonArraySplitter {
+    private final String text;
+    private int[] bounds = new int[64];  // the start of each element and the index of its separator, in pairs
+    private int size;
+
+    // EFFECTS: splits text, the text of a JSON array
+    //  throws JSONException if text does not start with '[', or its array is not closed
+    JsonArraySplitter(String text) {
+        this.text = text;
+        int open = skipWhitespace(0);
+        if (open == text.length() || text.charAt(open) != '[') {
+            throw new JSONException("A JSONArray text must start with '['");
+        }
+        split(open + 1);
+    }
+
+    // EFFECTS: returns the text that was split
+    String getText() {
+        return text;
+    }
+
+    // EFFECTS: returns the number of elements in the array
+    int size() {
+        return size;
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the index in getText() of the first character of the i-th element
+    int start(int i) {
+        return bounds[2 * i];
+    }
+
+    // REQUIRES: 0 <= i < size()
+    // EFFECTS: returns the index in getText() of the ',' or ']' that follows the i-th element
+    int end(int i) {
+        return bounds[2 * i + 1];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the elements of the array whose first element starts at or after from
+    //  throws JSONException if the array is not closed
+    private void split(int from) {
+        int depth = 0;
+        int start = from;
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                i = closingQuote(i);
+            } else if (depth > 0 || (c != ',' && c != ']')) {
+                depth += nesting(c);
+            } else {
+                add(start, i);
+                if (c == ']') {
+                    return;
+                }
+                start = i + 1;
+            }
+        }
+        throw new JSONException("Expected a ',' or ']'");
+    }
+
+    // EFFECTS: returns 1 if c opens an array or object, -1 if it closes one, and 0 otherwise
+    private static int nesting(char c) {
+        if (c == '[' || c == '{') {
+            return 1;
+        }
+        return c == ']' || c == '}' ? -1 : 0;
+    }
+
+    // EFFECTS: returns the index of the quote that closes the string opened at open
+    //  throws JSONException if the string is not closed
+    private int closingQuote(int open) {
+        for (int i = open + 1; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        throw new JSONException("Unterminated string");
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records the element between from and the separator at end, unless it is empty
+    private void add(int from, int end) {
+        int start = skipWhitespace(from);
+        if (start == end) {
+            return;
+        }
+        if (2 * size == bounds.length) {
+            bounds = Arrays.copyOf(bounds, 2 * bounds.length);
+        }
+        bounds[2 * size] = start;
+        bounds[2 * size + 1] = end;
+        size++;
+    }
+
+    // EFFECTS: returns the index of the first character at or after from that is not whitespace
+    private int skipWhitespace(int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+}
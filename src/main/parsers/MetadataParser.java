@@ -0,0 +1,192 @@
+package parsers;
+
+import model.DueDate;
+import model.Status;
+import model.Task;
+import model.exceptions.NullArgumentException;
+import parsers.exceptions.ParsingException;
+
+import java.util.Arrays;
+
+// Parses the meta-data of a task description, e.g. "Buy milk ## today; important; grocery".
+// Recognizes the same keywords, in the same way, as TagParser:
+//   - the description is the text before the first "##", and the meta-data the text between it and the
+//     next "##" (or the end); meta-data items are separated by ";", trimmed, and an item that is empty or
+//     that repeats an earlier one (ignoring case) is skipped
+//   - "important" and "urgent" set the priority
+//   - the first of "today" and "tomorrow" sets the due date
+//   - the first of "to do", "up next", "in progress" and "done" sets the status
+//   - every other item (including a second due date or status) is added as a tag
+// Keywords are matched ignoring case. The input is scanned once, without regular expressions, and only
+// tags are copied out of it. A description with nothing after "##" has empty meta-data rather than
+// failing, as it did with TagParser.
+// apply() keeps no state, so one instance can serve every task, on any thread; parse() and getDescription()
+// implement Parser, which requires them to keep the last description parsed, and are not thread-safe.
+public class MetadataParser extends Parser {
+    private static final String SEPARATOR = "##";
+    private static final String[] STATUS_KEYWORDS = {"to do", "up next", "in progress", "done"};
+    private static final Status[] STATUSES = {Status.TODO, Status.UP_NEXT, Status.IN_PROGRESS, Status.DONE};
+    private static final int DUE_DATE = 1;
+    private static final int STATUS = 2;
+
+    private String description;
+
+    // MODIFIES: task
+    // EFFECTS: applies the meta-data in input to task and returns the description that precedes it,
+    //          or returns null (leaving task unchanged) if input has no meta-data
+    //  throws NullArgumentException if input or task is null
+    public String apply(String input, Task task) {
+        if (input == null || task == null) {
+            throw new NullArgumentException("Illegal argument: input and task cannot be null");
+        }
+        int separator = input.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return null;
+        }
+        int start = separator + SEPARATOR.length();
+        int end = input.indexOf(SEPARATOR, start);
+        applyItems(input, start, end < 0 ? input.length() : end, task);
+        return input.substring(0, separator);
+    }
+
+    // MODIFIES: this, task
+    // EFFECTS: applies the meta-data in input to task, and keeps the description that precedes it
+    //  throws ParsingException if input has no meta-data
+    @Override
+    public void parse(String input, Task task) throws ParsingException {
+        String parsed = apply(input, task);
+        if (parsed == null) {
+            throw new ParsingException("Input does not contain tags!");
+        }
+        description = parsed;
+    }
+
+    // EFFECTS: returns the description found by the last successful call to parse
+    @Override
+    public String getDescription() {
+        return description;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: applies each ";"-separated item of input[from, to) to task, skipping empty and repeated items
+    private static void applyItems(String input, int from, int to, Task task) {
+        int[] items = new int[16];  // start and end of each distinct item so far
+        int count = 0;
+        int found = 0;              // DUE_DATE and/or STATUS, once they have been set
+        for (int start = from; start <= to; ) {
+            int end = nextSemicolon(input, start, to);
+            int itemStart = skipSpace(input, start, end);
+            int itemEnd = trimSpace(input, itemStart, end);
+            if (itemStart < itemEnd && !isRepeated(input, items, count, itemStart, itemEnd)) {
+                items = remember(items, count++, itemStart, itemEnd);
+                found |= applyItem(input, itemStart, itemEnd, task, found);
+            }
+            start = end + 1;
+        }
+    }
+
+    // MODIFIES: task
+    // EFFECTS: applies the item input[start, end) to task; returns DUE_DATE or STATUS if the item set that,
+    //          or 0 otherwise. found tells which of them earlier items have set.
+    private static int applyItem(String input, int start, int end, Task task, int found) {
+        if (applyPriority(input, start, end, task)) {
+            return 0;
+        }
+        if ((found & DUE_DATE) == 0 && applyDueDate(input, start, end, task)) {
+            return DUE_DATE;
+        }
+        if ((found & STATUS) == 0 && applyStatus(input, start, end, task)) {
+            return STATUS;
+        }
+        task.addTag(input.substring(start, end));
+        return 0;
+    }
+
+    // EFFECTS: records [start, end) as item i in items (growing it if needed) and returns items
+    private static int[] remember(int[] items, int i, int start, int end) {
+        if (i * 2 == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+        }
+        items[i * 2] = start;
+        items[i * 2 + 1] = end;
+        return items;
+    }
+
+    // EFFECTS: sets the priority of task if input[start, end) is a priority keyword, and returns true if it is
+    private static boolean applyPriority(String input, int start, int end, Task task) {
+        if (is(input, start, end, "important")) {
+            task.getPriority().setImportant(true);
+            return true;
+        }
+        if (is(input, start, end, "urgent")) {
+            task.getPriority().setUrgent(true);
+            return true;
+        }
+        return false;
+    }
+
+    // EFFECTS: sets the due date of task if input[start, end) is a due date keyword, and returns true if it is
+    private static boolean applyDueDate(String input, int start, int end, Task task) {
+        boolean today = is(input, start, end, "today");
+        if (!today && !is(input, start, end, "tomorrow")) {
+            return false;
+        }
+        DueDate dueDate = new DueDate();
+        if (!today) {
+            dueDate.postponeOneDay();
+        }
+        task.setDueDate(dueDate);
+        return true;
+    }
+
+    // EFFECTS: sets the status of task if input[start, end) is a status keyword, and returns true if it is
+    private static boolean applyStatus(String input, int start, int end, Task task) {
+        for (int i = 0; i < STATUS_KEYWORDS.length; i++) {
+            if (is(input, start, end, STATUS_KEYWORDS[i])) {
+                task.setStatus(STATUSES[i]);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns true if input[start, end) equals one of the first count items, ignoring case
+    private static boolean isRepeated(String input, int[] items, int count, int start, int end) {
+        for (int i = 0; i < count; i++) {
+            int itemStart = items[i * 2];
+            int length = items[i * 2 + 1] - itemStart;
+            if (length == end - start && input.regionMatches(true, start, input, itemStart, length)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // EFFECTS: returns true if input[start, end) equals keyword, ignoring case
+    private static boolean is(String input, int start, int end, String keyword) {
+        return end - start == keyword.length() && input.regionMatches(true, start, keyword, 0, keyword.length());
+    }
+
+    // EFFECTS: returns the position of the first ';' in input[from, to), or to if there is none
+    private static int nextSemicolon(String input, int from, int to) {
+        int i = input.indexOf(';', from);
+        return i < 0 || i >= to ? to : i;
+    }
+
+    // EFFECTS: returns the position of the first character of input[from, to) that is not white space
+    //          (as String.trim understands it), or to if there is none
+    private static int skipSpace(String input, int from, int to) {
+        while (from < to && input.charAt(from) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    // EFFECTS: returns the end of input[from, to) once trailing white space is removed
+    private static int trimSpace(String input, int from, int to) {
+        while (to > from && input.charAt(to - 1) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+}
@@ -0,0 +1,192 @@
+package parsers;
+
+import model.Project;
+import model.TagRegistry;
+import model.Task;
+import model.Todo;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.Reader;
+import java.util.*;
+
+// Parses the tree of todos written by Jsonifier.writeProject, as a stream: only the fields of the todos being
+// read are held as JSON objects, and the path to the todo being read is kept on a stack, so that trees of any
+// depth can be read. The tree is built bottom-up: the todos of a project are built as they are read, and the
+// project is built once all of them are, then given them at once with addAll. As the project has no listeners
+// yet, its rollups (ETC and progress) are computed in one pass over its todos, rather than the ETC and progress
+// of each todo being passed up through all of its ancestors, one notification at a time.
+// Tasks that cannot be parsed are skipped, as TaskParser skips them; a todo having the id of a todo read before
+// it is given a new id, and a reference to a todo that was not read is skipped.
+public class ProjectParser {
+    private static final String TODOS = "todos";
+    private static final String REF = "ref";
+    private static final String ETC = "etc-hours";
+    private static final String PROGRESS = "progress";
+    private final TaskParser taskParser = new TaskParser();
+
+    // EFFECTS: returns the project at the root of the tree of todos in reader; reader is not closed
+    //  throws JSONException if reader does not hold a tree of todos rooted at a project, if a project in it
+    //  cannot be parsed, or if reader cannot be read; the tasks read so far are then removed from their tags
+    public Project parse(Reader reader) {
+        JSONTokener tokener = new JSONTokener(reader);
+        Map<Long, Todo> todos = new HashMap<>();
+        try {
+            if (tokener.nextClean() != '{') {
+                throw tokener.syntaxError("A project must start with '{'");
+            }
+            Todo root = readTree(tokener, todos);
+            if (!(root instanceof Project) || tokener.nextClean() != 0) {
+                throw tokener.syntaxError("Expected a single project");
+            }
+            return (Project) root;
+        } catch (JSONException e) {
+            detach(todos.values());
+            throw e;
+        }
+    }
+
+    // EFFECTS: removes the tasks among todos from their tags
+    private static void detach(Collection<Todo> todos) {
+        for (Todo t : todos) {
+            if (t instanceof Task) {
+                TagRegistry.removeTask((Task) t);
+            }
+        }
+    }
+
+    // The fields and todos of a todo being read
+    private static final class Node {
+        private final JSONObject fields = new JSONObject();
+        private final List<Todo> todos = new ArrayList<>();
+        private boolean isProject;     // true once its todos are found
+        private boolean readingTodos;
+        private int members;           // number of its keys read so far
+        private int elements;          // number of its todos read so far, including the ones skipped
+    }
+
+    // MODIFIES: todos
+    // EFFECTS: reads the todo whose opening brace was just read, with the todos under it, and returns it (null if
+    //          it is skipped); the todos built are recorded in todos, by id
+    private Todo readTree(JSONTokener tokener, Map<Long, Todo> todos) {
+        Deque<Node> open = new ArrayDeque<>();
+        open.push(new Node());
+        while (true) {
+            Node node = open.peek();
+            if (node.readingTodos) {
+                if (startTodo(tokener, node)) {
+                    open.push(new Node());
+                }
+            } else if (readMember(tokener, node)) {
+                open.pop();
+                Todo todo = build(node, todos);
+                if (open.isEmpty()) {
+                    return todo;
+                } else if (todo != null) {
+                    open.peek().todos.add(todo);
+                }
+            }
+        }
+    }
+
+    // MODIFIES: node
+    // EFFECTS: reads up to the opening brace of the next todo of node and returns true, or reads the end of its
+    //          todos and returns false
+    private static boolean startTodo(JSONTokener tokener, Node node) {
+        char c = tokener.nextClean();
+        if (c == ']') {
+            node.readingTodos = false;
+            return false;
+        }
+        if (node.elements++ > 0) {
+            if (c != ',') {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+            c = tokener.nextClean();
+        }
+        if (c != '{') {
+            throw tokener.syntaxError("A todo must start with '{'");
+        }
+        return true;
+    }
+
+    // MODIFIES: node
+    // EFFECTS: reads the next key of node, with its value (only up to the start of its todos if the key is
+    //          TODOS), and returns false, or reads the closing brace of node and returns true
+    private static boolean readMember(JSONTokener tokener, Node node) {
+        char c = tokener.nextClean();
+        if (c == '}') {
+            return true;
+        }
+        if (node.members++ > 0) {
+            c = c == ',' ? tokener.nextClean() : 0;
+        }
+        if (c != '"') {
+            throw tokener.syntaxError("Expected a key");
+        }
+        String key = tokener.nextString('"');
+        if (tokener.nextClean() != ':') {
+            throw tokener.syntaxError("Expected a ':' after a key");
+        }
+        if (!TODOS.equals(key)) {
+            node.fields.put(key, tokener.nextValue());
+        } else if (tokener.nextClean() == '[') {
+            node.isProject = true;
+            node.readingTodos = true;
+        } else {
+            throw tokener.syntaxError("The todos of a project must be an array");
+        }
+        return false;
+    }
+
+    // MODIFIES: todos
+    // EFFECTS: returns the todo read into node, or the todo it refers to, or null if it cannot be parsed; a todo
+    //          that is built is recorded in todos, by id (it is given a new id if its id is already there)
+    //  throws JSONException if node holds a project that cannot be parsed
+    private Todo build(Node node, Map<Long, Todo> todos) {
+        JSONObject fields = node.fields;
+        if (!node.isProject && fields.has(REF)) {
+            return todos.get(fields.optLong(REF, -1));
+        }
+        if (taskParser.checkId(fields) && fields.has("id") && todos.containsKey(fields.getLong("id"))) {
+            fields.remove("id");
+        }
+        Todo todo = node.isProject ? buildProject(node) : buildTask(fields);
+        if (todo != null) {
+            todos.put(todo.getId(), todo);
+        }
+        return todo;
+    }
+
+    // EFFECTS: returns the project read into node, having all of its todos, added at once
+    //  throws JSONException if the project cannot be parsed
+    private Project buildProject(Node node) {
+        JSONObject fields = node.fields;
+        if (!taskParser.isValidStringComponent(fields, "description") || fields.getString("description").isEmpty()
+                || !taskParser.checkId(fields)) {
+            throw new JSONException("Invalid project: " + fields);
+        }
+        String description = fields.getString("description");
+        Project project = fields.has("id") ? new Project(fields.getLong("id"), description) : new Project(description);
+        project.addAll(node.todos);
+        return project;
+    }
+
+    // EFFECTS: returns the task in fields, with its ETC and progress (0 if they are absent), or null if it cannot
+    //          be parsed
+    private Task buildTask(JSONObject fields) {
+        int etc = fields.has(ETC) && taskParser.isValidIntComponent(fields, ETC) ? fields.getInt(ETC) : -1;
+        int progress = fields.has(PROGRESS) && taskParser.isValidIntComponent(fields, PROGRESS)
+                ? fields.getInt(PROGRESS) : -1;
+        if ((fields.has(ETC) && etc < 0) || (fields.has(PROGRESS) && (progress < 0 || progress > 100))) {
+            return null;
+        }
+        Task task = taskParser.parseTask(fields);
+        if (task != null) {
+            task.setEstimatedTimeToComplete(Math.max(etc, 0));
+            task.setProgress(Math.max(progress, 0));
+        }
+        return task;
+    }
+}
@@ -3,11 +3,19 @@ package parsers;
 import model.*;
 import org.json.JSONArray;
 import org.json.JSONObject;
+import org.json.JSONTokener;
 
+import java.io.Reader;
+import java.io.StringReader;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 // Represents Task parser
 public class TaskParser {
+    private static final long NO_ID = -1;
+    private static final int MIN_CHUNK_SIZE = 256;  // elements; smaller chunks are not worth a task of their own
 
     // EFFECTS: iterates over every JSONObject in the JSONArray represented by the input
     // string and parses it as a task; each parsed task is added to the list of tasks.
@@ -15,49 +23,159 @@ public class TaskParser {
     // list of tasks.
     // Note: input is a string representation of a JSONArray
     public List<Task> parse(String input) {
-        JSONArray taskArray = new JSONArray(input);
+        return parse(new StringReader(input));
+    }
+
+    // EFFECTS: same as parse(String), but reads the JSONArray from reader, one task at a time
+    //  throws JSONException if reader does not hold a JSONArray, or cannot be read
+    public List<Task> parse(Reader reader) {
         List<Task> tasks = new ArrayList<>();
+        Iterator<Task> parsed = iterator(reader);
+        while (parsed.hasNext()) {
+            tasks.add(parsed.next());
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns an iterator over the tasks of the JSONArray in reader, skipping the elements that
+    //          cannot be parsed as tasks (as parse does). The array is read lazily: each call to hasNext
+    //          reads only as far as the next task, so the first tasks can be used before the rest of the
+    //          array is read, and only one task is held as a JSONObject at a time. reader is not closed.
+    //          hasNext and next throw JSONException if reader does not hold a JSONArray, or cannot be read.
+    public Iterator<Task> iterator(Reader reader) {
+        return new TaskIterator(new JSONTokener(reader));
+    }
 
-        for (Object o : taskArray) {
-            JSONObject taskJ = (JSONObject) o;
+    // EFFECTS: parses taskJ as a task, or returns null if it cannot be parsed; ids holds the ids of the
+    //          tasks parsed so far, and a task having one of them is given a new id
+    private Task parseElement(JSONObject taskJ, Set<Long> ids) {
+        if (checkId(taskJ) && taskJ.has("id") && !ids.add(taskJ.getLong("id"))) {
+            taskJ.remove("id");  // the file holds this id twice: give the second task a new one
+        }
+        return parseTask(taskJ);
+    }
 
-            Task task = parseTask(taskJ);
+    // EFFECTS: same as parse(String), but the elements of input are parsed and checked in parallel, in chunks,
+    //          on the common ForkJoinPool. Only building the tasks and adding them to their tags is sequential,
+    //          and is done in the order of input, so the result is the same as that of parse(String). Meant for
+    //          large inputs (megabytes), which are split into chunks without being parsed first.
+    //  throws JSONException if input is not a JSONArray
+    public List<Task> parseParallel(String input) {
+        JsonArraySplitter elements = new JsonArraySplitter(input);
+        long size = elements.size();
+        int chunks = (int) Math.max(1, Math.min(size / MIN_CHUNK_SIZE, 4 * ForkJoinPool.getCommonPoolParallelism()));
+        List<List<TaskRecord>> records = IntStream.range(0, chunks).parallel()
+                .mapToObj(i -> readChunk(elements, (int) (i * size / chunks), (int) ((i + 1) * size / chunks)))
+                .collect(Collectors.toList());
+        return buildAll(records);
+    }
 
-            if (task != null) {
-                tasks.add(task);
+    // EFFECTS: builds the tasks of the records of each chunk, in order; ids are checked for duplicates as in parse
+    private static List<Task> buildAll(List<List<TaskRecord>> records) {
+        Set<Long> ids = new HashSet<>();
+        List<Task> tasks = new ArrayList<>();
+        for (List<TaskRecord> chunk : records) {
+            for (TaskRecord record : chunk) {
+                if (record.id != NO_ID && !ids.add(record.id)) {
+                    record.id = NO_ID;  // the input holds this id twice: give the second task a new one
+                }
+                if (record.description != null) {
+                    tasks.add(build(record));
+                }
             }
         }
-
         return tasks;
     }
 
+    // EFFECTS: reads the elements from (inclusive) to to (exclusive) that are objects into records, in order
+    //  throws JSONException if one of the elements is not a JSON value
+    private List<TaskRecord> readChunk(JsonArraySplitter elements, int from, int to) {
+        List<TaskRecord> records = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            // the separator is read too: JSONTokener cannot tell where a number or literal ends at the end of input
+            String text = elements.getText().substring(elements.start(i), elements.end(i) + 1);
+            JSONTokener tokener = new JSONTokener(text);
+            Object element = tokener.nextValue();
+            if (tokener.nextClean() != text.charAt(text.length() - 1) || tokener.nextClean() != 0) {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+            if (element instanceof JSONObject) {
+                records.add(read((JSONObject) element));
+            }
+        }
+        return records;
+    }
+
     //EFFECTS: parses a single task, returns null if task has any missing or incorrectly represented data
+    //         a task saved without an id (i.e. by an older version) is given a new one
+    //         The saved description is not parsed for meta-data again: the JSON already holds it.
     public Task parseTask(JSONObject taskJ) {
+        TaskRecord record = read(taskJ);
+        return record.description == null ? null : build(record);
+    }
 
+    // EFFECTS: reads the data of a single task into a record, without building the task; if the task has any
+    //          missing or incorrectly represented data, the record only holds its id (if that one is valid)
+    private TaskRecord read(JSONObject taskJ) {
+        TaskRecord record = new TaskRecord();
+        if (checkId(taskJ) && taskJ.has("id")) {
+            record.id = taskJ.getLong("id");
+        }
         if (!isValidStringComponent(taskJ, "description") || !checkDueDate(taskJ) || !checkPriority(taskJ)
-                || !checkStatus(taskJ) || !checkTags(taskJ)) {
-            return null;
+                || !checkStatus(taskJ) || !checkTags(taskJ) || !checkId(taskJ)) {
+            return record;
         }
-        Task task = new Task(taskJ.getString("description"));
+        record.description = taskJ.getString("description");
+        record.dueDate = parseDueDate(taskJ);
+        record.priority = parsePriority(taskJ);
+        record.status = parseStatus(taskJ);
+        record.tags = readTags(taskJ);
+        return record;
+    }
 
-        task.setDueDate(parseDueDate(taskJ));
-        task.setPriority(parsePriority(taskJ));
-        task.setStatus(parseStatus(taskJ));
-        parseTags(taskJ, task);
+    // REQUIRES: record holds the data of a task
+    // EFFECTS: builds the task of record, and adds it to its tags, without advancing the Generation
+    private static Task build(TaskRecord record) {
+        Task task = record.id != NO_ID
+                ? Task.restore(record.id, record.description, record.dueDate, record.priority, record.status)
+                : Task.restore(record.description, record.dueDate, record.priority, record.status);
+        Generation.quietly(() -> {
+            for (String name : record.tags) {
+                task.addTag(TagRegistry.getTag(name));
+            }
+        });
         return task;
     }
 
+    //EFFECTS: returns true if the id of the task is absent, or is a non-negative integer
+    public Boolean checkId(JSONObject taskJ) {
+        if (!taskJ.has("id")) {
+            return true;
+        }
+        Object id = taskJ.get("id");
+        return (id instanceof Integer || id instanceof Long) && ((Number) id).longValue() >= 0;
+    }
+
     public Boolean checkTags(JSONObject taskJ) {
         return (taskJ.has("tags") && (taskJ.get("tags") instanceof JSONArray) && !taskJ.isNull("tags"));
     }
 
     public void parseTags(JSONObject taskJ, Task task) {
+        for (String name : readTags(taskJ)) {
+            task.addTag(TagRegistry.getTag(name));
+        }
+    }
+
+    // EFFECTS: returns the names of the valid tags of the task, in order
+    private List<String> readTags(JSONObject taskJ) {
         JSONArray tagsJ = taskJ.getJSONArray("tags");
+        List<String> names = new ArrayList<>(tagsJ.length());
         for (Object t : tagsJ) {
             if (isValidStringComponent((JSONObject) t, "name")) {
-                task.addTag(((JSONObject) t).getString("name"));
+                names.add(((JSONObject) t).getString("name"));
             }
         }
+        return names;
     }
 
     public DueDate parseDueDate(JSONObject taskJ) {
@@ -151,4 +269,85 @@ public class TaskParser {
 
         return status;
     }
+
+    // The data of a task read from its JSON object, from which the task is built afterwards. When the
+    // task cannot be parsed, the record holds only its id, which still counts when looking for duplicates.
+    private static final class TaskRecord {
+        private long id = NO_ID;
+        private String description;  // null if the task cannot be parsed
+        private DueDate dueDate;
+        private Priority priority;
+        private Status status;
+        private List<String> tags;
+    }
+
+    // Pulls the elements of a JSONArray from a tokener one at a time, and parses them as tasks.
+    // Follows the syntax accepted by JSONArray: a trailing comma is allowed, and an empty element
+    // (as in [a,,b]) is read as null, which, like any other element that is not a task, is skipped.
+    private class TaskIterator implements Iterator<Task> {
+        private final JSONTokener tokener;
+        private final Set<Long> ids = new HashSet<>();
+        private boolean started;
+        private boolean ended;
+        private Task next;  // the next task to return, once it has been read
+
+        TaskIterator(JSONTokener tokener) {
+            this.tokener = tokener;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (!started) {
+                start();
+            }
+            while (next == null && !ended) {
+                Object element = nextElement();
+                if (element instanceof JSONObject) {
+                    next = parseElement((JSONObject) element, ids);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Task task = next;
+            next = null;
+            return task;
+        }
+
+        // EFFECTS: reads the opening bracket of the array, and notes if the array is empty
+        private void start() {
+            started = true;
+            if (tokener.nextClean() != '[') {
+                throw tokener.syntaxError("A JSONArray text must start with '['");
+            }
+            ended = tokener.nextClean() == ']';
+            if (!ended) {
+                tokener.back();
+            }
+        }
+
+        // EFFECTS: reads the next element of the array and the separator that follows it
+        private Object nextElement() {
+            boolean empty = tokener.nextClean() == ',';
+            tokener.back();
+            Object element = empty ? JSONObject.NULL : tokener.nextValue();
+            char separator = tokener.nextClean();
+            if (separator == ',') {
+                ended = tokener.nextClean() == ']';
+                if (!ended) {
+                    tokener.back();
+                }
+            } else if (separator == ']') {
+                ended = true;
+            } else {
+                throw tokener.syntaxError("Expected a ',' or ']'");
+            }
+            return element;
+        }
+    }
 }
@@ -0,0 +1,54 @@
+package persistence;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Saves the tasks of a journal in the background as they change, at most once every period: every period,
+// if anything changed since the last save (see model.Generation), the journal is compacted into a new
+// snapshot. The tasks are encoded on the thread that edits them, reached through an executor (e.g.
+// Platform::runLater for the JavaFX application thread), so the snapshot is consistent; the snapshot is
+// then written on the journal's own background thread. The thread keeping time is a daemon.
+public class AutoSaver {
+    public static final long DEFAULT_PERIOD_SECONDS = 5;
+
+    private final TaskJournal journal;
+    private final long period;
+    private final TimeUnit unit;
+    private final Executor editingThread;
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "auto-saver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // REQUIRES: period > 0
+    // EFFECTS: constructs a saver of the tasks of journal, every period (in unit), which encodes them by way
+    //          of editingThread
+    public AutoSaver(TaskJournal journal, long period, TimeUnit unit, Executor editingThread) {
+        this.journal = journal;
+        this.period = period;
+        this.unit = unit;
+        this.editingThread = editingThread;
+    }
+
+    // EFFECTS: starts saving the tasks, the first time one period from now
+    public void start() {
+        timer.scheduleWithFixedDelay(this::tick, period, period, unit);
+    }
+
+    // EFFECTS: stops saving the tasks; the save under way (if any) is not interrupted
+    public void stop() {
+        timer.shutdown();
+    }
+
+    // EFFECTS: has the journal compacted on the editing thread if anything changed since the last save
+    private void tick() {
+        if (journal.hasUnsavedChanges()) {
+            editingThread.execute(journal::compactIfChanged);
+        } else {
+            journal.getMetrics().recordSkip();
+        }
+    }
+}
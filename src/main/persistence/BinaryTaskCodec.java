@@ -0,0 +1,478 @@
+package persistence;
+
+import model.*;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+
+// A compact binary format for tasks. Version 1 is laid out as:
+//     header   "PTDB", then the version (1 byte)
+//     blocks   each: its number of tasks (varint; 0 ends the list), the length of its data (varint), its data,
+//              and the CRC32 of its data (4 bytes, big-endian), so that a corrupt block is detected
+// The data of a block holds, for each of its tasks:
+//     id           the difference with the id of the previous task (zigzag varint)
+//     description  a string
+//     flags        1 byte: important (bit 0), urgent (bit 1), has a due date (bit 2), status (bits 3 and 4)
+//     due date     in minutes since the epoch (zigzag varint), only if the task has one
+//     tags         their number (varint), then the name of each tag, as a string
+// A string is written once: the first time as 0, the length of its UTF-8 bytes (varint) and those bytes, and
+// afterwards as its index among the strings written so far, plus 1 (varint); this table of strings is shared
+// by all the blocks, so tag names and repeated descriptions cost a byte or two. Varints are little-endian,
+// 7 bits a byte.
+public class BinaryTaskCodec implements TaskCodec {
+    public static final int VERSION = 1;
+    private static final byte[] MAGIC = {'P', 'T', 'D', 'B'};
+    private static final int TASKS_PER_BLOCK = 1024;
+    private static final int MAX_BLOCK_LENGTH = 1 << 30;
+    private static final int MIN_BLOCK_BUFFER = 1 << 16;  // bytes; the buffer of a block grows from this size
+    private static final int CRC_LENGTH = 4;
+    static final Status[] STATUSES = {Status.TODO, Status.UP_NEXT, Status.IN_PROGRESS, Status.DONE};  // by saved index
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    private static final int IMPORTANT = 1;
+    private static final int URGENT = 2;
+    private static final int DUE = 4;
+    private static final int STATUS_SHIFT = 3;
+
+    @Override
+    public String getName() {
+        return "binary";
+    }
+
+    @Override
+    public boolean accepts(byte[] header, int length) {
+        return length >= MAGIC.length && hasMagic(header);
+    }
+
+    @Override
+    public void encode(List<Task> tasks, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder();
+        writeBlocks(tasks, out, encoder::writeBlock);
+    }
+
+    @Override
+    public void encodeSaved(List<SavedFields> tasks, OutputStream out) throws IOException {
+        Encoder encoder = new Encoder();
+        writeBlocks(tasks, out, encoder::writeSavedBlock);
+    }
+
+    // Writes a list of tasks, or of their saved fields, as one block
+    private interface BlockWriter<T> {
+        void write(List<T> tasks, OutputStream out) throws IOException;
+    }
+
+    // EFFECTS: writes the header, then tasks (if not null) in blocks of TASKS_PER_BLOCK, each written by blocks,
+    //          then the end of the list, to out
+    private static <T> void writeBlocks(List<T> tasks, OutputStream out, BlockWriter<T> blocks) throws IOException {
+        out.write(MAGIC);
+        out.write(VERSION);
+        List<T> all = tasks == null ? Collections.<T>emptyList() : tasks;
+        for (int from = 0; from < all.size(); from += TASKS_PER_BLOCK) {
+            blocks.write(all.subList(from, Math.min(all.size(), from + TASKS_PER_BLOCK)), out);
+        }
+        out.write(0);
+    }
+
+    // EFFECTS: same as TaskCodec.decode; a block longer than the rest of in (if size is known) is taken as corrupt,
+    //          and the buffer a block is read into grows with the bytes actually read, so that a corrupt length
+    //          does not make it allocate more memory than in holds
+    @Override
+    public List<Task> decode(InputStream in, long size) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        Decoder decoder = new Decoder(size < 0 ? Long.MAX_VALUE : size - MAGIC.length - 1);
+        try {
+            readHeader(data);
+            int count = readLength(data, TASKS_PER_BLOCK);
+            while (count > 0) {
+                decoder.readBlock(data, count);
+                count = readLength(data, TASKS_PER_BLOCK);
+            }
+        } catch (IOException e) {
+            decoder.tasks.forEach(TagRegistry::removeTask);
+            throw e instanceof EOFException ? new TaskFormatException("Truncated list of tasks", e) : e;
+        }
+        return decoder.tasks;
+    }
+
+    // EFFECTS: reads the header of the list of tasks in in
+    //  throws TaskFormatException if in is not in this format, or in a version of it that is not supported
+    private static void readHeader(DataInputStream in) throws IOException {
+        byte[] header = new byte[MAGIC.length + 1];
+        in.readFully(header);
+        if (!hasMagic(header)) {
+            throw new TaskFormatException("Not a list of tasks in binary format");
+        }
+        if (header[MAGIC.length] != VERSION) {
+            throw new TaskFormatException("Unsupported version of the binary format: " + header[MAGIC.length]);
+        }
+    }
+
+    // EFFECTS: returns true if header starts with MAGIC
+    private static boolean hasMagic(byte[] header) {
+        return Arrays.equals(Arrays.copyOf(header, MAGIC.length), MAGIC);
+    }
+
+    // EFFECTS: reads a varint from in, which must be between 0 and max
+    //  throws TaskFormatException if it is not
+    private static int readLength(DataInputStream in, int max) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7f) << shift;
+            if (b < 0x80) {
+                if (value > max) {
+                    throw new TaskFormatException("Length out of range: " + value);
+                }
+                return (int) value;
+            }
+        }
+        throw new TaskFormatException("Malformed varint");
+    }
+
+    // EFFECTS: returns v encoded so that numbers of small magnitude, negative or not, have small encodings
+    private static long zigzag(long v) {
+        return (v << 1) ^ (v >> 63);
+    }
+
+    // EFFECTS: returns the number encoded by zigzag as v
+    private static long unzigzag(long v) {
+        return (v >>> 1) ^ -(v & 1);
+    }
+
+    // Writes tasks, block by block, keeping the id of the last task written and the table of strings
+    private static final class Encoder {
+        private final Bytes block = new Bytes();
+        private final Bytes frame = new Bytes();
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final CRC32 crc = new CRC32();
+        private long previousId;
+
+        // EFFECTS: writes tasks to out as one block
+        void writeBlock(List<Task> tasks, OutputStream out) throws IOException {
+            block.clear();
+            for (Task t : tasks) {
+                writeTask(t);
+            }
+            endBlock(tasks.size(), out);
+        }
+
+        // EFFECTS: writes the tasks whose saved fields are tasks to out as one block
+        void writeSavedBlock(List<SavedFields> tasks, OutputStream out) throws IOException {
+            block.clear();
+            for (SavedFields t : tasks) {
+                writeTask(t);
+            }
+            endBlock(tasks.size(), out);
+        }
+
+        // EFFECTS: writes the current block, which holds count tasks, to out, framed by its length and checksum
+        private void endBlock(int count, OutputStream out) throws IOException {
+            crc.reset();
+            crc.update(block.array, 0, block.size);
+            frame.clear();
+            frame.putVarLong(count);
+            frame.putVarLong(block.size);
+            frame.writeTo(out);
+            block.writeTo(out);
+            frame.clear();
+            frame.putInt((int) crc.getValue());
+            frame.writeTo(out);
+        }
+
+        // EFFECTS: writes task to the current block
+        private void writeTask(Task task) {
+            block.putVarLong(zigzag(task.getId() - previousId));
+            previousId = task.getId();
+            writeString(task.getDescription());
+            DueDate dueDate = task.getDueDate();
+            block.put(flags(task));
+            if (dueDate != null) {
+                block.putVarLong(zigzag(Math.floorDiv(dueDate.getDate().getTime(), MILLIS_PER_MINUTE)));
+            }
+            block.putVarLong(task.getTags().size());
+            for (Tag tag : task.getTags()) {
+                writeString(tag.getName());
+            }
+        }
+
+        // EFFECTS: writes the task whose saved fields are task to the current block, as writeTask(Task) writes it
+        private void writeTask(SavedFields task) {
+            block.putVarLong(zigzag(task.getId() - previousId));
+            previousId = task.getId();
+            writeString(task.getDescription());
+            boolean due = task.getDueMinute() != Long.MIN_VALUE;
+            block.put(flags(task.isImportant(), task.isUrgent(), due, task.getStatus()));
+            if (due) {
+                block.putVarLong(zigzag(task.getDueMinute()));
+            }
+            block.putVarLong(task.getTagNames().size());
+            for (String name : task.getTagNames()) {
+                writeString(name);
+            }
+        }
+
+        // EFFECTS: returns the flags of task
+        private int flags(Task task) {
+            return flags(task.getPriority().isImportant(), task.getPriority().isUrgent(), task.getDueDate() != null,
+                    task.getStatus());
+        }
+
+        // EFFECTS: returns the flags of a task with the given priority, due date (or none) and status
+        private int flags(boolean important, boolean urgent, boolean due, Status status) {
+            int flags = important ? IMPORTANT : 0;
+            flags |= urgent ? URGENT : 0;
+            flags |= due ? DUE : 0;
+            return flags | Arrays.asList(STATUSES).indexOf(status) << STATUS_SHIFT;
+        }
+
+        // EFFECTS: writes s to the current block, or its index in the table of strings if it was written before
+        private void writeString(String s) {
+            Integer index = strings.get(s);
+            if (index != null) {
+                block.putVarLong(index + 1);
+                return;
+            }
+            strings.put(s, strings.size());
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            block.put(0);
+            block.putVarLong(bytes.length);
+            block.put(bytes);
+        }
+    }
+
+    // Reads tasks, block by block, keeping the id of the last task read and the table of strings
+    private static final class Decoder {
+        private final List<Task> tasks = new ArrayList<>();
+        private final List<String> strings = new ArrayList<>();
+        private final List<Tag> tags = new ArrayList<>();  // the tag named by each string, once looked up
+        private final Set<Long> ids = new HashSet<>();
+        private final CRC32 crc = new CRC32();
+        private Cursor block = new Cursor(new byte[0], 0);
+        private long previousId;
+        private long left;  // at most the number of bytes left to read after the blocks read so far
+
+        // EFFECTS: constructs a decoder of a list that has at most left bytes after its header
+        Decoder(long left) {
+            this.left = left;
+        }
+
+        // EFFECTS: reads a block of count tasks from in
+        //  throws TaskFormatException if the block is corrupt
+        void readBlock(DataInputStream in, int count) throws IOException {
+            int length = readLength(in, MAX_BLOCK_LENGTH);
+            if (length > left - CRC_LENGTH) {
+                throw new TaskFormatException("Corrupt block of tasks (longer than the rest of the list)");
+            }
+            left -= length + CRC_LENGTH;
+            byte[] data = readData(in, length);
+            crc.reset();
+            crc.update(data, 0, length);
+            if (in.readInt() != (int) crc.getValue()) {
+                throw new TaskFormatException("Corrupt block of tasks (checksum mismatch)");
+            }
+            block = new Cursor(data, length);
+            for (int i = 0; i < count; i++) {
+                readTask();
+            }
+            if (block.position != length) {
+                throw new TaskFormatException("Corrupt block of tasks (unexpected length)");
+            }
+        }
+
+        // EFFECTS: reads length bytes from in into the buffer of the current block, which is grown (at most doubled
+        //          at a time) as the bytes are read, and returns that buffer
+        private byte[] readData(DataInputStream in, int length) throws IOException {
+            byte[] data = block.data;
+            int read = 0;
+            while (read < length) {
+                if (data.length <= read) {
+                    data = Arrays.copyOf(data, Math.min(length, Math.max(MIN_BLOCK_BUFFER, 2 * data.length)));
+                }
+                int n = Math.min(length, data.length) - read;
+                in.readFully(data, read, n);
+                read += n;
+            }
+            return data;
+        }
+
+        // EFFECTS: reads the next task of the current block, then adds it to tasks and to its tags, without
+        //          advancing the Generation
+        @SuppressWarnings("try")  // the quiet scope is only opened and closed; reading tags may throw
+        private void readTask() throws IOException {
+            long id = previousId + unzigzag(block.varLong());
+            previousId = id;
+            String description = strings.get(readStringIndex());
+            int flags = block.next();
+            Priority priority = new Priority();
+            priority.setImportant((flags & IMPORTANT) != 0);
+            priority.setUrgent((flags & URGENT) != 0);
+            DueDate dueDate = (flags & DUE) == 0 ? null
+                    : new DueDate(new Date(unzigzag(block.varLong()) * MILLIS_PER_MINUTE));
+            Task task = restore(id, description, dueDate, priority, STATUSES[(flags >> STATUS_SHIFT) & 3]);
+            tasks.add(task);
+            try (Generation.Quiet building = Generation.quiet()) {
+                for (int i = block.varInt(); i > 0; i--) {
+                    task.addTag(tag(readStringIndex()));
+                }
+            }
+        }
+
+        // EFFECTS: returns the task with the given data; it is given a new id if id is already taken
+        //  throws TaskFormatException if the data is not valid
+        private Task restore(long id, String description, DueDate dueDate, Priority priority, Status status)
+                throws TaskFormatException {
+            try {
+                return ids.add(id) ? Task.restore(id, description, dueDate, priority, status)
+                        : Task.restore(description, dueDate, priority, status);
+            } catch (IllegalArgumentException e) {
+                throw new TaskFormatException("Invalid task: " + e.getMessage(), e);
+            }
+        }
+
+        // EFFECTS: returns the registered tag named by the string at index
+        //  throws TaskFormatException if the string is not a valid tag name
+        private Tag tag(int index) throws TaskFormatException {
+            Tag tag = tags.get(index);
+            if (tag == null) {
+                try {
+                    tag = TagRegistry.getTag(strings.get(index));
+                } catch (IllegalArgumentException e) {
+                    throw new TaskFormatException("Invalid tag name", e);
+                }
+                tags.set(index, tag);
+            }
+            return tag;
+        }
+
+        // EFFECTS: reads a string of the current block, adding it to the table of strings if it is written
+        //          out, and returns its index in the table
+        private int readStringIndex() throws IOException {
+            int reference = block.varInt();
+            if (reference > strings.size()) {
+                throw new TaskFormatException("Reference to an unknown string");
+            }
+            if (reference > 0) {
+                return reference - 1;
+            }
+            strings.add(block.utf8(block.varInt()));
+            tags.add(null);
+            return strings.size() - 1;
+        }
+    }
+
+    // A position in the data of a block
+    private static final class Cursor {
+        private final byte[] data;
+        private final int limit;
+        private int position;
+
+        Cursor(byte[] data, int limit) {
+            this.data = data;
+            this.limit = limit;
+        }
+
+        // EFFECTS: returns the next byte, as an unsigned number
+        //  throws TaskFormatException if the block has no more bytes
+        int next() throws TaskFormatException {
+            if (position >= limit) {
+                throw new TaskFormatException("Corrupt block of tasks (too short)");
+            }
+            return data[position++] & 0xff;
+        }
+
+        // EFFECTS: returns the next varint
+        //  throws TaskFormatException if it is malformed
+        long varLong() throws TaskFormatException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = next();
+                value |= (long) (b & 0x7f) << shift;
+                if (b < 0x80) {
+                    return value;
+                }
+            }
+            throw new TaskFormatException("Malformed varint");
+        }
+
+        // EFFECTS: returns the next varint, which must be a non-negative int
+        //  throws TaskFormatException if it is not
+        int varInt() throws TaskFormatException {
+            long value = varLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new TaskFormatException("Number out of range: " + value);
+            }
+            return (int) value;
+        }
+
+        // EFFECTS: returns the string whose UTF-8 bytes are the next length bytes
+        //  throws TaskFormatException if the block does not have as many bytes left
+        String utf8(int length) throws TaskFormatException {
+            if (length > limit - position) {
+                throw new TaskFormatException("Corrupt block of tasks (too short)");
+            }
+            String s = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+    }
+
+    // A growable array of bytes; unlike ByteArrayOutputStream, its methods are not synchronized
+    private static final class Bytes {
+        private byte[] array = new byte[1 << 12];
+        private int size;
+
+        // EFFECTS: empties this
+        void clear() {
+            size = 0;
+        }
+
+        // EFFECTS: appends the low 8 bits of b
+        void put(int b) {
+            ensureCapacity(1);
+            array[size++] = (byte) b;
+        }
+
+        // EFFECTS: appends bytes
+        void put(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, array, size, bytes.length);
+            size += bytes.length;
+        }
+
+        // EFFECTS: appends v as a varint (a negative v takes 10 bytes)
+        void putVarLong(long v) {
+            ensureCapacity(10);
+            while ((v & ~0x7fL) != 0) {
+                array[size++] = (byte) ((v & 0x7f) | 0x80);
+                v >>>= 7;
+            }
+            array[size++] = (byte) v;
+        }
+
+        // EFFECTS: appends v, big-endian
+        void putInt(int v) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                array[size++] = (byte) (v >>> shift);
+            }
+        }
+
+        // EFFECTS: writes the bytes of this to out
+        void writeTo(OutputStream out) throws IOException {
+            out.write(array, 0, size);
+        }
+
+        // EFFECTS: makes room for more bytes
+        private void ensureCapacity(int more) {
+            if (size + more > array.length) {
+                array = Arrays.copyOf(array, Math.max(2 * array.length, size + more));
+            }
+        }
+    }
+}
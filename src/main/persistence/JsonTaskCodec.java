@@ -0,0 +1,83 @@
+package persistence;
+
+import model.TagRegistry;
+import model.Task;
+import org.json.JSONException;
+import parsers.TaskParser;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// The JSON format written by Jsonifier and read by TaskParser: an array of task objects, in UTF-8
+public class JsonTaskCodec implements TaskCodec {
+    public static final long PARALLEL_READ_THRESHOLD = 16L << 20;  // bytes; larger lists are parsed in parallel
+    private static final TaskParser PARSER = new TaskParser();
+
+    @Override
+    public String getName() {
+        return "json";
+    }
+
+    // EFFECTS: returns true if the first byte of header that is not whitespace is '[' (or if all of them
+    //          are whitespace)
+    @Override
+    public boolean accepts(byte[] header, int length) {
+        int i = 0;
+        while (i < length && (header[i] == ' ' || header[i] == '\t' || header[i] == '\n' || header[i] == '\r')) {
+            i++;
+        }
+        return length > 0 && (i == length || header[i] == '[');
+    }
+
+    @Override
+    public void encode(List<Task> tasks, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        Jsonifier.writeTaskList(tasks, writer);
+        writer.flush();
+    }
+
+    @Override
+    public void encodeSaved(List<SavedFields> tasks, OutputStream out) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        Jsonifier.writeSavedList(tasks, writer);
+        writer.flush();
+    }
+
+    // EFFECTS: same as TaskCodec.decode; the tasks are read one at a time, or in parallel if in is large
+    //          (see TaskParser.parseParallel)
+    @Override
+    public List<Task> decode(InputStream in, long size) throws IOException {
+        if (size >= PARALLEL_READ_THRESHOLD && Runtime.getRuntime().availableProcessors() > 1) {
+            try {
+                return PARSER.parseParallel(new String(readAll(in, size), StandardCharsets.UTF_8));
+            } catch (JSONException e) {
+                throw new TaskFormatException("Invalid JSON: " + e.getMessage(), e);
+            }
+        }
+        List<Task> tasks = new ArrayList<>();
+        try {
+            Iterator<Task> parsed = PARSER.iterator(new InputStreamReader(in, StandardCharsets.UTF_8));
+            while (parsed.hasNext()) {
+                tasks.add(parsed.next());
+            }
+        } catch (JSONException e) {
+            tasks.forEach(TagRegistry::removeTask);
+            throw new TaskFormatException("Invalid JSON: " + e.getMessage(), e);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns all the bytes of in, which is about size bytes long (or -1 if unknown)
+    static byte[] readAll(InputStream in, long size) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream((int) Math.max(32, Math.min(size, 1 << 30)));
+        byte[] buffer = new byte[1 << 16];
+        for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+            bytes.write(buffer, 0, read);
+        }
+        return bytes.toByteArray();
+    }
+}
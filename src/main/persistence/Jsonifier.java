@@ -3,17 +3,39 @@ package persistence;
 
 import model.DueDate;
 import model.Priority;
+import model.Project;
 import model.Tag;
 import model.Task;
+import model.Todo;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
-import java.util.Calendar;
-import java.util.List;
-import java.util.Set;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+import java.util.function.BiConsumer;
 
 // Converts model elements to JSON objects
+// The write methods stream the same JSON text that toString() of the matching JSON object would produce,
+// byte for byte, without building the JSON objects. JSONObject orders its keys by hash, so the order in
+// which each kind of object lists its keys is taken once from a JSONObject holding the same keys, and
+// strings are escaped exactly as JSONObject.quote escapes them.
 public class Jsonifier {
+    private static final String[] TASK_KEYS = {"id", "description", "tags", "due-date", "priority", "status"};
+    private static final String[] DUE_DATE_KEYS = {"year", "month", "day", "hour", "minute"};
+    private static final String[] PRIORITY_KEYS = {"important", "urgent"};
+    private static final int[] TASK_ORDER = keyOrder(TASK_KEYS);
+    private static final int[] DUE_DATE_ORDER = keyOrder(DUE_DATE_KEYS);
+    private static final int[] PRIORITY_ORDER = keyOrder(PRIORITY_KEYS);
+    private static final String CONTROL_CHARACTERS = "\b\t\n\f\r";
+    private static final String CONTROL_ESCAPES = "btnfr";
+    private static final int FLUSH_THRESHOLD = 8192;  // chars of JSON text buffered before writing them out
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    // Appends the value of one field of an object, given the field's index in the object's keys
+    private interface FieldWriter {
+        void append(int field, StringBuilder out);
+    }
 
     // EFFECTS: returns JSON representation of tag
     public static JSONObject tagToJson(Tag tag) {
@@ -67,6 +89,7 @@ public class Jsonifier {
     public static JSONObject taskToJson(Task task) {
         JSONObject taskJson = new JSONObject();
 
+        taskJson.put("id", task.getId());
         taskJson.put("description", task.getDescription());
 
         if (task.getTags().size() == 0) {
@@ -107,4 +130,333 @@ public class Jsonifier {
 
         return tasksJsonArray;   // stub
     }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the JSON array representing the list of tasks to writer; the text is the same as
+    //          taskListToJson(tasks).toString(). Tasks are formatted one at a time into a small buffer
+    //          that is handed to writer whenever it fills up.
+    //  throws IOException if writer fails
+    public static void writeTaskList(List<Task> tasks, Writer writer) throws IOException {
+        writeList(tasks, Jsonifier::appendTask, writer);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: same as writeTaskList, for the tasks whose saved fields are tasks (see SavedFields.copy)
+    //  throws IOException if writer fails
+    public static void writeSavedList(List<SavedFields> tasks, Writer writer) throws IOException {
+        writeList(tasks, Jsonifier::appendSaved, writer);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes a JSON array of elements to writer, each appended by append, through a small buffer that is
+    //          handed to writer whenever it fills up
+    //  throws IOException if writer fails
+    private static <T> void writeList(List<T> elements, BiConsumer<T, StringBuilder> append, Writer writer)
+            throws IOException {
+        StringBuilder out = new StringBuilder(2 * FLUSH_THRESHOLD).append('[');
+        char[] chunk = new char[0];
+        if (elements != null) {
+            boolean first = true;
+            for (T e : elements) {
+                if (!first) {
+                    out.append(',');
+                }
+                append.accept(e, out);
+                first = false;
+                if (out.length() >= FLUSH_THRESHOLD) {
+                    chunk = flush(out, chunk, writer);
+                }
+            }
+        }
+        flush(out.append(']'), chunk, writer);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the tree of todos rooted at project to writer, depth-first, as a JSON object:
+    //              project   {"id":<id>,"description":<description>,"todos":[<todo>,...]}, its todos being in
+    //                        the order they were added
+    //              task      the JSON representation of the task, with the keys "etc-hours" and "progress"
+    //                        added at the end
+    //              a todo that was already written (as it is in several projects) {"ref":<id>}
+    //          No JSON object is built: the text is formatted into a small buffer that is handed to writer
+    //          whenever it fills up, and the path to the project being written is kept on a stack, so that
+    //          trees of any depth can be written.
+    //  throws IOException if writer fails
+    public static void writeProject(Project project, Writer writer) throws IOException {
+        StringBuilder out = new StringBuilder(2 * FLUSH_THRESHOLD);
+        char[] chunk = new char[0];
+        Set<Long> written = new HashSet<>();
+        Deque<OpenProject> open = new ArrayDeque<>();
+        written.add(project.getId());
+        open.push(appendProjectStart(project, out));
+        while (!open.isEmpty()) {
+            appendNext(open, written, out);
+            if (out.length() >= FLUSH_THRESHOLD) {
+                chunk = flush(out, chunk, writer);
+            }
+        }
+        flush(out, chunk, writer);
+    }
+
+    // A project whose todos are being written by writeProject
+    private static final class OpenProject {
+        private final Iterator<Todo> children;
+        private boolean empty = true;  // true until one of its todos is written
+
+        OpenProject(Project project) {
+            children = project.getChildren().iterator();
+        }
+    }
+
+    // MODIFIES: open, written, out
+    // EFFECTS: appends the next todo of the innermost open project to out (opening it if it is a project), or
+    //          closes that project if all its todos were appended
+    private static void appendNext(Deque<OpenProject> open, Set<Long> written, StringBuilder out) {
+        OpenProject parent = open.peek();
+        if (!parent.children.hasNext()) {
+            out.append("]}");
+            open.pop();
+            return;
+        }
+        out.append(parent.empty ? "" : ",");
+        parent.empty = false;
+        OpenProject opened = appendTodo(parent.children.next(), written, out);
+        if (opened != null) {
+            open.push(opened);
+        }
+    }
+
+    // MODIFIES: out, written
+    // EFFECTS: appends todo to out (only a reference to it if its id is in written, which it is added to),
+    //          and returns it as an open project if it is a project whose todos are yet to be appended
+    private static OpenProject appendTodo(Todo todo, Set<Long> written, StringBuilder out) {
+        if (!written.add(todo.getId())) {
+            out.append("{\"ref\":").append(todo.getId()).append('}');
+            return null;
+        }
+        if (todo instanceof Project) {
+            return appendProjectStart((Project) todo, out);
+        }
+        appendTask((Task) todo, out);
+        out.setLength(out.length() - 1);
+        out.append(",\"etc-hours\":").append(todo.getEstimatedTimeToComplete());
+        out.append(",\"progress\":").append(todo.getProgress()).append('}');
+        return null;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON representation of project up to the start of its todos to out, and returns it
+    //          as an open project
+    private static OpenProject appendProjectStart(Project project, StringBuilder out) {
+        out.append("{\"id\":").append(project.getId()).append(",\"description\":");
+        quote(project.getDescription(), out);
+        out.append(",\"todos\":[");
+        return new OpenProject(project);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: writes the JSON representation of task to writer; the text is the same as
+    //          taskToJson(task).toString()
+    //  throws IOException if writer fails
+    public static void writeTask(Task task, Writer writer) throws IOException {
+        StringBuilder out = new StringBuilder();
+        appendTask(task, out);
+        flush(out, new char[0], writer);
+    }
+
+    // MODIFIES: writer
+    // EFFECTS: same as writeTask, for the task whose saved fields are task
+    //  throws IOException if writer fails
+    public static void writeSaved(SavedFields task, Writer writer) throws IOException {
+        StringBuilder out = new StringBuilder();
+        appendSaved(task, out);
+        flush(out, new char[0], writer);
+    }
+
+    // MODIFIES: out, writer
+    // EFFECTS: writes the text in out to writer and empties out; chunk is reused to copy the text unless
+    //          it is too small, and the array used is returned
+    private static char[] flush(StringBuilder out, char[] chunk, Writer writer) throws IOException {
+        if (chunk.length < out.length()) {
+            chunk = new char[out.length()];
+        }
+        out.getChars(0, out.length(), chunk, 0);
+        writer.write(chunk, 0, out.length());
+        out.setLength(0);
+        return chunk;
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON representation of task to out
+    private static void appendTask(Task task, StringBuilder out) {
+        appendObject(TASK_KEYS, TASK_ORDER, out, (field, o) -> appendTaskField(task, field, o));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the value of the field of task named TASK_KEYS[field] to out
+    private static void appendTaskField(Task task, int field, StringBuilder out) {
+        if (field == 0) {
+            out.append(task.getId());
+        } else if (field == 1) {
+            quote(task.getDescription(), out);
+        } else if (field == 2) {
+            appendTags(task.getTags(), out);
+        } else if (field == 3) {
+            appendDueDate(task.getDueDate() == null ? null : task.getDueDate().getDate(), out);
+        } else if (field == 4) {
+            appendPriority(task.getPriority().isImportant(), task.getPriority().isUrgent(), out);
+        } else {
+            quote(task.getStatus().toString().replace(' ', '_'), out);
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON representation of the task whose saved fields are task to out
+    private static void appendSaved(SavedFields task, StringBuilder out) {
+        appendObject(TASK_KEYS, TASK_ORDER, out, (field, o) -> appendSavedField(task, field, o));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the value of the field named TASK_KEYS[field] of the task whose saved fields are task to out
+    private static void appendSavedField(SavedFields task, int field, StringBuilder out) {
+        if (field == 0) {
+            out.append(task.getId());
+        } else if (field == 1) {
+            quote(task.getDescription(), out);
+        } else if (field == 2) {
+            appendTagNames(task.getTagNames(), out);
+        } else if (field == 3) {
+            long minute = task.getDueMinute();
+            appendDueDate(minute == Long.MIN_VALUE ? null : new Date(minute * MILLIS_PER_MINUTE), out);
+        } else if (field == 4) {
+            appendPriority(task.isImportant(), task.isUrgent(), out);
+        } else {
+            quote(task.getStatus().toString().replace(' ', '_'), out);
+        }
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON array of tags to out, as tagsToJsonArray(tags).toString() would write it
+    private static void appendTags(Set<Tag> tags, StringBuilder out) {
+        out.append('[');
+        boolean first = true;
+        for (Tag t : tags) {
+            appendTagName(t.getName(), first, out);
+            first = false;
+        }
+        out.append(']');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON array of the tags named names to out, as appendTags writes it
+    private static void appendTagNames(Set<String> names, StringBuilder out) {
+        out.append('[');
+        boolean first = true;
+        for (String name : names) {
+            appendTagName(name, first, out);
+            first = false;
+        }
+        out.append(']');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON object of the tag named name to out, after a comma unless it is the first of its array
+    private static void appendTagName(String name, boolean first, StringBuilder out) {
+        out.append(first ? "{\"name\":" : ",{\"name\":");
+        quote(name, out);
+        out.append('}');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON representation of the due date at date (null if there is none) to out
+    private static void appendDueDate(Date date, StringBuilder out) {
+        if (date == null) {
+            out.append("null");
+            return;
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        int[] values = {cal.get(Calendar.YEAR), cal.get(Calendar.MONTH), cal.get(Calendar.DAY_OF_MONTH),
+                cal.get(Calendar.HOUR_OF_DAY), cal.get(Calendar.MINUTE)};
+        appendObject(DUE_DATE_KEYS, DUE_DATE_ORDER, out, (field, o) -> o.append(values[field]));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the JSON representation of a priority that is important and/or urgent to out, as
+    //          priorityToJson would build it
+    private static void appendPriority(boolean important, boolean urgent, StringBuilder out) {
+        boolean[] values = {important, urgent};
+        appendObject(PRIORITY_KEYS, PRIORITY_ORDER, out, (field, o) -> o.append(values[field]));
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends a JSON object with the given keys, in the given order, to out;
+    //          fields appends the value of each key
+    private static void appendObject(String[] keys, int[] order, StringBuilder out, FieldWriter fields) {
+        out.append('{');
+        for (int i = 0; i < order.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            quote(keys[order[i]], out);
+            out.append(':');
+            fields.append(order[i], out);
+        }
+        out.append('}');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends string to out as a quoted JSON string, escaped as JSONObject.quote escapes it;
+    //          runs of characters that need no escaping are appended at once rather than one at a time
+    private static void quote(String string, StringBuilder out) {
+        out.append('"');
+        int unappended = 0;
+        char previous = 0;
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (needsEscape(c, previous)) {
+                out.append(string, unappended, i);
+                appendEscaped(c, out);
+                unappended = i + 1;
+            }
+            previous = c;
+        }
+        out.append(string, unappended, string.length()).append('"');
+    }
+
+    // EFFECTS: returns true if JSONObject.quote escapes c when it follows previous
+    private static boolean needsEscape(char c, char previous) {
+        return c == '"' || c == '\\' || (c == '/' && previous == '<') || c < ' '
+                || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100');
+    }
+
+    // MODIFIES: out
+    // EFFECTS: appends the escape sequence JSONObject.quote uses for c to out
+    private static void appendEscaped(char c, StringBuilder out) {
+        int control = CONTROL_CHARACTERS.indexOf(c);
+        out.append('\\');
+        if (c == '"' || c == '\\' || c == '/') {
+            out.append(c);
+        } else if (control >= 0) {
+            out.append(CONTROL_ESCAPES.charAt(control));
+        } else {
+            String hex = Integer.toHexString(c);
+            out.append("u0000", 0, 5 - hex.length()).append(hex);
+        }
+    }
+
+    // EFFECTS: returns the indexes of keys in the order in which a JSONObject, given the keys in order,
+    //          lists them
+    private static int[] keyOrder(String[] keys) {
+        JSONObject sample = new JSONObject();
+        for (String k : keys) {
+            sample.put(k, 0);
+        }
+        int[] order = new int[keys.length];
+        int i = 0;
+        for (String k : sample.keySet()) {
+            order[i++] = Arrays.asList(keys).indexOf(k);
+        }
+        return order;
+    }
 }
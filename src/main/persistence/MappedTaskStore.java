@@ -0,0 +1,541 @@
+package persistence;
+
+import model.DueDate;
+import model.Generation;
+import model.Priority;
+import model.Status;
+import model.Tag;
+import model.Task;
+import persistence.exceptions.TaskFormatException;
+import utility.LongIntHashMap;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.function.Predicate;
+
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+// A store of tasks in a memory-mapped file, for lists of tasks too large to be loaded whole. Each task is a
+// fixed-width record, so a task is found by id (through an index built when the store is opened), or a field
+// of every task is scanned, without decoding the other tasks; a Task is only built for the records asked for.
+// The strings of the tasks (descriptions and tag names) are kept in a second mapped file, the heap
+// (<file>.heap). The store file is laid out as:
+//     header   "PTMS", the version (int), the number of slots (int), 4 unused bytes, the length of the heap
+//              (long), the number of bytes of the heap held by no record (garbage, long)
+//     slots    RECORD_SIZE bytes each: the id (long), the due date in minutes since the epoch (long), the ETC
+//              in hours (int), the progress (int), the offset and length in the heap of the description (int,
+//              int) and of the names of the tags, separated by '\0' (int, int), flags (byte: in use, important,
+//              urgent, has a due date), the status (byte), 6 unused bytes
+// Editing a task overwrites its record in place; a string is rewritten in place if it is no longer than before,
+// and appended to the heap otherwise. The slots of removed tasks are reused. The bytes of the heap left behind
+// by appended and removed strings are counted as garbage; once they make up half of the heap (and at least
+// MIN_GARBAGE bytes), the live strings are moved to the start of the heap, which is then reused from their end
+// on (the heap file keeps its size). Changes reach the disk when the operating system writes the mapped pages
+// back, or at the latest on force() or close(); a store left by a crash while its heap was being compacted may
+// hold garbled strings. The records are checked when the store is opened. Each file is limited to 2 GB (the
+// size of one mapping), so the strings of the tasks are limited to 2 GB in all. Not synchronized.
+public class MappedTaskStore implements Closeable {
+    public static final int RECORD_SIZE = 48;
+    public static final int MIN_GARBAGE = 1 << 16;  // bytes; less garbage is not worth compacting the heap for
+    private static final int MAGIC = 0x50544d53;  // "PTMS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int INITIAL_SLOTS = 1024;
+    private static final int INITIAL_HEAP_SIZE = 1 << 16;
+    private static final long MILLIS_PER_MINUTE = 60_000;
+    private static final String TAG_SEPARATOR = "\u0000";
+    // offsets in the header
+    private static final int SLOTS = 8;
+    private static final int HEAP_LENGTH = 16;
+    private static final int GARBAGE = 24;
+    // offsets in a record
+    private static final int ID = 0;
+    private static final int DUE = 8;
+    private static final int ETC = 16;
+    private static final int PROGRESS = 20;
+    private static final int DESCRIPTION = 24;
+    private static final int TAGS = 32;
+    private static final int FLAGS = 40;
+    private static final int STATUS = 41;
+    // flags
+    private static final int IN_USE = 1;
+    private static final int IMPORTANT = 2;
+    private static final int URGENT = 4;
+    private static final int HAS_DUE_DATE = 8;
+
+    private final FileChannel recordChannel;
+    private final FileChannel heapChannel;
+    private final LongIntHashMap index = new LongIntHashMap();  // id -> slot of the tasks in the store
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();  // slots of removed tasks
+    private final Record record = new Record();  // passed to the filter of scan
+    private MappedByteBuffer records;
+    private MappedByteBuffer heap;
+    private int slots;  // slots used so far, including free ones
+    private int heapLength;
+    private long garbage;  // bytes of the heap held by no record
+
+    // EFFECTS: opens the store saved in file (and its heap), creating an empty one if file does not exist
+    //  throws TaskFormatException if file is not a store of tasks, is in a version that is not supported, or holds
+    //  a corrupt record (e.g. one whose status is not a status)
+    //  throws IOException if the store cannot be opened
+    public MappedTaskStore(File file) throws IOException {
+        recordChannel = FileChannel.open(file.toPath(), CREATE, READ, WRITE);
+        FileChannel heapFile = null;
+        try {
+            heapFile = FileChannel.open(new File(file.getPath() + ".heap").toPath(), CREATE, READ, WRITE);
+            records = map(recordChannel, HEADER_SIZE + (long) INITIAL_SLOTS * RECORD_SIZE);
+            heap = map(heapFile, INITIAL_HEAP_SIZE);
+            readHeader(file);
+            buildIndex(file);
+        } catch (IOException | RuntimeException e) {
+            recordChannel.close();
+            if (heapFile != null) {
+                heapFile.close();
+            }
+            throw e;
+        }
+        heapChannel = heapFile;
+    }
+
+    // EFFECTS: returns the number of tasks in this store
+    public int size() {
+        return index.size();
+    }
+
+    // EFFECTS: returns true if this store holds the task with the given id
+    public boolean contains(long id) {
+        return index.containsKey(id);
+    }
+
+    // EFFECTS: returns the task with the given id, built from its record, or null if there is none; the task
+    //          is added to its tags, so it must be removed from them (see TagRegistry.removeTask) once it is no
+    //          longer used. Each call builds a new Task.
+    public Task get(long id) {
+        int slot = index.get(id, -1);
+        return slot < 0 ? null : materialize(position(slot));
+    }
+
+    // REQUIRES: 0 <= from <= to <= ids.length
+    // EFFECTS: returns the tasks with ids[from] to ids[to - 1] that are in this store (e.g. the rows shown by a
+    //          view, out of the ids returned by scan), as get(id) does
+    public List<Task> get(long[] ids, int from, int to) {
+        List<Task> tasks = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            Task task = get(ids[i]);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns the header of the task with the given id (its id, description, status and priority), read
+    //          without building the task, or null if there is none
+    public TaskHeader getHeader(long id) {
+        int slot = index.get(id, -1);
+        if (slot < 0) {
+            return null;
+        }
+        int at = position(slot);
+        int flags = records.get(at + FLAGS);
+        return new TaskHeader(id, readString(at + DESCRIPTION), BinaryTaskCodec.STATUSES[records.get(at + STATUS)],
+                (flags & IMPORTANT) != 0, (flags & URGENT) != 0);
+    }
+
+    // EFFECTS: returns the ids of the tasks whose record matches filter, in the order of their slots; filter
+    //          is given the same Record for every task, so it must not keep it
+    public long[] scan(Predicate<Record> filter) {
+        long[] ids = new long[index.size()];
+        int found = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            record.position = position(slot);
+            if ((records.get(record.position + FLAGS) & IN_USE) != 0 && filter.test(record)) {
+                ids[found++] = record.getId();
+            }
+        }
+        return Arrays.copyOf(ids, found);
+    }
+
+    // EFFECTS: returns the ids of the tasks in this store, in the order of the store (as scan(filter) returns them),
+    //          but without the first skip of them, and at most max of them (e.g. the rows of one page of a view);
+    //          no slot after the one of the last id returned is read
+    public long[] scan(int skip, int max) {
+        long[] ids = new long[Math.max(0, Math.min(max, index.size() - skip))];
+        int found = 0;
+        int skipped = 0;
+        for (int slot = 0; slot < slots && found < ids.length; slot++) {
+            int at = position(slot);
+            if ((records.get(at + FLAGS) & IN_USE) == 0) {
+                continue;
+            }
+            if (skipped < skip) {
+                skipped++;
+            } else {
+                ids[found++] = records.getLong(at + ID);
+            }
+        }
+        return ids;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves task, overwriting the record of the task with the same id if there is one
+    //  throws IOException if the store is full, or cannot grow
+    public void put(Task task) throws IOException {
+        putRecord(task);
+        compactIfWasteful();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes the record of task, as put does, without compacting the heap
+    private void putRecord(Task task) throws IOException {
+        int slot = index.get(task.getId(), -1);
+        if (slot < 0) {
+            slot = allocateSlot();
+            index.put(task.getId(), slot);
+        }
+        int at = position(slot);
+        writeString(at + DESCRIPTION, task.getDescription());
+        writeString(at + TAGS, joinTags(task));
+        DueDate dueDate = task.getDueDate();
+        records.putLong(at + ID, task.getId());
+        long dueMinute = dueDate == null ? 0 : Math.floorDiv(dueDate.getDate().getTime(), MILLIS_PER_MINUTE);
+        records.putLong(at + DUE, dueMinute);
+        records.putInt(at + ETC, task.getEstimatedTimeToComplete());
+        records.putInt(at + PROGRESS, task.getProgress());
+        records.put(at + STATUS, (byte) Arrays.asList(BinaryTaskCodec.STATUSES).indexOf(task.getStatus()));
+        records.put(at + FLAGS, (byte) flags(task));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves each of tasks, as put does
+    //  throws IOException if the store is full, or cannot grow; the tasks before the one that failed are saved
+    public void putAll(Collection<? extends Task> tasks) throws IOException {
+        for (Task t : tasks) {
+            put(t);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the task with the given id and returns true, or returns false if there is none
+    public boolean remove(long id) {
+        int slot = index.get(id, -1);
+        if (slot < 0) {
+            return false;
+        }
+        index.remove(id);
+        int at = position(slot);
+        garbage += records.getInt(at + DESCRIPTION + 4) + records.getInt(at + TAGS + 4);
+        records.putLong(at + DESCRIPTION, 0);  // offset and length
+        records.putLong(at + TAGS, 0);
+        records.put(at + FLAGS, (byte) 0);
+        freeSlots.push(slot);
+        saveHeapLength();
+        compactIfWasteful();
+        return true;
+    }
+
+    // EFFECTS: returns the number of bytes of the heap held by no record, which compacting the heap would free
+    public long getGarbage() {
+        return garbage;
+    }
+
+    // EFFECTS: writes the changes made to this store to disk
+    public void force() {
+        records.force();
+        heap.force();
+    }
+
+    // EFFECTS: writes the changes made to this store to disk and closes it, which cannot be used afterwards
+    @Override
+    public void close() throws IOException {
+        force();
+        recordChannel.close();
+        heapChannel.close();
+    }
+
+    // The record of a task, as seen by the filter of scan; each getter reads a field of the record from the
+    // mapped file
+    public final class Record {
+        private int position;
+
+        private Record() {
+        }
+
+        public long getId() {
+            return records.getLong(position + ID);
+        }
+
+        public Status getStatus() {
+            return BinaryTaskCodec.STATUSES[records.get(position + STATUS)];
+        }
+
+        public boolean isImportant() {
+            return (records.get(position + FLAGS) & IMPORTANT) != 0;
+        }
+
+        public boolean isUrgent() {
+            return (records.get(position + FLAGS) & URGENT) != 0;
+        }
+
+        public boolean hasDueDate() {
+            return (records.get(position + FLAGS) & HAS_DUE_DATE) != 0;
+        }
+
+        // REQUIRES: hasDueDate()
+        // EFFECTS: returns the due date, in minutes since the epoch
+        public long getDueMinute() {
+            return records.getLong(position + DUE);
+        }
+
+        public int getEstimatedTimeToComplete() {
+            return records.getInt(position + ETC);
+        }
+
+        public int getProgress() {
+            return records.getInt(position + PROGRESS);
+        }
+    }
+
+    // EFFECTS: checks the header of the store, writing it if the store is new, and reads its lengths
+    //  throws TaskFormatException if file is not a store of tasks, or in a version that is not supported
+    private void readHeader(File file) throws TaskFormatException {
+        if (records.getInt(0) == 0 && records.getInt(SLOTS) == 0) {
+            records.putInt(0, MAGIC);
+            records.putInt(4, VERSION);
+        }
+        if (records.getInt(0) != MAGIC) {
+            throw new TaskFormatException("Not a store of tasks: " + file);
+        }
+        if (records.getInt(4) != VERSION) {
+            throw new TaskFormatException("Unsupported version of the task store: " + records.getInt(4));
+        }
+        slots = records.getInt(SLOTS);
+        long length = records.getLong(HEAP_LENGTH);
+        long end = HEADER_SIZE + (long) slots * RECORD_SIZE;
+        garbage = records.getLong(GARBAGE);
+        if (slots < 0 || end > records.capacity() || length < 0 || length > heap.capacity() || garbage < 0
+                || garbage > length) {
+            throw new TaskFormatException("Corrupt task store: " + file);
+        }
+        heapLength = (int) length;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: indexes the tasks in the store by id, and collects the free slots
+    //  throws TaskFormatException if the record of a task is not valid (see isValid), or if two records hold the
+    //  same id
+    private void buildIndex(File file) throws TaskFormatException {
+        for (int slot = slots - 1; slot >= 0; slot--) {
+            int at = position(slot);
+            if ((records.get(at + FLAGS) & IN_USE) == 0) {
+                freeSlots.push(slot);
+                continue;
+            }
+            if (!isValid(at)) {
+                throw new TaskFormatException("Corrupt record in task store " + file + " (slot " + slot + ")");
+            }
+            long id = records.getLong(at + ID);
+            int other = index.get(id, -1);
+            if (other >= 0) {
+                throw new TaskFormatException("Duplicate task id " + id + " in task store " + file + " (slots "
+                        + slot + " and " + other + ")");
+            }
+            index.put(id, slot);
+        }
+    }
+
+    // EFFECTS: returns true if the record at position at holds a valid status, and strings that lie in the heap
+    private boolean isValid(int at) {
+        int status = records.get(at + STATUS);
+        return status >= 0 && status < BinaryTaskCodec.STATUSES.length && inHeap(at + DESCRIPTION)
+                && inHeap(at + TAGS);
+    }
+
+    // EFFECTS: returns true if the string whose offset and length are held in the record field at field lies in
+    //          the heap
+    private boolean inHeap(int field) {
+        long offset = records.getInt(field);
+        long length = records.getInt(field + 4);
+        return offset >= 0 && length >= 0 && offset + length <= heapLength;
+    }
+
+    // EFFECTS: returns the position of the record in slot
+    private static int position(int slot) {
+        return HEADER_SIZE + slot * RECORD_SIZE;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns a free slot, cleared if it was never used, growing the store if there is none
+    private int allocateSlot() throws IOException {
+        if (!freeSlots.isEmpty()) {
+            return freeSlots.pop();
+        }
+        long end = HEADER_SIZE + (slots + 1L) * RECORD_SIZE;
+        if (end > records.capacity()) {
+            records = grow(recordChannel, records, end);
+        }
+        for (int i = position(slots); i < end; i++) {
+            records.put(i, (byte) 0);
+        }
+        records.putInt(SLOTS, ++slots);
+        return slots - 1;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: writes s at the offset held in the record field at field (rewriting it in place if it fits, or
+    //          appending it to the heap), and saves its length in the field; the bytes it no longer uses are
+    //          counted as garbage
+    private void writeString(int field, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        int offset = records.getInt(field);
+        int length = records.getInt(field + 4);
+        garbage += bytes.length > length ? length : length - bytes.length;
+        if (bytes.length > length) {
+            long end = (long) heapLength + bytes.length;
+            if (end > heap.capacity()) {
+                heap = grow(heapChannel, heap, end);
+            }
+            offset = heapLength;
+            heapLength = (int) end;
+        }
+        saveHeapLength();
+        heap.position(offset);
+        heap.put(bytes);
+        records.putInt(field, offset);
+        records.putInt(field + 4, bytes.length);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: saves the length of the heap and its garbage in the header
+    private void saveHeapLength() {
+        records.putLong(HEAP_LENGTH, heapLength);
+        records.putLong(GARBAGE, garbage);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: compacts the heap if at least half of it, and at least MIN_GARBAGE bytes, are garbage, so that
+    //          compacting costs at most as much copying as the strings appended since the last compaction
+    private void compactIfWasteful() {
+        if (garbage >= MIN_GARBAGE && 2 * garbage >= heapLength) {
+            long[] fields = liveFields();
+            int end = 0;
+            for (long f : fields) {
+                end = moveString((int) f, end);
+            }
+            heapLength = end;
+            garbage = 0;
+            saveHeapLength();
+        }
+    }
+
+    // EFFECTS: returns the positions of the string fields of the records of the tasks, each in the low 32 bits of
+    //          a long whose high bits hold the offset of its string, sorted (i.e. in the order of the offsets)
+    private long[] liveFields() {
+        long[] fields = new long[2 * index.size()];
+        int count = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            int at = position(slot);
+            if ((records.get(at + FLAGS) & IN_USE) != 0) {
+                fields[count++] = (long) records.getInt(at + DESCRIPTION) << 32 | (at + DESCRIPTION);
+                fields[count++] = (long) records.getInt(at + TAGS) << 32 | (at + TAGS);
+            }
+        }
+        Arrays.sort(fields, 0, count);
+        return count == fields.length ? fields : Arrays.copyOf(fields, count);
+    }
+
+    // REQUIRES: to is not after the offset of the string, and the heap from to up to that offset holds no string
+    //           but garbage
+    // MODIFIES: this
+    // EFFECTS: moves the string whose offset and length are held in the record field at field to offset to in the
+    //          heap, and returns the offset just past it
+    private int moveString(int field, int to) {
+        int from = records.getInt(field);
+        int length = records.getInt(field + 4);
+        if (from != to && length > 0) {
+            byte[] bytes = new byte[length];
+            heap.position(from);
+            heap.get(bytes);
+            heap.position(to);
+            heap.put(bytes);
+        }
+        records.putInt(field, to);
+        return to + length;
+    }
+
+    // EFFECTS: returns the string whose offset and length are held in the record field at field
+    private String readString(int field) {
+        byte[] bytes = new byte[records.getInt(field + 4)];
+        heap.position(records.getInt(field));
+        heap.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // EFFECTS: returns the task whose record is at position at, without advancing the Generation
+    private Task materialize(int at) {
+        int flags = records.get(at + FLAGS);
+        Priority priority = new Priority();
+        priority.setImportant((flags & IMPORTANT) != 0);
+        priority.setUrgent((flags & URGENT) != 0);
+        DueDate dueDate = (flags & HAS_DUE_DATE) == 0 ? null
+                : new DueDate(new Date(records.getLong(at + DUE) * MILLIS_PER_MINUTE));
+        Task task = Task.restore(records.getLong(at + ID), readString(at + DESCRIPTION), dueDate, priority,
+                BinaryTaskCodec.STATUSES[records.get(at + STATUS)]);
+        Generation.quietly(() -> {
+            task.setEstimatedTimeToComplete(records.getInt(at + ETC));
+            task.setProgress(records.getInt(at + PROGRESS));
+            addTags(task, readString(at + TAGS));
+        });
+        return task;
+    }
+
+    // MODIFIES: task
+    // EFFECTS: adds task to the tags named in tags (joined by TAG_SEPARATOR)
+    private static void addTags(Task task, String tags) {
+        if (!tags.isEmpty()) {
+            for (String name : tags.split(TAG_SEPARATOR)) {
+                task.addTag(name);
+            }
+        }
+    }
+
+    // EFFECTS: returns the names of the tags of task, separated by TAG_SEPARATOR
+    private static String joinTags(Task task) {
+        StringJoiner names = new StringJoiner(TAG_SEPARATOR);
+        for (Tag t : task.getTags()) {
+            names.add(t.getName());
+        }
+        return names.toString();
+    }
+
+    // EFFECTS: returns the flags of the record of task
+    private static int flags(Task task) {
+        int flags = IN_USE;
+        flags |= task.getPriority().isImportant() ? IMPORTANT : 0;
+        flags |= task.getPriority().isUrgent() ? URGENT : 0;
+        return flags | (task.getDueDate() != null ? HAS_DUE_DATE : 0);
+    }
+
+    // EFFECTS: returns a mapping of the whole of channel, at least size bytes long (extending the file)
+    private static MappedByteBuffer map(FileChannel channel, long size) throws IOException {
+        return channel.map(READ_WRITE, 0, Math.max(channel.size(), size));
+    }
+
+    // EFFECTS: returns a mapping of channel at least needed bytes long, and twice as long as mapped if possible
+    //  throws IOException if needed is over 2 GB, or the file cannot be extended
+    private static MappedByteBuffer grow(FileChannel channel, MappedByteBuffer mapped, long needed)
+            throws IOException {
+        if (needed > Integer.MAX_VALUE) {
+            throw new IOException("The task store is full");
+        }
+        return map(channel, Math.min(Integer.MAX_VALUE, Math.max(needed, 2L * mapped.capacity())));
+    }
+}
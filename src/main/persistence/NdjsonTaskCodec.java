@@ -0,0 +1,286 @@
+package persistence;
+
+import model.TagRegistry;
+import model.Task;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+import parsers.TaskParser;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+// Newline-delimited JSON, in UTF-8: each task is written on a line of its own, as the object written by
+// Jsonifier.writeTask, followed by '\n'. Unlike a JSON array, such a list can be added to by appending lines
+// (see append), read from any line on (see read), and split into parts on line boundaries, which are parsed in
+// parallel when the list is large. A last line lacking its '\n' is decoded if it holds a whole JSON object (e.g.
+// in a file edited by hand), and ignored if it is torn (e.g. one being appended during a crash); read, which
+// reads the lines of a file as they are appended, only reads the lines ended by their '\n'. Blank lines are
+// skipped, as are tasks that cannot be parsed (as TaskParser skips them), but a line that does not hold exactly one
+// JSON object (give or take whitespace) makes the list corrupt.
+public class NdjsonTaskCodec implements TaskCodec {
+    private static final TaskParser PARSER = new TaskParser();
+    private static final int MIN_CHUNK_SIZE = 1 << 16;  // bytes; smaller chunks are not worth a task of their own
+    // bytes read at once by read: enough for the lines read to be parsed in parallel (see decode)
+    private static final int READ_CHUNK_SIZE = (int) (2 * JsonTaskCodec.PARALLEL_READ_THRESHOLD);
+
+    @Override
+    public String getName() {
+        return "ndjson";
+    }
+
+    // EFFECTS: returns true if the first byte of header that is not whitespace is '{'
+    @Override
+    public boolean accepts(byte[] header, int length) {
+        int i = 0;
+        while (i < length && (header[i] == ' ' || header[i] == '\t' || header[i] == '\n' || header[i] == '\r')) {
+            i++;
+        }
+        return i < length && header[i] == '{';
+    }
+
+    @Override
+    public void encode(List<Task> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (Task t : tasks) {
+            Jsonifier.writeTask(t, writer);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void encodeSaved(List<SavedFields> tasks, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        for (SavedFields t : tasks) {
+            Jsonifier.writeSaved(t, writer);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    // EFFECTS: same as TaskCodec.decode; the lines are parsed in parallel, in chunks, if in is large (see
+    //          JsonTaskCodec.PARALLEL_READ_THRESHOLD)
+    @Override
+    public List<Task> decode(InputStream in, long size) throws IOException {
+        byte[] bytes = JsonTaskCodec.readAll(in, size);
+        Builder builder = new Builder();
+        decode(bytes, completeEnd(bytes), builder);
+        return builder.tasks;
+    }
+
+    // EFFECTS: appends tasks to file (which is created if it does not exist), one line each; the lines already
+    //          in file are neither read nor rewritten
+    //  throws IOException if file cannot be written
+    public void append(List<Task> tasks, File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file, true)) {
+            encode(tasks, out);
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: reads the complete lines of file from offset (in bytes; the start of a line, such as the value
+    //          returned by an earlier call) on, adds the tasks they hold to tasks, in order, and to their tags, and
+    //          returns the offset just past the last complete line, from which to read the lines appended later.
+    //          The lines are read in chunks of at most READ_CHUNK_SIZE bytes (more only for a line longer than
+    //          that), each decoded up to its last complete line before the next is read, so that the memory used
+    //          does not grow with the length of file. Unlike decode, the ids of the tasks read are not checked
+    //          against the ids of the tasks read before.
+    //  throws TaskFormatException if one of the lines read is not a JSON object; no task is then added
+    //  throws IOException if file cannot be read
+    public long read(File file, long offset, List<Task> tasks) throws IOException {
+        return read(file, offset, tasks, READ_CHUNK_SIZE);
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: same as read(file, offset, tasks), reading chunks of at most chunkSize bytes
+    long read(File file, long offset, List<Task> tasks, int chunkSize) throws IOException {
+        Builder builder = new Builder();
+        long position;
+        try (RandomAccessFile in = new RandomAccessFile(file, "r")) {
+            in.seek(offset);
+            position = decodeLines(in, offset, in.length(), chunkSize, builder);
+        }
+        tasks.addAll(builder.tasks);
+        return position;
+    }
+
+    // MODIFIES: builder
+    // EFFECTS: reads in, from position (where it is) to length, in chunks of chunkSize bytes (doubled for a line
+    //          that does not fit), decodes the complete lines of each chunk into builder before reading the next,
+    //          and returns the position just past the last complete line
+    //  throws TaskFormatException if one of the lines is not a JSON object; the tasks of builder are then removed
+    //         from their tags
+    private static long decodeLines(RandomAccessFile in, long position, long length, int chunkSize, Builder builder)
+            throws IOException {
+        byte[] chunk = new byte[(int) Math.max(0, Math.min(chunkSize, length - position))];
+        int held = 0;  // bytes of chunk read but not decoded yet, being the start of a line not complete yet
+        while (position + held < length) {
+            if (held == chunk.length) {
+                chunk = Arrays.copyOf(chunk, 2 * chunk.length);
+            }
+            int read = (int) Math.min(chunk.length - held, length - position - held);
+            in.readFully(chunk, held, read);
+            held += read;
+            int end = lastLineEnd(chunk, held);
+            decode(chunk, end, builder);
+            System.arraycopy(chunk, end, chunk, 0, held - end);
+            held -= end;
+            position += end;
+        }
+        return position;
+    }
+
+    // EFFECTS: writes the objects of the JSON array in array (such as a list of tasks saved by JsonTaskCodec) to
+    //          lines, one line each, without building them as tasks; the elements that are not objects are
+    //          skipped. Neither array nor lines is closed.
+    //  throws TaskFormatException if array does not hold a JSON array
+    //  throws IOException if lines cannot be written
+    public static void convert(Reader array, Writer lines) throws IOException {
+        JSONTokener tokener = new JSONTokener(array);
+        try {
+            if (tokener.nextClean() != '[') {
+                throw tokener.syntaxError("A JSONArray text must start with '['");
+            }
+            boolean ended = tokener.nextClean() == ']';
+            if (!ended) {
+                tokener.back();
+            }
+            while (!ended) {
+                ended = copyElement(tokener, lines);
+            }
+        } catch (JSONException e) {
+            throw new TaskFormatException("Invalid JSON: " + e.getMessage(), e);
+        }
+        lines.flush();
+    }
+
+    // EFFECTS: reads the next element of the array in tokener and the separator that follows it, writes the
+    //          element to lines (on a line of its own) if it is an object, and returns true if the array ended
+    //  throws JSONException if the element or the separator is malformed
+    private static boolean copyElement(JSONTokener tokener, Writer lines) throws IOException {
+        Object element = tokener.nextValue();
+        if (element instanceof JSONObject) {
+            lines.write(element.toString());
+            lines.write('\n');
+        }
+        char separator = tokener.nextClean();
+        if (separator != ',' && separator != ']') {
+            throw tokener.syntaxError("Expected a ',' or ']'");
+        }
+        return separator == ']';
+    }
+
+    // MODIFIES: builder
+    // EFFECTS: adds the tasks on the lines of bytes before end (just past a '\n', 0 or the length of the content of
+    //          bytes) to builder, in order, and to their tags; the lines are parsed in parallel, in chunks, if there
+    //          are enough of them
+    //  throws TaskFormatException if one of the lines is not a JSON object; the tasks of builder are then removed
+    //         from their tags
+    private static void decode(byte[] bytes, int end, Builder builder) throws TaskFormatException {
+        int chunks = end < JsonTaskCodec.PARALLEL_READ_THRESHOLD || Runtime.getRuntime().availableProcessors() < 2
+                ? 1 : Math.min(end / MIN_CHUNK_SIZE, 4 * ForkJoinPool.getCommonPoolParallelism());
+        try {
+            if (chunks == 1) {
+                parseLines(bytes, 0, end, builder::add);
+            } else {
+                parseParallel(bytes, end, chunks).forEach(chunk -> chunk.forEach(builder::add));
+            }
+        } catch (JSONException e) {
+            builder.tasks.forEach(TagRegistry::removeTask);
+            throw new TaskFormatException("Invalid NDJSON: " + e.getMessage(), e);
+        }
+    }
+
+    // EFFECTS: returns the objects on the lines of bytes before end, parsed in parallel in the given number of
+    //          chunks (split on line boundaries), as one list for each chunk, in order
+    //  throws JSONException if one of the lines is not a JSON object
+    private static List<List<JSONObject>> parseParallel(byte[] bytes, int end, int chunks) {
+        int[] bounds = new int[chunks + 1];
+        for (int i = 1; i <= chunks; i++) {
+            int bound = Math.max(bounds[i - 1], (int) ((long) i * end / chunks));
+            while (bound < end && bytes[bound - 1] != '\n') {
+                bound++;
+            }
+            bounds[i] = bound;
+        }
+        return IntStream.range(0, chunks).parallel().mapToObj(i -> {
+            List<JSONObject> objects = new ArrayList<>();
+            parseLines(bytes, bounds[i], bounds[i + 1], objects::add);
+            return objects;
+        }).collect(Collectors.toList());
+    }
+
+    // EFFECTS: returns the length of bytes if the line after its last '\n' holds nothing but a whole JSON object
+    //          (or only whitespace), and the index just past its last '\n' (or 0) otherwise, the last line being torn
+    private static int completeEnd(byte[] bytes) {
+        int end = lastLineEnd(bytes, bytes.length);
+        try {
+            parseLines(bytes, end, bytes.length, object -> { });
+            return bytes.length;
+        } catch (JSONException e) {
+            return end;
+        }
+    }
+
+    // EFFECTS: returns the index just past the last '\n' in bytes before to, or 0 if there is none
+    private static int lastLineEnd(byte[] bytes, int to) {
+        int end = to;
+        while (end > 0 && bytes[end - 1] != '\n') {
+            end--;
+        }
+        return end;
+    }
+
+    // REQUIRES: from is 0 or just past a '\n', and to is just past a '\n', equal to from, or the length of bytes
+    // EFFECTS: passes the objects on the lines of bytes from (inclusive) to to (exclusive) to objects, in order,
+    //          skipping blank lines
+    //  throws JSONException if one of the lines is not a JSON object, or holds anything but whitespace after it
+    private static void parseLines(byte[] bytes, int from, int to, Consumer<JSONObject> objects) {
+        JSONTokener tokener = new JSONTokener(new InputStreamReader(new ByteArrayInputStream(bytes, from, to - from),
+                StandardCharsets.UTF_8));
+        for (char c = tokener.nextClean(); c != 0; c = tokener.nextClean()) {
+            if (c != '{') {
+                throw tokener.syntaxError("A line must hold a JSON object");
+            }
+            tokener.back();
+            objects.accept((JSONObject) tokener.nextValue());
+            skipToLineEnd(tokener);
+        }
+    }
+
+    // EFFECTS: reads the rest of the line of tokener, up to its '\n' (or the end of the text)
+    //  throws JSONException if the rest of the line is not whitespace
+    private static void skipToLineEnd(JSONTokener tokener) {
+        for (char c = tokener.next(); c != '\n' && c != 0; c = tokener.next()) {
+            if (c != ' ' && c != '\t' && c != '\r') {
+                throw tokener.syntaxError("A JSON object must be alone on its line");
+            }
+        }
+    }
+
+    // Builds tasks from their JSON objects, in order, skipping the ones that cannot be parsed; a task whose id is
+    // already taken by an earlier task is given a new id
+    private static final class Builder {
+        private final Set<Long> ids = new HashSet<>();
+        private final List<Task> tasks = new ArrayList<>();
+
+        // MODIFIES: this
+        // EFFECTS: builds the task of taskJ, adds it to its tags and to tasks, unless it cannot be parsed
+        void add(JSONObject taskJ) {
+            if (PARSER.checkId(taskJ) && taskJ.has("id") && !ids.add(taskJ.getLong("id"))) {
+                taskJ.remove("id");
+            }
+            Task task = PARSER.parseTask(taskJ);
+            if (task != null) {
+                tasks.add(task);
+            }
+        }
+    }
+}
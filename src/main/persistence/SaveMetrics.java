@@ -0,0 +1,73 @@
+package persistence;
+
+// Metrics of the snapshots saved by a journal: how long encoding each snapshot (on the thread editing the
+// tasks) and writing it (in the background) took, how large it was, and how many saves were skipped because
+// nothing had changed. Safe to read from any thread.
+public class SaveMetrics {
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private long saves;
+    private long skipped;
+    private long lastEncodeNanos;
+    private long lastWriteNanos;
+    private long maxLatencyNanos;
+    private long lastSnapshotBytes;
+
+    // MODIFIES: this
+    // EFFECTS: records a snapshot of the given size, saved in encodeNanos + writeNanos
+    synchronized void recordSave(long encodeNanos, long writeNanos, long bytes) {
+        saves++;
+        lastEncodeNanos = encodeNanos;
+        lastWriteNanos = writeNanos;
+        maxLatencyNanos = Math.max(maxLatencyNanos, encodeNanos + writeNanos);
+        lastSnapshotBytes = bytes;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: records a save that was skipped, as nothing had changed
+    synchronized void recordSkip() {
+        skipped++;
+    }
+
+    // EFFECTS: returns the number of snapshots saved
+    public synchronized long getSaves() {
+        return saves;
+    }
+
+    // EFFECTS: returns the number of saves skipped, as nothing had changed
+    public synchronized long getSkipped() {
+        return skipped;
+    }
+
+    // EFFECTS: returns the time spent encoding the last snapshot, in milliseconds
+    public synchronized double getLastEncodeMillis() {
+        return lastEncodeNanos / NANOS_PER_MILLI;
+    }
+
+    // EFFECTS: returns the time spent writing the last snapshot, in milliseconds
+    public synchronized double getLastWriteMillis() {
+        return lastWriteNanos / NANOS_PER_MILLI;
+    }
+
+    // EFFECTS: returns the time spent saving the last snapshot (encoding and writing it), in milliseconds
+    public synchronized double getLastLatencyMillis() {
+        return (lastEncodeNanos + lastWriteNanos) / NANOS_PER_MILLI;
+    }
+
+    // EFFECTS: returns the longest time spent saving a snapshot, in milliseconds
+    public synchronized double getMaxLatencyMillis() {
+        return maxLatencyNanos / NANOS_PER_MILLI;
+    }
+
+    // EFFECTS: returns the size of the last snapshot saved, in bytes
+    public synchronized long getLastSnapshotBytes() {
+        return lastSnapshotBytes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d saves (%d skipped), last: %d bytes in %.1f ms (%.1f ms encoding), max: %.1f ms",
+                saves, skipped, lastSnapshotBytes, getLastLatencyMillis(), getLastEncodeMillis(),
+                getMaxLatencyMillis());
+    }
+}
@@ -0,0 +1,135 @@
+package persistence;
+
+import model.DueDate;
+import model.Status;
+import model.Tag;
+import model.Task;
+
+import java.util.*;
+
+// The fields of a task that snapshots save, as they were when the task was saved or read: its id, description, status,
+// priority level, due date (to the minute) and the names of its tags; ETC and progress are not saved. Kept for each
+// task of the snapshot last written or read (see SnapshotFile.getBase), so that the fields another program changed
+// in the snapshot since can be told from the ones changed here (see TaskDiff). Being immutable, they can also be
+// encoded into a snapshot on another thread than the one changing the tasks (see TaskCodec.encodeSaved).
+public final class SavedFields {
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    private final long id;
+    private final String description;
+    private final Status status;
+    private final int priorityLevel;
+    private final long dueMinute;
+    private final Set<String> tagNames;
+
+    // EFFECTS: constructs the saved fields of task, as they are now
+    public SavedFields(Task task) {
+        this(task.getId(), task.getDescription(), task.getStatus(), task.getPriority().getLevel(),
+                minute(task.getDueDate()), tagNames(task));
+    }
+
+    // EFFECTS: constructs saved fields with the given values; the tag names are kept in the order of tagNames
+    SavedFields(long id, String description, Status status, int priorityLevel, long dueMinute, Set<String> tagNames) {
+        this.id = id;
+        this.description = description;
+        this.status = status;
+        this.priorityLevel = priorityLevel;
+        this.dueMinute = dueMinute;
+        this.tagNames = Collections.unmodifiableSet(tagNames);
+    }
+
+    // EFFECTS: returns the saved fields of each of tasks, by id
+    public static Map<Long, SavedFields> of(List<Task> tasks) {
+        return byId(copy(tasks));
+    }
+
+    // EFFECTS: returns the saved fields of each of tasks, in the order of tasks
+    public static List<SavedFields> copy(List<Task> tasks) {
+        List<SavedFields> fields = new ArrayList<>(tasks.size());
+        for (Task t : tasks) {
+            fields.add(new SavedFields(t));
+        }
+        return fields;
+    }
+
+    // EFFECTS: returns each of fields by the id of its task
+    public static Map<Long, SavedFields> byId(List<SavedFields> fields) {
+        Map<Long, SavedFields> byId = new HashMap<>();
+        for (SavedFields f : fields) {
+            byId.put(f.id, f);
+        }
+        return byId;
+    }
+
+    // EFFECTS: returns the id of the task
+    public long getId() {
+        return id;
+    }
+
+    // EFFECTS: returns the description
+    public String getDescription() {
+        return description;
+    }
+
+    // EFFECTS: returns the status
+    public Status getStatus() {
+        return status;
+    }
+
+    // EFFECTS: returns the level of the priority
+    public int getPriorityLevel() {
+        return priorityLevel;
+    }
+
+    // EFFECTS: returns true if the priority is important (levels 1 and 2, see Priority)
+    public boolean isImportant() {
+        return priorityLevel <= 2;
+    }
+
+    // EFFECTS: returns true if the priority is urgent (levels 1 and 3, see Priority)
+    public boolean isUrgent() {
+        return priorityLevel % 2 == 1;
+    }
+
+    // EFFECTS: returns the minute (since the epoch) of the due date, or Long.MIN_VALUE if there is none
+    public long getDueMinute() {
+        return dueMinute;
+    }
+
+    // EFFECTS: returns the unmodifiable set of the names of the tags, in the order the task lists its tags
+    public Set<String> getTagNames() {
+        return tagNames;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SavedFields)) {
+            return false;
+        }
+        SavedFields other = (SavedFields) o;
+        return id == other.id && priorityLevel == other.priorityLevel && dueMinute == other.dueMinute
+                && description.equals(other.description) && status == other.status && tagNames.equals(other.tagNames);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, description, status, priorityLevel, dueMinute, tagNames);
+    }
+
+    // EFFECTS: returns the minute (since the epoch) of dueDate, or Long.MIN_VALUE if dueDate is null
+    static long minute(DueDate dueDate) {
+        return dueDate == null ? Long.MIN_VALUE : Math.floorDiv(dueDate.getDate().getTime(), MILLIS_PER_MINUTE);
+    }
+
+    // EFFECTS: returns the names of the tags of task, in the order task lists its tags
+    private static Set<String> tagNames(Task task) {
+        Set<String> names = new LinkedHashSet<>();
+        for (Tag t : task.getTags()) {
+            names.add(t.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,293 @@
+package persistence;
+
+import model.Task;
+import persistence.exceptions.SnapshotConflictException;
+import persistence.exceptions.TaskFormatException;
+import utility.Logger;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Checksum;
+
+// A file holding all the tasks (a snapshot), along with a bounded number of its previous versions (<file>.1
+// being the newest of them). A snapshot is written in the format of its codec to a temporary file in the
+// same directory, forced to disk, then moved over the file in one step, so a crash while writing leaves
+// the previous snapshot whole. Each version is read in the format its first bytes show (see TaskCodecs), so
+// snapshots written in another format are still read. Reading falls back to the newest valid previous
+// version when the file is missing or cannot be decoded. The checksum of the content last written or read is
+// kept, so that changes made to the file by other programs can be told from the ones made here (see
+// readIfChanged), along with the saved fields of its tasks (the base), so that the tasks and fields they changed
+// can be told from the ones changed here (see TaskDiff). A write does not replace a file that another program
+// changed since it was last written or read here: the change is to be read and merged first. The methods are
+// synchronized on the snapshot.
+public class SnapshotFile {
+    public static final int DEFAULT_BACKUPS = 3;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final File file;
+    private final int backups;
+    private final TaskCodec codec;
+    private long checksum = -1;  // CRC32 of the content of the file as last written or read here, -1 if unknown
+    private Map<Long, SavedFields> base = Collections.emptyMap();  // of the tasks of that content, by id
+
+    // REQUIRES: backups >= 0
+    // EFFECTS: constructs the snapshot saved in file as JSON, keeping up to backups previous versions of it
+    public SnapshotFile(File file, int backups) {
+        this(file, backups, TaskCodecs.JSON);
+    }
+
+    // REQUIRES: backups >= 0
+    // EFFECTS: constructs the snapshot saved in file in the format of codec, keeping up to backups previous
+    //          versions of it
+    public SnapshotFile(File file, int backups, TaskCodec codec) {
+        this.file = file;
+        this.backups = backups;
+        this.codec = codec;
+    }
+
+    // EFFECTS: returns the file holding the snapshot
+    public File getFile() {
+        return file;
+    }
+
+    // REQUIRES: 0 <= i <= number of previous versions kept
+    // EFFECTS: returns the file holding the snapshot (if i is 0), or its i-th newest previous version
+    public File getVersion(int i) {
+        return i == 0 ? file : new File(file.getPath() + "." + i);
+    }
+
+    // EFFECTS: returns the saved fields of the tasks of the file as last written or read here, by id (none if
+    //          its content is unknown); to be read along with readIfChanged, while holding the lock of this snapshot,
+    //          for the base of the tasks read (see TaskDiff.between)
+    public synchronized Map<Long, SavedFields> getBase() {
+        return Collections.unmodifiableMap(base);
+    }
+
+    // EFFECTS: returns the tasks of the newest valid version of the snapshot, or an empty list if there is none;
+    //          the tasks read from an invalid version are removed from their tags
+    //  throws TaskFormatException if there are versions of the snapshot, but none of them is valid
+    //  throws IOException if a version cannot be read
+    public synchronized List<Task> read() throws IOException {
+        TaskFormatException invalid = null;
+        for (int i = 0; i <= backups; i++) {
+            File version = getVersion(i);
+            if (version.exists()) {
+                try {
+                    return readVersion(i);
+                } catch (TaskFormatException e) {
+                    Logger.log("SnapshotFile", "Skipping invalid snapshot " + version + ": " + e.getMessage());
+                    invalid = e;
+                }
+            }
+        }
+        if (invalid != null) {
+            throw invalid;
+        }
+        return new ArrayList<>();
+    }
+
+    // EFFECTS: returns the tasks of the file (not of its previous versions) if its content changed since it was
+    //          last written or read here (i.e. it was changed by another program), or null if it did not, or if
+    //          the file is missing. The content is compared before it is decoded, so an unchanged file costs a read.
+    //  throws TaskFormatException if the file is not a valid snapshot (e.g. it is still being written); the tasks
+    //  read so far are removed from their tags, and the file is still taken as changed by the next call
+    //  throws IOException if the file cannot be read
+    public synchronized List<Task> readIfChanged() throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        byte[] content = Files.readAllBytes(file.toPath());
+        CRC32 crc = new CRC32();
+        crc.update(content, 0, content.length);
+        if (crc.getValue() == checksum) {
+            return null;
+        }
+        List<Task> tasks = decode(new ByteArrayInputStream(content), content.length);
+        checksum = crc.getValue();
+        base = SavedFields.of(tasks);
+        return tasks;
+    }
+
+    // EFFECTS: saves tasks as the new snapshot, keeping the current one as the newest previous version
+    //  throws SnapshotConflictException if another program changed the file since it was last written or read here
+    //  (see readIfChanged); the file is then left as it is
+    //  throws IOException if the snapshot cannot be written; the current one is then left as it is
+    public void write(List<Task> tasks) throws IOException {
+        write(out -> codec.encode(tasks, out), SavedFields.of(tasks));
+    }
+
+    // EFFECTS: same as write(List<Task>), but the tasks are already encoded (see encode), and their saved fields
+    //          taken (see SavedFields.of) as they were encoded
+    public void write(byte[] encoded, Map<Long, SavedFields> fields) throws IOException {
+        write(out -> out.write(encoded), fields);
+    }
+
+    // EFFECTS: returns the tasks whose saved fields are tasks (see SavedFields.copy) encoded in the format of this
+    //          snapshot
+    public byte[] encode(List<SavedFields> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            codec.encodeSaved(tasks, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);  // cannot happen: writing to memory does not fail
+        }
+        return out.toByteArray();
+    }
+
+    // A snapshot to be written
+    private interface Content {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    // EFFECTS: writes content to a temporary file, forces it to disk, keeps the current snapshot as a previous
+    //          version, then moves the temporary file over the snapshot, unless another program changed it since it
+    //          was last written or read here; fields are the saved fields of the tasks of content
+    //  throws SnapshotConflictException if another program changed the file
+    private synchronized void write(Content content, Map<Long, SavedFields> fields) throws IOException {
+        Path temp = Paths.get(file.getPath() + ".tmp");
+        long written = writeTemp(temp, content);
+        if (changedOnDisk()) {
+            Files.deleteIfExists(temp);
+            throw new SnapshotConflictException(file + " was changed by another program since it was last read");
+        }
+        keepPreviousVersion();
+        replace(temp);
+        checksum = written;
+        base = fields;
+    }
+
+    // EFFECTS: writes content to temp, forces it to disk, and returns the checksum of content; temp is deleted if
+    //          content cannot be written
+    private static long writeTemp(Path temp, Content content) throws IOException {
+        CRC32 crc = new CRC32();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = new BufferedOutputStream(new CheckedOutputStream(Channels.newOutputStream(channel),
+                    crc), BUFFER_SIZE);
+            content.writeTo(out);
+            out.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return crc.getValue();
+    }
+
+    // EFFECTS: returns true if the content of the file is known (it was last written or read here) and its checksum
+    //          no longer matches it; a missing file is not taken as changed
+    private boolean changedOnDisk() throws IOException {
+        if (checksum == -1 || !file.exists()) {
+            return false;
+        }
+        CRC32 crc = new CRC32();
+        try (InputStream in = new CheckedInputStream(new FileInputStream(file), crc)) {
+            skipRest(in);
+        }
+        return crc.getValue() != checksum;
+    }
+
+    // EFFECTS: shifts the previous versions, dropping the oldest one, and makes the snapshot the newest one;
+    //          the snapshot stays in place (the newest previous version is a link to it, or a copy)
+    private void keepPreviousVersion() throws IOException {
+        if (backups == 0 || !file.exists()) {
+            return;
+        }
+        Files.deleteIfExists(getVersion(backups).toPath());
+        for (int i = backups - 1; i > 0; i--) {
+            if (getVersion(i).exists()) {
+                Files.move(getVersion(i).toPath(), getVersion(i + 1).toPath());
+            }
+        }
+        try {
+            Files.createLink(getVersion(1).toPath(), file.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(file.toPath(), getVersion(1).toPath());
+        }
+    }
+
+    // EFFECTS: moves temp over the snapshot, atomically if the file system allows it, and forces the move to disk
+    private void replace(Path temp) throws IOException {
+        try {
+            Files.move(temp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel directory = FileChannel.open(file.getAbsoluteFile().getParentFile().toPath())) {
+            directory.force(true);
+        } catch (IOException expected) {
+            // directories cannot be opened (and need not be forced) on some platforms, e.g. Windows
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the tasks of the i-th version (see getVersion), and keeps the checksum of its content and the
+    //          saved fields of its tasks if it is the file itself
+    private List<Task> readVersion(int i) throws IOException {
+        CRC32 crc = new CRC32();
+        List<Task> tasks = read(getVersion(i), crc);
+        checksum = i == 0 ? crc.getValue() : -1;
+        base = i == 0 ? SavedFields.of(tasks) : Collections.emptyMap();
+        return tasks;
+    }
+
+    // MODIFIES: checksum
+    // EFFECTS: returns the tasks in version, decoded by the codec its first bytes show; all of its content is added
+    //          to checksum
+    //  throws TaskFormatException if version is not a valid snapshot; the tasks read so far are removed from
+    //  their tags
+    private static List<Task> read(File version, Checksum checksum) throws IOException {
+        try (InputStream in = new BufferedInputStream(new CheckedInputStream(new FileInputStream(version), checksum),
+                BUFFER_SIZE)) {
+            List<Task> tasks = decode(in, version.length());
+            skipRest(in);
+            return tasks;
+        }
+    }
+
+    // EFFECTS: reads in to its end, discarding what is read (e.g. so that all of it is added to a checksum)
+    private static void skipRest(InputStream in) throws IOException {
+        byte[] rest = new byte[BUFFER_SIZE];
+        int read;
+        do {
+            read = in.read(rest);
+        } while (read >= 0);
+    }
+
+    // REQUIRES: in supports mark
+    // EFFECTS: returns the tasks in in (size bytes long), decoded by the codec its first bytes show
+    //  throws TaskFormatException if in is not a valid snapshot; the tasks read so far are removed from their tags
+    private static List<Task> decode(InputStream in, long size) throws IOException {
+        byte[] header = new byte[TaskCodec.HEADER_LENGTH];
+        in.mark(header.length);
+        int length = readHeader(in, header);
+        in.reset();
+        TaskCodec codec = TaskCodecs.detect(header, length);
+        if (codec == null) {
+            throw new TaskFormatException("Unknown format");
+        }
+        return codec.decode(in, size);
+    }
+
+    // MODIFIES: header
+    // EFFECTS: reads the first bytes of in into header, and returns how many there are (fewer than the length
+    //          of header if in is shorter)
+    private static int readHeader(InputStream in, byte[] header) throws IOException {
+        int length = 0;
+        int read = in.read(header);
+        while (read >= 0 && length + read < header.length) {
+            length += read;
+            read = in.read(header, length, header.length - length);
+        }
+        return read < 0 ? length : length + read;
+    }
+}
@@ -0,0 +1,124 @@
+package persistence;
+
+import model.Task;
+import utility.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+// Watches the file of a snapshot for changes made by other programs (e.g. scripts editing it while the application
+// runs), with a WatchService on its directory, watched on a daemon thread. Once the events about the file stop
+// coming for QUIET_MILLIS (a program writing the file may cause several), the file is read on the thread that edits
+// the tasks, reached through an executor (e.g. Platform::runLater for the JavaFX application thread), and the tasks
+// read are given to a listener, along with the base they were changed from (see SnapshotFile.getBase), to be merged
+// into the tasks held (see TaskDiff). The writes of the snapshot itself
+// are told apart by their content (see SnapshotFile.readIfChanged), so they are not read back. A file that cannot
+// be decoded (e.g. one still being written) is skipped until its next change.
+public class SnapshotWatcher {
+    public static final long QUIET_MILLIS = 200;
+
+    private final SnapshotFile snapshot;
+    private final Executor editingThread;
+    private final BiConsumer<List<Task>, Map<Long, SavedFields>> listener;
+    private final AtomicBoolean pending = new AtomicBoolean();  // true while a read is waiting for editingThread
+    private WatchService service;
+    private Thread thread;
+
+    // EFFECTS: constructs a watcher of the file of snapshot, which gives listener the tasks read from it, and the
+    //          base they were changed from, by way of editingThread whenever another program changes it
+    public SnapshotWatcher(SnapshotFile snapshot, Executor editingThread,
+            BiConsumer<List<Task>, Map<Long, SavedFields>> listener) {
+        this.snapshot = snapshot;
+        this.editingThread = editingThread;
+        this.listener = listener;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: starts watching the file; does nothing if it is already watched
+    //  throws IOException if the directory of the file cannot be watched
+    public synchronized void start() throws IOException {
+        if (service != null) {
+            return;
+        }
+        File directory = snapshot.getFile().getAbsoluteFile().getParentFile();
+        service = FileSystems.getDefault().newWatchService();
+        directory.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        WatchService watched = service;
+        thread = new Thread(() -> watch(watched), "snapshot-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: stops watching the file; a read already handed to the editing thread still happens
+    public synchronized void stop() {
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        thread.interrupt();
+        service = null;
+    }
+
+    // EFFECTS: reads the file and gives the tasks read, and the base they were changed from, to the listener, if
+    //          another program changed it since it was last written or read; to be called on the editing thread
+    public void check() {
+        pending.set(false);
+        try {
+            Map<Long, SavedFields> base;
+            List<Task> tasks;
+            synchronized (snapshot) {
+                base = snapshot.getBase();
+                tasks = snapshot.readIfChanged();
+            }
+            if (tasks != null) {
+                listener.accept(tasks, base);
+            }
+        } catch (IOException e) {
+            Logger.log("SnapshotWatcher", "Cannot read " + snapshot.getFile() + ": " + e.getMessage());
+        }
+    }
+
+    // EFFECTS: waits for the events about the file from watched and, once they stop coming for QUIET_MILLIS, has
+    //          the file checked on the editing thread (unless a check is already waiting for it), until stopped
+    private void watch(WatchService watched) {
+        try {
+            while (true) {
+                boolean changed = concernsFile(watched.take());
+                for (WatchKey key = watched.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS); key != null;
+                        key = watched.poll(QUIET_MILLIS, TimeUnit.MILLISECONDS)) {
+                    changed |= concernsFile(key);
+                }
+                if (changed && pending.compareAndSet(false, true)) {
+                    editingThread.execute(this::check);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException expected) {
+            // stopped
+        }
+    }
+
+    // EFFECTS: returns true if one of the events of key is about the file (or if some events were lost), and
+    //          resets key to receive the next ones
+    private boolean concernsFile(WatchKey key) {
+        Path name = snapshot.getFile().toPath().getFileName();
+        boolean concerns = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            concerns |= event.kind() == StandardWatchEventKinds.OVERFLOW || name.equals(event.context());
+        }
+        key.reset();
+        return concerns;
+    }
+}
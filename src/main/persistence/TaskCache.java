@@ -0,0 +1,244 @@
+package persistence;
+
+import model.Generation;
+import model.TagRegistry;
+import model.Task;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+// A bounded cache of the tasks of a MappedTaskStore, for views showing a few tasks out of many, so that the time
+// to show the first of them and the memory used do not grow with the number of tasks. A view lists the tasks
+// from their ids and headers (id, description, status and priority), read from the store without building the
+// tasks. A task is only built (hydrated), with its tags, due date, ETC and progress, when it is first asked for,
+// and is then kept in the cache. Once the cache holds more than its capacity, the task used least recently is
+// evicted: it is written back to the store, so that the edits made to it are kept, and removed from its tags.
+// A task got with get may be evicted by any later call, so it must not be kept; a task that is held for longer
+// (e.g. while a view edits it) is checked out instead, and is not evicted until it is checked in again. A task
+// whose writing back fails is kept (the cache then holds more tasks than its capacity until it is written).
+// Not synchronized.
+public class TaskCache {
+    public static final int DEFAULT_CAPACITY = 1000;
+
+    private final MappedTaskStore store;
+    private final int capacity;
+    private final Map<Long, Task> tasks = new LinkedHashMap<>(16, 0.75f, true);  // by id, least recently used first
+    private final Map<Long, Integer> checkOuts = new HashMap<>();  // by id, the number of times a task is checked out
+    private int hits;
+    private int misses;
+
+    // REQUIRES: capacity > 0
+    // EFFECTS: constructs an empty cache of at most capacity tasks of store (not counting the checked out ones)
+    public TaskCache(MappedTaskStore store, int capacity) {
+        this.store = store;
+        this.capacity = capacity;
+    }
+
+    // EFFECTS: returns the ids of the tasks in the store, in the order of the store
+    public long[] getIds() {
+        return store.scan(r -> true);
+    }
+
+    // EFFECTS: returns the ids of the tasks in the store from the from-th (counting from 0) on, in the order of the
+    //          store, and at most count of them (e.g. the rows of one page of a view); the ids before them are
+    //          skipped without being read
+    public long[] getIds(int from, int count) {
+        return store.scan(from, count);
+    }
+
+    // EFFECTS: returns the number of tasks in the store
+    public int getCount() {
+        return store.size();
+    }
+
+    // EFFECTS: returns the header of the task with the given id, or null if there is none; it is taken from the
+    //          task if it is in the cache (which counts as a use of the task), and read from the store otherwise
+    public TaskHeader getHeader(long id) {
+        Task task = tasks.get(id);
+        if (task == null) {
+            return store.getHeader(id);
+        }
+        return new TaskHeader(id, task.getDescription(), task.getStatus(), task.getPriority().isImportant(),
+                task.getPriority().isUrgent());
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the task with the given id, from the cache, or hydrated from the store (and cached) if it
+    //          is not in the cache; returns null if there is none. Unless it is checked out, the task may be evicted
+    //          by any later call, after which it must not be used (get it again instead).
+    public Task get(long id) {
+        Task task = tasks.get(id);
+        if (task != null) {
+            hits++;
+            return task;
+        }
+        task = store.get(id);
+        misses++;
+        if (task != null) {
+            tasks.put(id, task);
+            trim();
+        }
+        return task;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: same as get, but the task is not evicted until it is checked in (as many times as it was checked
+    //          out), so it can be held and edited meanwhile
+    public Task checkOut(long id) {
+        Task task = get(id);
+        if (task != null) {
+            checkOuts.merge(id, 1, Integer::sum);
+        }
+        return task;
+    }
+
+    // REQUIRES: task was checked out, and not checked in since
+    // MODIFIES: this
+    // EFFECTS: checks task in, and writes it back to the store, so that the edits made to it are kept, unless it
+    //          was removed (or replaced) meanwhile; it may be evicted from then on
+    //  throws IOException if task cannot be written; it is checked in all the same, and written when evicted
+    public void checkIn(Task task) throws IOException {
+        checkOuts.computeIfPresent(task.getId(), (id, count) -> count == 1 ? null : count - 1);
+        if (tasks.get(task.getId()) == task) {
+            try {
+                store.put(task);
+            } finally {
+                trim();
+            }
+        }
+    }
+
+    // EFFECTS: returns true if the task with the given id is checked out
+    public boolean isCheckedOut(long id) {
+        return checkOuts.containsKey(id);
+    }
+
+    // REQUIRES: the task with the id of task, if it is checked out, is task itself
+    // MODIFIES: this
+    // EFFECTS: adds task to the store (replacing the task with the same id, if any) and to the cache
+    //  throws IOException if task cannot be written to the store
+    public void put(Task task) throws IOException {
+        store.put(task);
+        Task replaced = tasks.put(task.getId(), task);
+        if (replaced != null && replaced != task) {
+            detach(replaced);
+        }
+        trim();
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the task with the given id from the cache (and from its tags, even if it is checked out)
+    //          and from the store, and returns true, or returns false if the store does not hold it
+    public boolean remove(long id) {
+        Task task = tasks.remove(id);
+        checkOuts.remove(id);
+        if (task != null) {
+            TagRegistry.removeTask(task);
+        }
+        return store.remove(id);
+    }
+
+    // EFFECTS: returns a reading of every task of the store, in the order of the store, one at a time (e.g. to export
+    //          them), that does not fill the cache: see Reading. The cache must not be changed until it is closed.
+    public Reading read() {
+        return new Reading(getIds());
+    }
+
+    // EFFECTS: writes every task in the cache back to the store
+    //  throws IOException if a task cannot be written
+    public void flush() throws IOException {
+        store.putAll(tasks.values());
+    }
+
+    // EFFECTS: returns the number of tasks in the cache
+    public int size() {
+        return tasks.size();
+    }
+
+    // EFFECTS: returns the number of calls to get that found their task in the cache
+    public int getHits() {
+        return hits;
+    }
+
+    // EFFECTS: returns the number of calls to get that did not find their task in the cache
+    public int getMisses() {
+        return misses;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: evicts the tasks used least recently that are not checked out, until the cache holds no more than
+    //          its capacity; stops at the first task that cannot be written back (printing the error), which is kept
+    private void trim() {
+        Iterator<Task> eldest = tasks.values().iterator();
+        while (tasks.size() > capacity && eldest.hasNext()) {
+            Task task = eldest.next();
+            if (!checkOuts.containsKey(task.getId())) {
+                try {
+                    store.put(task);
+                } catch (IOException e) {
+                    e.printStackTrace();
+                    return;
+                }
+                eldest.remove();
+                detach(task);
+            }
+        }
+    }
+
+    // Yields the tasks of the store once, in the order of the store: a task in the cache is yielded as it is, and any
+    // other is built from the store, and removed from its tags once the next task is taken or the reading is closed,
+    // so that no more than one task is built at a time, however many the store holds
+    public final class Reading implements Iterator<Task>, Closeable {
+        private final long[] ids;
+        private int next;
+        private Task built;  // the last task yielded, if it was built from the store
+
+        // EFFECTS: constructs a reading of the tasks with the given ids
+        private Reading(long[] ids) {
+            this.ids = ids;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < ids.length;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes the task yielded before from its tags if it was built, and returns the next task
+        @Override
+        public Task next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            close();
+            Task task = tasks.get(ids[next]);
+            if (task == null) {
+                task = store.get(ids[next]);
+                built = task;
+            }
+            next++;
+            return task;
+        }
+
+        // MODIFIES: this
+        // EFFECTS: removes the task yielded last from its tags, if it was built from the store
+        @Override
+        public void close() {
+            if (built != null) {
+                detach(built);
+                built = null;
+            }
+        }
+    }
+
+    // EFFECTS: removes task, which no longer is in the cache, from its tags (without advancing the Generation:
+    //          the store still holds it)
+    private static void detach(Task task) {
+        Generation.quietly(() -> TagRegistry.removeTask(task));
+    }
+}
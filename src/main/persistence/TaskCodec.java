@@ -0,0 +1,39 @@
+package persistence;
+
+import model.Task;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.List;
+
+// A format in which lists of tasks are saved (e.g. snapshots). Formats are told apart by the first bytes
+// they write (see TaskCodecs.detect), so that a saved list can be read without knowing its format.
+public interface TaskCodec {
+    // number of bytes needed to tell formats apart
+    int HEADER_LENGTH = 8;
+
+    // EFFECTS: returns the name of this format
+    String getName();
+
+    // REQUIRES: header holds (at least) the first min(length, HEADER_LENGTH) bytes of the saved list
+    // EFFECTS: returns true if a list of tasks starting with those bytes is in this format
+    boolean accepts(byte[] header, int length);
+
+    // EFFECTS: writes tasks to out in this format; out is neither flushed nor closed
+    //  throws IOException if out cannot be written
+    void encode(List<Task> tasks, OutputStream out) throws IOException;
+
+    // EFFECTS: writes the tasks whose saved fields are tasks (see SavedFields.copy) to out, as encode writes them;
+    //          out is neither flushed nor closed
+    //  throws IOException if out cannot be written
+    void encodeSaved(List<SavedFields> tasks, OutputStream out) throws IOException;
+
+    // EFFECTS: reads the tasks written to in (size bytes long, or -1 if unknown) in this format, adds them to
+    //          their tags, and returns them in order; a task whose id is already taken by an earlier task is
+    //          given a new id. in is not closed.
+    //  throws TaskFormatException if in is not in this format, or is corrupt; the tasks read so far are then
+    //         removed from their tags
+    //  throws IOException if in cannot be read
+    List<Task> decode(InputStream in, long size) throws IOException;
+}
@@ -0,0 +1,42 @@
+package persistence;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// The formats in which tasks are saved
+public final class TaskCodecs {
+    public static final TaskCodec JSON = new JsonTaskCodec();
+    public static final TaskCodec BINARY = new BinaryTaskCodec();
+    public static final NdjsonTaskCodec NDJSON = new NdjsonTaskCodec();
+    private static final List<TaskCodec> ALL = Collections.unmodifiableList(Arrays.asList(BINARY, JSON, NDJSON));
+
+    private TaskCodecs() {
+    }
+
+    // EFFECTS: returns all the formats in which tasks are saved
+    public static List<TaskCodec> all() {
+        return ALL;
+    }
+
+    // EFFECTS: returns the format with the given name (see TaskCodec.getName), or null if there is none
+    public static TaskCodec forName(String name) {
+        for (TaskCodec codec : ALL) {
+            if (codec.getName().equals(name)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+
+    // REQUIRES: header holds (at least) the first min(length, TaskCodec.HEADER_LENGTH) bytes of a saved list
+    // EFFECTS: returns the format of the saved list starting with those bytes, or null if it is unknown
+    public static TaskCodec detect(byte[] header, int length) {
+        for (TaskCodec codec : ALL) {
+            if (codec.accepts(header, length)) {
+                return codec;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,214 @@
+package persistence;
+
+import model.Generation;
+import model.Priority;
+import model.Tag;
+import model.TagRegistry;
+import model.Task;
+import model.TaskIndex;
+
+import java.util.*;
+
+// The differences between the tasks held in memory and the tasks read from a snapshot that was changed by another
+// program, matched by id, found by a three-way merge against the base: the saved fields of the tasks of the snapshot
+// as it was last written or read here (see SnapshotFile.getBase). Only what the other program changed since the base
+// is taken: the tasks read that are neither held nor in the base (added), the tasks held that are in the base but
+// were not read (removed), and the tasks held some of whose saved fields (description, status, priority, due date,
+// to the minute, and each of their tags) the other program changed to values they do not have (edited). So the tasks
+// added here since the base are kept, the tasks removed here are not added back, and the fields edited here are kept
+// unless the other program changed them too, in which case its values win. ETC and progress are not saved in
+// snapshots, so they are kept. Applying the differences edits the tasks held in place, rather than replacing them,
+// so that the views showing them and the projects holding them keep them.
+// Tags find their tasks by id, so a task read that has the id of a task held shares its entries in its tags; the
+// tasks read that are not added are removed from their tags as soon as the differences are found, and the tasks
+// held put back in theirs.
+public class TaskDiff {
+    private final List<Task> added = new ArrayList<>();
+    private final List<Task> removed = new ArrayList<>();
+    private final Map<Task, Edit> edited = new LinkedHashMap<>();  // by task held
+
+    // The saved fields a task held is to be given, taken from a task read (no longer in its tags) where the other
+    // program changed them
+    private static final class Edit {
+        private final Task read;
+        private final SavedFields merged;
+
+        Edit(Task read, SavedFields merged) {
+            this.read = read;
+            this.merged = merged;
+        }
+    }
+
+    // MODIFIES: the tasks in held and read
+    // EFFECTS: returns the differences between held, the tasks held in memory, and read, the tasks read from a
+    //          snapshot, against base, the saved fields of the tasks of the snapshot as last written or read, by id;
+    //          the tasks read that are not added are removed from their tags (the tasks held stand for the ones
+    //          having their ids)
+    public static TaskDiff between(List<Task> held, List<Task> read, Map<Long, SavedFields> base) {
+        TaskDiff diff = new TaskDiff();
+        Map<Long, Task> byId = new LinkedHashMap<>();
+        for (Task t : read) {
+            byId.put(t.getId(), t);
+        }
+        for (Task t : held) {
+            Task other = byId.remove(t.getId());
+            if (other != null) {
+                diff.compare(t, other, base.get(t.getId()));
+            } else if (base.containsKey(t.getId())) {
+                diff.removed.add(t);
+            }
+        }
+        diff.addUnheld(byId.values(), base);
+        return diff;
+    }
+
+    // MODIFIES: this, the tasks in unheld
+    // EFFECTS: adds the tasks of unheld, tasks read that are not held, to the added tasks if they are not in base;
+    //          the others, which were removed here since base, are removed from their tags
+    private void addUnheld(Collection<Task> unheld, Map<Long, SavedFields> base) {
+        for (Task t : unheld) {
+            if (base.containsKey(t.getId())) {
+                detach(t, null);
+            } else {
+                added.add(t);
+            }
+        }
+    }
+
+    // EFFECTS: returns the tasks read that are neither held nor in the base
+    public List<Task> getAdded() {
+        return Collections.unmodifiableList(added);
+    }
+
+    // EFFECTS: returns the tasks held that are in the base but were not read
+    public List<Task> getRemoved() {
+        return Collections.unmodifiableList(removed);
+    }
+
+    // EFFECTS: returns the tasks held some of whose saved fields the other program changed to other values
+    public Set<Task> getEdited() {
+        return Collections.unmodifiableSet(edited.keySet());
+    }
+
+    // EFFECTS: returns true if the other program changed nothing that the tasks held do not already have
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && edited.isEmpty();
+    }
+
+    // REQUIRES: tasks are the tasks held, as given to between, indexed by index; not called before
+    // MODIFIES: tasks, index, journal
+    // EFFECTS: removes the removed tasks from tasks, index and their tags, gives the edited tasks the fields the
+    //          other program changed, and adds the added tasks to tasks and index; each change is recorded in journal
+    public void apply(List<Task> tasks, TaskIndex index, TaskJournal journal) {
+        applyRemovals(tasks, index, journal);
+        for (Map.Entry<Task, Edit> e : edited.entrySet()) {
+            copySavedFields(e.getValue(), e.getKey());
+            journal.recordEdit(e.getKey());
+        }
+        for (Task t : added) {
+            tasks.add(t);
+            index.add(t);
+            Generation.advance();
+            journal.recordAdd(t);
+        }
+    }
+
+    // MODIFIES: tasks, index, journal
+    // EFFECTS: removes the removed tasks from tasks, index and their tags, recording each removal in journal
+    private void applyRemovals(List<Task> tasks, TaskIndex index, TaskJournal journal) {
+        Set<Task> gone = Collections.newSetFromMap(new IdentityHashMap<>());
+        gone.addAll(removed);
+        tasks.removeIf(gone::contains);
+        for (Task t : removed) {
+            index.remove(t);
+            Generation.advance();
+            TagRegistry.removeTask(t);
+            journal.recordDelete(t);
+        }
+    }
+
+    // REQUIRES: read has the id of held; base is the saved fields of the task in the base, or null if it was not there
+    // MODIFIES: this, read, held
+    // EFFECTS: detaches read (see detach), and adds held to the edited tasks if the other program changed some of its
+    //          saved fields since base (all of them, if base is null) to values held does not have
+    private void compare(Task held, Task read, SavedFields base) {
+        SavedFields heldFields = new SavedFields(held);
+        SavedFields readFields = new SavedFields(read);
+        detach(read, held);
+        SavedFields merged = base == null ? readFields : merge(heldFields, readFields, base);
+        if (!merged.equals(heldFields)) {
+            edited.put(held, new Edit(read, merged));
+        }
+    }
+
+    // MODIFIES: read, held
+    // EFFECTS: removes read from its tags, then puts held (if not null) back in its own, which read may have taken it
+    //          out of
+    private static void detach(Task read, Task held) {
+        Generation.quietly(() -> {
+            TagRegistry.removeTask(read);
+            if (held != null) {
+                for (Tag t : held.getTags()) {
+                    t.addTask(held);
+                }
+            }
+        });
+    }
+
+    // EFFECTS: returns the saved fields of held, but with the values of read for the ones read changed since base;
+    //          of the tags, the ones read added are added, and the ones read removed are removed
+    private static SavedFields merge(SavedFields held, SavedFields read, SavedFields base) {
+        Set<String> tagNames = new HashSet<>(held.getTagNames());
+        for (String name : base.getTagNames()) {
+            if (!read.getTagNames().contains(name)) {
+                tagNames.remove(name);
+            }
+        }
+        for (String name : read.getTagNames()) {
+            if (!base.getTagNames().contains(name)) {
+                tagNames.add(name);
+            }
+        }
+        return new SavedFields(held.getId(), pick(held.getDescription(), read.getDescription(), base.getDescription()),
+                pick(held.getStatus(), read.getStatus(), base.getStatus()),
+                pick(held.getPriorityLevel(), read.getPriorityLevel(), base.getPriorityLevel()),
+                pick(held.getDueMinute(), read.getDueMinute(), base.getDueMinute()), tagNames);
+    }
+
+    // EFFECTS: returns read if it differs from base (the other program changed it), and held otherwise
+    private static <T> T pick(T held, T read, T base) {
+        return read.equals(base) ? held : read;
+    }
+
+    // MODIFIES: to
+    // EFFECTS: gives to the merged saved fields of edit, changing only the ones that differ
+    private static void copySavedFields(Edit edit, Task to) {
+        SavedFields from = edit.merged;
+        if (!to.getDescription().equals(from.getDescription())) {
+            to.setDescription(from.getDescription());
+        }
+        if (to.getStatus() != from.getStatus()) {
+            to.setStatus(from.getStatus());
+        }
+        if (to.getPriority().getLevel() != from.getPriorityLevel()) {
+            to.setPriority(new Priority(from.getPriorityLevel()));
+        }
+        if (SavedFields.minute(to.getDueDate()) != from.getDueMinute()) {
+            to.setDueDate(edit.read.getDueDate());
+        }
+        copyTags(from.getTagNames(), to);
+    }
+
+    // MODIFIES: to
+    // EFFECTS: removes to from its tags not named in names, and adds it to the tags named in names
+    private static void copyTags(Set<String> names, Task to) {
+        for (Tag t : new ArrayList<>(to.getTags())) {
+            if (!names.contains(t.getName())) {
+                to.removeTag(t);
+            }
+        }
+        for (String name : names) {
+            to.addTag(name);
+        }
+    }
+}
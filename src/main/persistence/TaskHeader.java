@@ -0,0 +1,46 @@
+package persistence;
+
+import model.Priority;
+import model.Status;
+
+// The fields of a task needed to list it (its id, description, status and priority), read without building
+// the task; its tags, due date, ETC and progress are only read once the task itself is (see TaskCache)
+public final class TaskHeader {
+    private final long id;
+    private final String description;
+    private final Status status;
+    private final boolean important;
+    private final boolean urgent;
+
+    // EFFECTS: constructs the header of the task with the given fields
+    public TaskHeader(long id, String description, Status status, boolean important, boolean urgent) {
+        this.id = id;
+        this.description = description;
+        this.status = status;
+        this.important = important;
+        this.urgent = urgent;
+    }
+
+    // EFFECTS: returns the id of the task
+    public long getId() {
+        return id;
+    }
+
+    // EFFECTS: returns the description of the task
+    public String getDescription() {
+        return description;
+    }
+
+    // EFFECTS: returns the status of the task
+    public Status getStatus() {
+        return status;
+    }
+
+    // EFFECTS: returns a new priority equal to the priority of the task
+    public Priority getPriority() {
+        Priority priority = new Priority();
+        priority.setImportant(important);
+        priority.setUrgent(urgent);
+        return priority;
+    }
+}
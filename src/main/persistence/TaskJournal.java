@@ -0,0 +1,314 @@
+package persistence;
+
+import model.Generation;
+import model.TagRegistry;
+import model.Task;
+import org.json.JSONException;
+import org.json.JSONObject;
+import parsers.TaskParser;
+import persistence.exceptions.SnapshotConflictException;
+import utility.Logger;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+// A write-ahead journal of the changes made to a list of tasks since the list was last saved as a whole
+// (its snapshot). Each change appends one line to the journal, so saving it costs the same however many
+// tasks there are:
+//     A <task as JSON>    a task was added
+//     E <task as JSON>    a task was edited (the line holds its new state)
+//     D <id>              the task with the given id was deleted
+// Once the journal passes a size threshold, it is compacted: the saved fields of the tasks are copied on the
+// calling thread (see SavedFields), the journal is set aside (as <journal>.old) and started over, and the copies
+// are encoded and written as the new snapshot in the background, after which the old journal is deleted. On load,
+// both journals are replayed over the snapshot; as each record holds the whole state of its task, replaying records
+// the snapshot already holds is harmless.
+// Compaction can also be asked for whenever the tasks changed since they were last saved (see AutoSaver). A
+// snapshot that cannot be written (e.g. because another program changed the file, which is to be merged first;
+// see SnapshotFile) leaves the old journal in place, and the tasks are taken as unsaved, so the next compaction
+// tries again.
+public class TaskJournal {
+    public static final long DEFAULT_COMPACT_THRESHOLD = 1 << 20;  // bytes
+    private static final TaskParser PARSER = new TaskParser();
+
+    private final SnapshotFile snapshot;
+    private final File journal;
+    private final File oldJournal;
+    private final long compactThreshold;
+    private final Supplier<List<Task>> tasks;
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "journal-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final SaveMetrics metrics = new SaveMetrics();
+    private Writer writer;
+    private Future<?> pending;  // the writing of the last snapshot
+    private volatile long savedGeneration = -1;  // the Generation of the tasks last saved (or loaded)
+
+    // EFFECTS: constructs a journal of the changes made to tasks (the current list of tasks), saved in
+    //          snapshot, and compacted into it once it is compactThreshold bytes long
+    public TaskJournal(SnapshotFile snapshot, File journal, long compactThreshold, Supplier<List<Task>> tasks) {
+        this.snapshot = snapshot;
+        this.journal = journal;
+        this.oldJournal = new File(journal.getPath() + ".old");
+        this.compactThreshold = compactThreshold;
+        this.tasks = tasks;
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: applies the changes recorded in this journal (and in the old journal of a compaction that did
+    //          not finish) to tasks, the tasks loaded from the snapshot. Tasks that are replaced or deleted are
+    //          removed from their tags. Replay stops at the first incomplete or malformed record (e.g. one
+    //          being written during a crash), which is cut off the journal so that later records follow the
+    //          last complete one.
+    //  throws IOException if a journal cannot be read or cut
+    public void replay(List<Task> tasks) throws IOException {
+        Map<Long, Task> byId = new LinkedHashMap<>();
+        for (Task t : tasks) {
+            byId.put(t.getId(), t);
+        }
+        replay(oldJournal, byId);
+        long complete = replay(journal, byId);
+        if (journal.exists() && complete < journal.length()) {
+            try (RandomAccessFile file = new RandomAccessFile(journal, "rw")) {
+                file.setLength(complete);
+            }
+        }
+        tasks.clear();
+        tasks.addAll(byId.values());
+        savedGeneration = Generation.current();
+    }
+
+    // EFFECTS: returns true if anything changed since the tasks were last saved or loaded
+    public boolean hasUnsavedChanges() {
+        return Generation.current() != savedGeneration;
+    }
+
+    // EFFECTS: returns the metrics of the snapshots saved by this journal
+    public SaveMetrics getMetrics() {
+        return metrics;
+    }
+
+    // EFFECTS: records that task was added, and compacts this journal if it has grown past its threshold
+    public void recordAdd(Task task) {
+        append('A', task);
+    }
+
+    // EFFECTS: records the new state of task, which was edited, and compacts this journal if it has grown
+    //          past its threshold
+    public void recordEdit(Task task) {
+        append('E', task);
+    }
+
+    // EFFECTS: records that task was deleted, and compacts this journal if it has grown past its threshold
+    public void recordDelete(Task task) {
+        try {
+            writer().write("D " + task.getId() + "\n");
+            flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // EFFECTS: encodes the tasks into a new snapshot, which is written in the background, and starts the
+    //          journal over; does nothing if the previous snapshot is still being written
+    public void compact() {
+        if (pending != null && !pending.isDone()) {
+            return;
+        }
+        Runnable write = prepareSnapshot();
+        if (write != null) {
+            pending = compactor.submit(write);
+        }
+    }
+
+    // EFFECTS: same as compact(), but does nothing (except counting a skipped save) if nothing changed since
+    //          the tasks were last saved or loaded
+    public void compactIfChanged() {
+        if (hasUnsavedChanges()) {
+            compact();
+        } else {
+            metrics.recordSkip();
+        }
+    }
+
+    // EFFECTS: waits for the snapshot being written (if any), then, if anything changed since, compacts this
+    //          journal on the calling thread; closes this journal, which cannot be used afterwards
+    public void close() {
+        compactor.shutdown();
+        try {
+            compactor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Runnable write = hasUnsavedChanges() ? prepareSnapshot() : null;
+        if (write != null) {
+            write.run();
+        }
+        try {
+            closeWriter();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // EFFECTS: appends a record of the given kind holding task
+    private void append(char kind, Task task) {
+        try {
+            Writer out = writer();
+            out.write(kind);
+            out.write(' ');
+            Jsonifier.writeTask(task, out);
+            out.write('\n');
+            flush();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // EFFECTS: flushes the record just written to the journal file, then compacts the journal if needed
+    private void flush() throws IOException {
+        writer.flush();
+        if (journal.length() >= compactThreshold) {
+            compact();
+        }
+    }
+
+    // EFFECTS: returns the writer appending to the journal file, opening it if needed
+    private Writer writer() throws IOException {
+        if (writer == null) {
+            writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journal, true),
+                    StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    // EFFECTS: copies the saved fields of the tasks and sets the journal aside; returns the encoding and writing
+    //          of the copies as the snapshot, or null (printing the error) if the journal cannot be set aside
+    private Runnable prepareSnapshot() {
+        long start = System.nanoTime();
+        long generation = Generation.current();
+        List<SavedFields> saved = SavedFields.copy(tasks.get());
+        try {
+            rotate();
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        savedGeneration = generation;
+        long copyNanos = System.nanoTime() - start;
+        return () -> writeSnapshot(saved, copyNanos);
+    }
+
+    // EFFECTS: closes the journal file and moves its records to the old journal, which already holds the
+    //          records of a compaction that failed, if any
+    private void rotate() throws IOException {
+        closeWriter();
+        if (!journal.exists()) {
+            return;
+        }
+        if (oldJournal.exists()) {
+            Files.write(oldJournal.toPath(), Files.readAllBytes(journal.toPath()), StandardOpenOption.APPEND);
+            Files.delete(journal.toPath());
+        } else {
+            Files.move(journal.toPath(), oldJournal.toPath());
+        }
+    }
+
+    // EFFECTS: closes the journal file, if it is open
+    private void closeWriter() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        }
+    }
+
+    // EFFECTS: encodes the tasks whose saved fields are saved, which took copyNanos to copy, and replaces the
+    //          snapshot with them, then deletes the old journal, which the snapshot now holds; if the snapshot cannot
+    //          be replaced, the old journal is kept, and the tasks are taken as unsaved
+    private void writeSnapshot(List<SavedFields> saved, long copyNanos) {
+        try {
+            long start = System.nanoTime();
+            byte[] encoded = snapshot.encode(saved);
+            long encodedAt = System.nanoTime();
+            snapshot.write(encoded, SavedFields.byId(saved));
+            long bytes = snapshot.getFile().length();
+            metrics.recordSave(copyNanos + encodedAt - start, System.nanoTime() - encodedAt, bytes);
+            Files.deleteIfExists(oldJournal.toPath());
+        } catch (SnapshotConflictException e) {
+            savedGeneration = -1;
+            Logger.log("TaskJournal", "Not saved until the changes are merged: " + e.getMessage());
+        } catch (IOException e) {
+            savedGeneration = -1;
+            e.printStackTrace();
+        }
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: applies the complete records of file (if it exists) to tasks, by id, and returns the length of
+    //          the records applied, in bytes
+    private static long replay(File file, Map<Long, Task> tasks) throws IOException {
+        if (!file.exists()) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        int start = 0;
+        for (int end = indexOfNewline(bytes, start); end >= 0; end = indexOfNewline(bytes, start)) {
+            if (!apply(new String(bytes, start, end - start, StandardCharsets.UTF_8), tasks)) {
+                break;
+            }
+            start = end + 1;
+        }
+        return start;
+    }
+
+    // EFFECTS: returns the index of the first '\n' in bytes at or after from, or -1 if there is none
+    private static int indexOfNewline(byte[] bytes, int from) {
+        for (int i = from; i < bytes.length; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // MODIFIES: tasks
+    // EFFECTS: applies record to tasks, and returns true, or returns false if record is malformed
+    private static boolean apply(String record, Map<Long, Task> tasks) {
+        try {
+            char kind = record.charAt(0);
+            String data = record.substring(2);
+            if (kind == 'D') {
+                detach(tasks.remove(Long.parseLong(data)));
+            } else if (kind == 'A' || kind == 'E') {
+                Task task = PARSER.parseTask(new JSONObject(data));
+                if (task != null) {
+                    detach(tasks.put(task.getId(), task));
+                }
+            } else {
+                return false;
+            }
+            return true;
+        } catch (JSONException | NumberFormatException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    // EFFECTS: removes task, if not null, from its tags
+    private static void detach(Task task) {
+        if (task != null) {
+            TagRegistry.removeTask(task);
+        }
+    }
+}
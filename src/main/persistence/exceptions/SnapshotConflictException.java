@@ -0,0 +1,9 @@
+package persistence.exceptions;
+
+import java.io.IOException;
+
+public class SnapshotConflictException extends IOException {
+    public SnapshotConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package persistence.exceptions;
+
+import java.io.IOException;
+
+public class TaskFormatException extends IOException {
+    public TaskFormatException(String message) {
+        super(message);
+    }
+
+    public TaskFormatException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -4,6 +4,7 @@ import controller.ListViewController;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.StackPane;
 import model.Task;
+import persistence.TaskCache;
 
 import java.io.File;
 import java.io.IOException;
@@ -14,21 +15,45 @@ public class ListView extends StackPane {
     private static final String FXML = "resources/fxml/ListView.fxml";
     private File fxmlFile = new File(FXML);
     private List<Task> tasks;
+    private TaskCache cache;
+    private int first;
+    private ListViewController controller;
     
     // REQUIRES: task != null
     // MODIFIES: this
-    public ListView(List<Task> tasks) {
+    // EFFECTS: lists tasks, showing the page with the first-th of them
+    public ListView(List<Task> tasks, int first) {
         this.tasks = tasks;
+        this.first = first;
         this.load();
     }
     
+    // REQUIRES: cache != null
+    // MODIFIES: this
+    // EFFECTS: lists the tasks of cache from their headers, without loading the tasks themselves, showing the page
+    //          with the first-th of them
+    public ListView(TaskCache cache, int first) {
+        this.cache = cache;
+        this.first = first;
+        this.load();
+    }
+    
+    // EFFECTS: returns the controller of the list, which knows the page shown
+    public ListViewController getController() {
+        return controller;
+    }
+    
     private void load() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            ListViewController controller = fxmlLoader.<ListViewController>getController();
-            controller.setData(tasks);
+            controller = fxmlLoader.<ListViewController>getController();
+            if (cache != null) {
+                controller.setData(cache, first);
+            } else {
+                controller.setData(tasks, first);
+            }
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
@@ -1,14 +1,37 @@
 package ui;
 
+import controller.ListViewController;
+import export.TaskExporter;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
+import model.Generation;
+import model.TagRegistry;
 import model.Task;
+import model.TaskIndex;
+import persistence.AutoSaver;
+import persistence.MappedTaskStore;
+import persistence.SavedFields;
+import persistence.SnapshotWatcher;
+import persistence.TaskCache;
+import persistence.TaskDiff;
+import persistence.TaskJournal;
 import utility.JsonFileIO;
+import utility.Logger;
 
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 // The PomoTODO GUI Application
 public class PomoTodoApp extends Application {
@@ -16,7 +39,17 @@ public class PomoTodoApp extends Application {
     public static final double WIDTH = 520;
     public static final double HEIGHT = 800;
     private static List<Task> tasks = new ArrayList<>();
+    private static TaskIndex index = new TaskIndex();
+    private static TaskJournal journal = new TaskJournal(JsonFileIO.getSnapshot(), JsonFileIO.journalFile,
+            TaskJournal.DEFAULT_COMPACT_THRESHOLD, () -> tasks);
+    private static AutoSaver autoSaver = new AutoSaver(journal, AutoSaver.DEFAULT_PERIOD_SECONDS, TimeUnit.SECONDS,
+            Platform::runLater);
+    private static SnapshotWatcher watcher = new SnapshotWatcher(JsonFileIO.getSnapshot(), Platform::runLater,
+            PomoTodoApp::mergeExternalChanges);
+    private static MappedTaskStore store;  // the tasks, when they are loaded lazily (see JsonFileIO.isLazy)
+    private static TaskCache cache;        // the tasks of store loaded so far, or null if the tasks are all loaded
     private static Stage primaryStage;
+    private static ListViewController list;  // the controller of the list of tasks shown last, or null
     
     public static void main(String[] args) {
         launch(args);
@@ -39,6 +72,21 @@ public class PomoTodoApp extends Application {
         return tasks;
     }
     
+    // EFFECTS: returns the index of the tasks in this PomoTODO APP, by status, priority and due date
+    public static TaskIndex getIndex() {
+        return index;
+    }
+    
+    // EFFECTS: returns the journal in which the changes made to the tasks in this PomoTODO APP are recorded
+    public static TaskJournal getJournal() {
+        return journal;
+    }
+    
+    // EFFECTS: returns the cache of the tasks loaded so far, or null unless the tasks are loaded lazily
+    public static TaskCache getCache() {
+        return cache;
+    }
+    
     // REQUIRES: primaryStage != null AND root != null
     public static void setScene(Parent root) {
         try {
@@ -55,24 +103,265 @@ public class PomoTodoApp extends Application {
     @Override
     public void start(Stage primaryStage) throws Exception {
         setPrimaryStage(primaryStage);
-        setScene(new ListView(tasks));
+        showTasks();
+    }
+
+    // REQUIRES: primaryStage != null
+    // MODIFIES: this
+    // EFFECTS: shows the list of tasks, at the page shown last (see ListViewController); when they are loaded lazily,
+    //          it is built from the headers of the tasks on the page, and a task is only loaded once it is edited
+    //          (see checkOut)
+    public static void showTasks() {
+        int first = list != null ? list.getFirst() : 0;
+        ListView view = cache != null ? new ListView(cache, first) : new ListView(tasks, first);
+        list = view.getController();
+        setScene(view);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds task, a new task, to the tasks, and records it in the journal (or in the store, when the tasks
+    //          are loaded lazily)
+    public static void addTask(Task task) {
+        if (cache != null) {
+            try {
+                cache.put(task);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            return;
+        }
+        tasks.add(task);
+        index.add(task);
+        Generation.advance();
+        journal.recordAdd(task);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the task with the given id (if any) from the tasks and from its tags, and records it in the
+    //          journal (or in the store, when the tasks are loaded lazily)
+    public static void removeTask(long id) {
+        if (cache != null) {
+            cache.remove(id);
+            return;
+        }
+        Task task = find(id);
+        if (task != null) {
+            tasks.remove(task);
+            index.remove(task);
+            Generation.advance();
+            TagRegistry.removeTask(task);
+            journal.recordDelete(task);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: returns the task with the given id, to be edited, or null if there is none; when the tasks are
+    //          loaded lazily, it is loaded (if it is not already) and kept loaded until it is checked in
+    public static Task checkOut(long id) {
+        return cache != null ? cache.checkOut(id) : find(id);
+    }
+
+    // REQUIRES: task was checked out, and not checked in since
+    // MODIFIES: this
+    // EFFECTS: checks task in, and records its new state in the journal if it was edited (or writes it back to the
+    //          store, when the tasks are loaded lazily)
+    public static void checkIn(Task task, boolean edited) {
+        if (cache != null) {
+            try {
+                cache.checkIn(task);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        } else if (edited) {
+            journal.recordEdit(task);
+        }
     }
 
+    // EFFECTS: returns the task with the given id among the tasks, or null if there is none
+    private static Task find(long id) {
+        for (Task t : tasks) {
+            if (t.getId() == id) {
+                return t;
+            }
+        }
+        return null;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: merges read, the tasks of the saved file as another program changed it from base, into the tasks:
+    //          only the tasks and fields the other program added, removed or edited since base are changed here
+    //          (see TaskDiff), and only the rows of those tasks are updated in the list of tasks if it is on screen.
+    //          The changes made here since the file was last saved are kept, except for the fields the other program
+    //          changed too.
+    private static void mergeExternalChanges(List<Task> read, Map<Long, SavedFields> base) {
+        TaskDiff diff = TaskDiff.between(tasks, read, base);
+        if (diff.isEmpty()) {
+            return;
+        }
+        diff.apply(tasks, index, journal);
+        Logger.log("PomoTodoApp", "Merged changes made to " + JsonFileIO.getSnapshot().getFile() + ": "
+                + diff.getAdded().size() + " added, " + diff.getRemoved().size() + " removed, "
+                + diff.getEdited().size() + " edited");
+        if (primaryStage != null && primaryStage.getScene() != null
+                && primaryStage.getScene().getRoot() instanceof ListView) {
+            list.update(diff.getEdited());
+        }
+    }
+
+    // EFFECTS: loads the tasks saved at the last compaction of the journal, then replays the changes
+    //          recorded in the journal since; from then on, the tasks are saved in the background as they change,
+    //          and the changes other programs make to the saved file are merged into them. If the tasks are to be
+    //          loaded lazily, only the store of the tasks is opened instead (see openStore).
     @Override
     public void init() {
+        if (JsonFileIO.isLazy() && openStore()) {
+            return;
+        }
+        loadTasks();
+        autoSaver.start();
+        try {
+            watcher.start();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: loads all the tasks, from the saved file and the journal, and indexes them
+    private static void loadTasks() {
         try {
             tasks = JsonFileIO.read();
         } catch (Exception e) {
             e.printStackTrace();
         }
+        try {
+            journal.replay(tasks);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+        index.addAll(tasks);
     }
 
+    // MODIFIES: this
+    // EFFECTS: opens the store of the tasks, first filling it with the saved tasks if they were saved since it was
+    //          (see importTasks), and returns true; the tasks are then loaded one at a time, as they are edited,
+    //          and neither the journal nor the saved file is written, nor watched, until a run that does not load
+    //          them lazily reads them back from the store (see JsonFileIO.read). Returns false (printing the error)
+    //          if the store cannot be opened or filled, in which case it is not used.
+    private static boolean openStore() {
+        boolean stale = JsonFileIO.isStoreStale();
+        try {
+            store = new MappedTaskStore(JsonFileIO.storeFile);
+            if (stale) {
+                importTasks();
+            }
+            cache = new TaskCache(store, TaskCache.DEFAULT_CAPACITY);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            discardStore();
+            return false;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: closes the store (if it is open), which is then marked as older than the saved file, so that the
+    //          tasks it holds, which may be incomplete, are not read back from it
+    private static void discardStore() {
+        try {
+            if (store != null) {
+                store.close();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        store = null;
+        if (!JsonFileIO.storeFile.setLastModified(0)) {
+            Logger.log("PomoTodoApp", "Failed to discard " + JsonFileIO.storeFile);
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: replaces the tasks of the store with the saved tasks and the changes recorded in the journal since,
+    //          then folds the journal into the saved file, so that it is not replayed over the store later on
+    //  throws IOException if the saved tasks cannot be written to the store
+    private static void importTasks() throws IOException {
+        List<Task> saved = JsonFileIO.read();
+        journal.replay(saved);
+        for (long id : store.scan(r -> true)) {
+            store.remove(id);
+        }
+        store.putAll(saved);
+        store.force();
+        tasks = saved;
+        Generation.advance();  // so that the journal is folded even if it recorded nothing
+        journal.close();
+        tasks = new ArrayList<>();
+        touchStore();
+        Generation.quietly(() -> saved.forEach(TagRegistry::removeTask));
+        Logger.log("PomoTodoApp", "Imported " + saved.size() + " tasks into " + JsonFileIO.storeFile);
+    }
+
+    // EFFECTS: exports the tasks in the format given by JsonFileIO.getExporter to JsonFileIO.getExportFile (printing
+    //          the error if it cannot be written). When the tasks are loaded lazily, they are streamed from the store
+    //          one at a time (see TaskCache.read), so that exporting them does not load them all.
+    public static void exportTasks() {
+        TaskExporter exporter = JsonFileIO.getExporter();
+        File file = JsonFileIO.getExportFile(exporter);
+        file.getParentFile().mkdirs();
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8))) {
+            if (cache == null) {
+                exporter.export(tasks.iterator(), out);
+            } else {
+                try (TaskCache.Reading stored = cache.read()) {
+                    exporter.export(stored, out);
+                }
+            }
+            Logger.log("PomoTodoApp", "Exported the tasks to " + file);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // EFFECTS: merges the changes other programs made to the saved file since the watcher last checked it, then
+    //          saves all the tasks, folding the journal into the saved file (or writes the tasks loaded back to the
+    //          store, when they are loaded lazily)
     @Override
     public void stop() {
+        if (cache != null) {
+            closeStore();
+            return;
+        }
         try {
-            JsonFileIO.write(tasks);
+            watcher.stop();
+            autoSaver.stop();
+            watcher.check();
+            journal.close();
+            Logger.log("PomoTodoApp", "Saved tasks: " + journal.getMetrics());
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
+
+    // EFFECTS: writes the tasks loaded back to the store, and closes it
+    private static void closeStore() {
+        try {
+            cache.flush();
+            store.close();
+            touchStore();
+            Logger.log("PomoTodoApp", "Saved tasks to " + JsonFileIO.storeFile + ": " + cache.getMisses()
+                    + " tasks loaded, " + cache.getHits() + " found loaded");
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // EFFECTS: marks the store as saved now, after the saved file; writing through the mapping does not always
+    //          update the time the store was last modified
+    private static void touchStore() {
+        if (!JsonFileIO.storeFile.setLastModified(System.currentTimeMillis())) {
+            Logger.log("PomoTodoApp", "Failed to mark " + JsonFileIO.storeFile + " as saved");
+        }
+    }
 }
@@ -4,6 +4,7 @@ import controller.TodobarController;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.layout.VBox;
 import model.Task;
+import persistence.TaskHeader;
 
 import java.io.File;
 import java.io.IOException;
@@ -13,19 +14,39 @@ public class Todobar extends VBox {
     private static final String FXML = "resources/fxml/Todobar.fxml";
     private File fxmlFile = new File(FXML);
     private Task task;
+    private TaskHeader header;
+    private TodobarController controller;
     
     public Todobar(Task task) {
         this.task = task;
         load();
     }
     
+    // EFFECTS: presents the task with the given header, without loading the task itself
+    public Todobar(TaskHeader header) {
+        this.header = header;
+        load();
+    }
+    
+    // REQUIRES: task has the id of the task presented
+    // MODIFIES: this
+    // EFFECTS: presents task as it is now (e.g. after another program edited it), without loading the Todobar again
+    public void setTask(Task task) {
+        this.task = task;
+        controller.setTask(task);
+    }
+    
     private void load() {
         try {
             FXMLLoader fxmlLoader = new FXMLLoader(fxmlFile.toURI().toURL());
             fxmlLoader.setRoot(this);
             fxmlLoader.load();
-            TodobarController controller = fxmlLoader.<TodobarController>getController();
-            controller.setTask(task);
+            controller = fxmlLoader.<TodobarController>getController();
+            if (task != null) {
+                controller.setTask(task);
+            } else {
+                controller.setHeader(header);
+            }
         } catch (IOException exception) {
             throw new RuntimeException(exception);
         }
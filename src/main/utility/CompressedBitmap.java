@@ -0,0 +1,465 @@
+package utility;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// A compressed set of non-negative ints, laid out like a roaring bitmap: values are grouped into chunks
+// of 65536 by their high 16 bits, and each chunk keeps the low 16 bits of its values either in a sorted
+// array (while it has at most 4096 values) or in a 65536-bit bitmap. Sparse sets stay small, and
+// and/or/andNot work a whole chunk at a time. Not synchronized.
+public class CompressedBitmap implements Iterable<Integer> {
+    private static final int MAX_ARRAY = 4096;  // above this, an array chunk is larger than a bitmap one
+    private static final int WORDS = 1024;      // 65536 bits
+
+    private char[] keys;      // high 16 bits of the values in each chunk, ascending
+    private Chunk[] chunks;
+    private int count;        // number of chunks in use
+    private int cardinality;
+
+    // EFFECTS: constructs an empty bitmap
+    public CompressedBitmap() {
+        keys = new char[4];
+        chunks = new Chunk[4];
+    }
+
+    // EFFECTS: returns the number of values in this bitmap
+    public int cardinality() {
+        return cardinality;
+    }
+
+    // EFFECTS: returns true if this bitmap has no values
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    // EFFECTS: returns true if value is in this bitmap
+    public boolean contains(int value) {
+        int i = value < 0 ? -1 : Arrays.binarySearch(keys, 0, count, (char) (value >>> 16));
+        return i >= 0 && chunks[i].contains((char) value);
+    }
+
+    // MODIFIES: this
+    // EFFECTS: adds value and returns true, or returns false if it was already in this bitmap
+    //   throws IllegalArgumentException if value < 0
+    public boolean add(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("CompressedBitmap only holds non-negative values");
+        }
+        char key = (char) (value >>> 16);
+        int i = Arrays.binarySearch(keys, 0, count, key);
+        if (i < 0) {
+            i = -i - 1;
+            insertChunk(i, key, new ArrayChunk(new char[4], 0));
+        }
+        int before = chunks[i].cardinality();
+        chunks[i] = chunks[i].add((char) value);
+        cardinality += chunks[i].cardinality() - before;
+        return chunks[i].cardinality() != before;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes value and returns true, or returns false if it was not in this bitmap
+    public boolean remove(int value) {
+        if (!contains(value)) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, 0, count, (char) (value >>> 16));
+        chunks[i] = chunks[i].remove((char) value);
+        cardinality--;
+        if (chunks[i].cardinality() == 0) {
+            count--;
+            System.arraycopy(keys, i + 1, keys, i, count - i);
+            System.arraycopy(chunks, i + 1, chunks, i, count - i);
+            chunks[count] = null;
+        }
+        return true;
+    }
+
+    // EFFECTS: returns a copy of this bitmap that does not share any state with it
+    public CompressedBitmap copy() {
+        CompressedBitmap result = new CompressedBitmap();
+        for (int i = 0; i < count; i++) {
+            result.append(keys[i], chunks[i].copy());
+        }
+        return result;
+    }
+
+    // EFFECTS: returns a new bitmap holding the values that are in both a and b
+    public static CompressedBitmap and(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.count && j < b.count) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                result.append(a.keys[i], Chunk.and(a.chunks[i++], b.chunks[j++]));
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns a new bitmap holding the values that are in a or b (or both)
+    public static CompressedBitmap or(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        int i = 0;
+        int j = 0;
+        while (i < a.count || j < b.count) {
+            int cmp = j == b.count ? -1 : i == a.count ? 1 : Character.compare(a.keys[i], b.keys[j]);
+            if (cmp < 0) {
+                result.append(a.keys[i], a.chunks[i++].copy());
+            } else if (cmp > 0) {
+                result.append(b.keys[j], b.chunks[j++].copy());
+            } else {
+                result.append(a.keys[i], Chunk.or(a.chunks[i++], b.chunks[j++]));
+            }
+        }
+        return result;
+    }
+
+    // EFFECTS: returns a new bitmap holding the values that are in a but not in b
+    public static CompressedBitmap andNot(CompressedBitmap a, CompressedBitmap b) {
+        CompressedBitmap result = new CompressedBitmap();
+        for (int i = 0; i < a.count; i++) {
+            int j = Arrays.binarySearch(b.keys, 0, b.count, a.keys[i]);
+            result.append(a.keys[i], j < 0 ? a.chunks[i].copy() : Chunk.andNot(a.chunks[i], b.chunks[j]));
+        }
+        return result;
+    }
+
+    // EFFECTS: returns an iterator over the values of this bitmap in ascending order;
+    //          this bitmap must not be modified while iterating
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return new PrimitiveIterator.OfInt() {
+            private int chunk = -1;
+            private PrimitiveIterator.OfInt lows;
+
+            @Override
+            public boolean hasNext() {
+                while ((lows == null || !lows.hasNext()) && chunk + 1 < count) {
+                    lows = chunks[++chunk].lows();
+                }
+                return lows != null && lows.hasNext();
+            }
+
+            @Override
+            public int nextInt() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return keys[chunk] << 16 | lows.nextInt();
+            }
+        };
+    }
+
+    // MODIFIES: this
+    // EFFECTS: inserts chunk as the chunk for key at position i
+    private void insertChunk(int i, char key, Chunk chunk) {
+        if (count == keys.length) {
+            keys = Arrays.copyOf(keys, count * 2);
+            chunks = Arrays.copyOf(chunks, count * 2);
+        }
+        System.arraycopy(keys, i, keys, i + 1, count - i);
+        System.arraycopy(chunks, i, chunks, i + 1, count - i);
+        keys[i] = key;
+        chunks[i] = chunk;
+        count++;
+    }
+
+    // REQUIRES: key is greater than the key of every chunk of this bitmap
+    // MODIFIES: this
+    // EFFECTS: appends chunk as the chunk for key, unless chunk is null
+    private void append(char key, Chunk chunk) {
+        if (chunk != null) {
+            insertChunk(count, key, chunk);
+            cardinality += chunk.cardinality();
+        }
+    }
+
+    // The low 16 bits of the values of one chunk
+    private abstract static class Chunk {
+        abstract int cardinality();
+
+        abstract boolean contains(char low);
+
+        // EFFECTS: adds low and returns this chunk, or the chunk that replaces it
+        abstract Chunk add(char low);
+
+        // EFFECTS: removes low and returns this chunk, or the chunk that replaces it
+        abstract Chunk remove(char low);
+
+        // EFFECTS: sets the bit of every value of this chunk in words
+        abstract void setIn(long[] words);
+
+        // EFFECTS: clears the bit of every value of this chunk in words
+        abstract void clearIn(long[] words);
+
+        // EFFECTS: returns a new array of WORDS words with the bits of the values of this chunk set
+        abstract long[] words();
+
+        abstract Chunk copy();
+
+        abstract PrimitiveIterator.OfInt lows();
+
+        // EFFECTS: returns the chunk of values in both a and b, or null if there are none
+        static Chunk and(Chunk a, Chunk b) {
+            if (a instanceof ArrayChunk && (!(b instanceof ArrayChunk) || a.cardinality() <= b.cardinality())) {
+                return ((ArrayChunk) a).filter(b, true);
+            }
+            if (b instanceof ArrayChunk) {
+                return ((ArrayChunk) b).filter(a, true);
+            }
+            long[] words = a.words();
+            long[] other = ((BitsChunk) b).words;
+            for (int i = 0; i < WORDS; i++) {
+                words[i] &= other[i];
+            }
+            return fromWords(words);
+        }
+
+        // EFFECTS: returns the chunk of values in a or b
+        static Chunk or(Chunk a, Chunk b) {
+            long[] words = a.words();
+            b.setIn(words);
+            return fromWords(words);
+        }
+
+        // EFFECTS: returns the chunk of values in a but not in b, or null if there are none
+        static Chunk andNot(Chunk a, Chunk b) {
+            if (a instanceof ArrayChunk) {
+                return ((ArrayChunk) a).filter(b, false);
+            }
+            long[] words = a.words();
+            b.clearIn(words);
+            return fromWords(words);
+        }
+
+        // EFFECTS: returns the smallest chunk holding the values whose bits are set in words,
+        //          or null if there are none
+        static Chunk fromWords(long[] words) {
+            int cardinality = 0;
+            for (long w : words) {
+                cardinality += Long.bitCount(w);
+            }
+            if (cardinality == 0) {
+                return null;
+            }
+            BitsChunk bits = new BitsChunk(words, cardinality);
+            return cardinality <= MAX_ARRAY ? bits.toArray() : bits;
+        }
+    }
+
+    // A chunk of at most MAX_ARRAY values, kept in a sorted array
+    private static final class ArrayChunk extends Chunk {
+        private char[] values;
+        private int size;
+
+        ArrayChunk(char[] values, int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return Arrays.binarySearch(values, 0, size, low) >= 0;
+        }
+
+        @Override
+        Chunk add(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                return this;
+            }
+            if (size == MAX_ARRAY) {
+                long[] words = words();
+                words[low >>> 6] |= 1L << low;
+                return new BitsChunk(words, size + 1);
+            }
+            i = -i - 1;
+            if (size == values.length) {
+                values = Arrays.copyOf(values, Math.min(MAX_ARRAY, size * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, size - i);
+            values[i] = low;
+            size++;
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            int i = Arrays.binarySearch(values, 0, size, low);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, size - i - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        void setIn(long[] words) {
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+        }
+
+        @Override
+        void clearIn(long[] words) {
+            for (int i = 0; i < size; i++) {
+                words[values[i] >>> 6] &= ~(1L << values[i]);
+            }
+        }
+
+        @Override
+        long[] words() {
+            long[] words = new long[WORDS];
+            setIn(words);
+            return words;
+        }
+
+        @Override
+        Chunk copy() {
+            return new ArrayChunk(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+        // EFFECTS: returns the chunk of the values of this chunk that other contains (if keep)
+        //          or does not contain (if !keep), or null if there are none
+        Chunk filter(Chunk other, boolean keep) {
+            char[] kept = new char[size];
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (other.contains(values[i]) == keep) {
+                    kept[n++] = values[i];
+                }
+            }
+            return n == 0 ? null : new ArrayChunk(kept, n);
+        }
+
+        @Override
+        PrimitiveIterator.OfInt lows() {
+            return new PrimitiveIterator.OfInt() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    return values[next++];
+                }
+            };
+        }
+    }
+
+    // A chunk of more than MAX_ARRAY values, kept as one bit per possible value
+    private static final class BitsChunk extends Chunk {
+        private final long[] words;
+        private int cardinality;
+
+        BitsChunk(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char low) {
+            return (words[low >>> 6] & (1L << low)) != 0;
+        }
+
+        @Override
+        Chunk add(char low) {
+            if (!contains(low)) {
+                words[low >>> 6] |= 1L << low;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Chunk remove(char low) {
+            if (contains(low)) {
+                words[low >>> 6] &= ~(1L << low);
+                cardinality--;
+            }
+            return cardinality <= MAX_ARRAY ? toArray() : this;
+        }
+
+        @Override
+        void setIn(long[] other) {
+            for (int i = 0; i < WORDS; i++) {
+                other[i] |= words[i];
+            }
+        }
+
+        @Override
+        void clearIn(long[] other) {
+            for (int i = 0; i < WORDS; i++) {
+                other[i] &= ~words[i];
+            }
+        }
+
+        @Override
+        long[] words() {
+            return words.clone();
+        }
+
+        @Override
+        Chunk copy() {
+            return new BitsChunk(words.clone(), cardinality);
+        }
+
+        // EFFECTS: returns an array chunk holding the values of this chunk
+        ArrayChunk toArray() {
+            char[] values = new char[Math.max(cardinality, 1)];
+            PrimitiveIterator.OfInt lows = lows();
+            for (int i = 0; i < cardinality; i++) {
+                values[i] = (char) lows.nextInt();
+            }
+            return new ArrayChunk(values, cardinality);
+        }
+
+        @Override
+        PrimitiveIterator.OfInt lows() {
+            return new PrimitiveIterator.OfInt() {
+                private int word;
+                private long bits = words[0];
+
+                @Override
+                public boolean hasNext() {
+                    while (bits == 0 && word + 1 < WORDS) {
+                        bits = words[++word];
+                    }
+                    return bits != 0;
+                }
+
+                @Override
+                public int nextInt() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int low = word << 6 | Long.numberOfTrailingZeros(bits);
+                    bits &= bits - 1;
+                    return low;
+                }
+            };
+        }
+    }
+}
@@ -1,48 +1,128 @@
 package utility;
 
+import export.TaskExporter;
+import export.TaskExporters;
 import model.Task;
-import parsers.TaskParser;
-import persistence.Jsonifier;
+import persistence.MappedTaskStore;
+import persistence.SnapshotFile;
+import persistence.TaskCodec;
+import persistence.TaskCodecs;
 
-import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Paths;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 // File input/output operations
 public class JsonFileIO {
     public static final File jsonDataFile = new File("./resources/json/tasks.json");
+    public static final File binaryDataFile = new File("./resources/json/tasks.bin");
+    public static final File journalFile = new File("./resources/json/tasks.journal");
+    public static final File storeFile = new File("./resources/json/tasks.store");
+    public static final File exportDirectory = new File("./resources/export");
+    // system property naming the format in which the tasks are saved (json, the default, ndjson or binary)
+    public static final String FORMAT_PROPERTY = "pomotodo.format";
+    // system property set to "lazy" to load the tasks from storeFile one at a time, as they are edited
+    public static final String LOAD_PROPERTY = "pomotodo.load";
+    // system property naming the format in which the tasks are exported (csv, the default, ndjson or icalendar)
+    public static final String EXPORT_PROPERTY = "pomotodo.export";
+    private static final SnapshotFile snapshot =
+            new SnapshotFile(getDataFile(getFormat()), SnapshotFile.DEFAULT_BACKUPS, getFormat());
+
+    // EFFECTS: returns the format named by FORMAT_PROPERTY, or JSON if it names none
+    public static TaskCodec getFormat() {
+        TaskCodec codec = TaskCodecs.forName(System.getProperty(FORMAT_PROPERTY, ""));
+        return codec != null ? codec : TaskCodecs.JSON;
+    }
+
+    // EFFECTS: returns the format named by EXPORT_PROPERTY, or CSV if it names none
+    public static TaskExporter getExporter() {
+        TaskExporter exporter = TaskExporters.forName(System.getProperty(EXPORT_PROPERTY, ""));
+        return exporter != null ? exporter : TaskExporters.CSV;
+    }
+
+    // EFFECTS: returns the file in exportDirectory to which the tasks are exported in the format of exporter
+    public static File getExportFile(TaskExporter exporter) {
+        return new File(exportDirectory, "tasks." + exporter.getExtension());
+    }
+
+    // EFFECTS: returns the file in which the tasks are saved in format: binaryDataFile for the binary format, and
+    //          jsonDataFile for the text ones, which can be read and edited by hand
+    public static File getDataFile(TaskCodec format) {
+        return format == TaskCodecs.BINARY ? binaryDataFile : jsonDataFile;
+    }
+
+    // EFFECTS: returns the snapshot saved in the data file of the format given by getFormat (snapshots saved in
+    //          any other format are still read), along with its previous versions
+    public static SnapshotFile getSnapshot() {
+        return snapshot;
+    }
     
-    // EFFECTS: attempts to read jsonDataFile and parse it
-    //           returns a list of tasks from the content of jsonDataFile
-    public static List<Task> read() {
-        TaskParser parser = new TaskParser();
-        return parser.parse(readFile(jsonDataFile.toString()));
+    // EFFECTS: returns true if LOAD_PROPERTY asks for the tasks to be loaded lazily, from storeFile
+    public static boolean isLazy() {
+        return "lazy".equals(System.getProperty(LOAD_PROPERTY));
     }
 
-    // EFFECTS: saves the tasks to jsonDataFile
-    public static void write(List<Task> tasks) {
+    // EFFECTS: returns true if storeFile is missing, or if the tasks were saved to a data file or to the journal
+    //          since they were last saved to storeFile (i.e. by a run that did not load them lazily)
+    public static boolean isStoreStale() {
+        long saved = Math.max(Math.max(jsonDataFile.lastModified(), binaryDataFile.lastModified()),
+                journalFile.lastModified());
+        return !storeFile.exists() || storeFile.lastModified() < saved;
+    }
+
+    // EFFECTS: attempts to read the data file and parse it
+    //           returns a list of tasks from the content of the data file, or of its newest valid previous
+    //           version if the data file is missing or invalid (see SnapshotFile.read). If the data file of the
+    //           other formats or storeFile is newer (i.e. the format was switched, or the tasks were loaded
+    //           lazily, since the tasks were last saved), the tasks are read from it instead, and saved at once
+    //           to the data file of the current format.
+    public static List<Task> read() {
         try {
-            FileWriter writer = new FileWriter(jsonDataFile);
-            System.out.println(Jsonifier.taskListToJson(tasks).toString());
-            writer.write(Jsonifier.taskListToJson(tasks).toString());
-/*            writer.write("hello");*/
-            writer.close();
+            File newest = newestDataFile();
+            if (newest == snapshot.getFile()) {
+                return snapshot.read();
+            }
+            List<Task> tasks = newest == storeFile ? readStore() : new SnapshotFile(newest, 0).read();
+            snapshot.write(tasks);
+            return tasks;
         } catch (IOException e) {
             e.printStackTrace();
+            return new ArrayList<>();
         }
     }
 
-    private static String readFile(String path) {
-        String output = "";
+    // EFFECTS: returns whichever of the data file of the current format, the data file of the other formats and
+    //          storeFile was saved last (the data file of the current format if none was saved after it)
+    private static File newestDataFile() {
+        File newest = snapshot.getFile();
+        File other = newest.equals(binaryDataFile) ? jsonDataFile : binaryDataFile;
+        for (File file : new File[] {other, storeFile}) {
+            if (file.lastModified() > newest.lastModified()) {
+                newest = file;
+            }
+        }
+        return newest;
+    }
 
-        try {
-            byte[] encoded = Files.readAllBytes(Paths.get(path));
-            output =  new String(encoded);
+    // EFFECTS: returns all the tasks of storeFile, or, if it cannot be read (printing the error), the tasks of the
+    //          data file, as read does
+    //  throws IOException if neither can be read
+    private static List<Task> readStore() throws IOException {
+        try (MappedTaskStore store = new MappedTaskStore(storeFile)) {
+            return store.get(store.scan(r -> true), 0, store.size());
         } catch (IOException e) {
             e.printStackTrace();
+            return snapshot.read();
         }
+    }
 
-        return output;
+    // EFFECTS: saves the tasks to the data file, replacing it only once the new content is safely on disk
+    public static void write(List<Task> tasks) {
+        try {
+            snapshot.write(tasks);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 }
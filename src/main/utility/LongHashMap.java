@@ -0,0 +1,178 @@
+package utility;
+
+import java.util.AbstractCollection;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// A hash map from primitive long keys to non-null values, without boxing the keys.
+// Uses open addressing with linear probing; removal shifts the following entries back, so lookups never
+// have to skip over deleted slots. Not synchronized.
+public class LongHashMap<V> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private Object[] values;  // null marks an empty slot
+    private int size;
+
+    // EFFECTS: constructs an empty map
+    public LongHashMap() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+    }
+
+    // EFFECTS: returns the number of entries in this map
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns true if this map has no entries
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // EFFECTS: returns true if this map has an entry for key
+    public boolean containsKey(long key) {
+        return values[slotOf(key)] != null;
+    }
+
+    // EFFECTS: returns the value for key, or null if there is none
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) values[slotOf(key)];
+    }
+
+    // MODIFIES: this
+    // EFFECTS: maps key to value and returns the previous value for key, or null if there was none
+    //   throws NullPointerException if value is null
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new NullPointerException("LongHashMap does not hold null values");
+        }
+        int slot = slotOf(key);
+        V previous = (V) values[slot];
+        keys[slot] = key;
+        values[slot] = value;
+        if (previous == null && ++size > values.length * 3 / 4) {
+            resize(values.length * 2);
+        }
+        return previous;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the entry for key and returns its value, or null if there was none
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = slotOf(key);
+        V previous = (V) values[slot];
+        if (previous != null) {
+            values[slot] = null;
+            size--;
+            shiftBack(slot);
+        }
+        return previous;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry
+    public void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new Object[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    // EFFECTS: returns an unmodifiable view of the values of this map, in no particular order
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+            @Override
+            public Iterator<V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    // EFFECTS: returns the slot holding key, or the empty slot where key would be inserted
+    private int slotOf(long key) {
+        int mask = values.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != null && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // EFFECTS: returns a well-mixed hash of key
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    // MODIFIES: this
+    // EFFECTS: after the slot at hole was emptied, moves back the entries that follow it in the same
+    //          probe run so that each stays reachable from its home slot
+    private void shiftBack(int hole) {
+        int mask = values.length - 1;
+        int slot = (hole + 1) & mask;
+        while (values[slot] != null) {
+            int home = hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                values[slot] = null;
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rehashes every entry into tables of the given capacity (a power of two)
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    // Iterates over the values of the map; the map must not be modified while iterating
+    private class ValueIterator implements Iterator<V> {
+        private int next = advance(0);
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            V value = (V) values[next];
+            next = advance(next + 1);
+            return value;
+        }
+
+        // EFFECTS: returns the first occupied slot at or after from, or values.length if there is none
+        private int advance(int from) {
+            while (from < values.length && values[from] == null) {
+                from++;
+            }
+            return from;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package utility;
+
+// A hash map from primitive long keys to primitive int values, without boxing either.
+// Uses open addressing with linear probing, like LongHashMap. Not synchronized.
+public class LongIntHashMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] values;
+    private boolean[] used;
+    private int size;
+
+    // EFFECTS: constructs an empty map
+    public LongIntHashMap() {
+        clear();
+    }
+
+    // EFFECTS: returns the number of entries in this map
+    public int size() {
+        return size;
+    }
+
+    // EFFECTS: returns true if this map has an entry for key
+    public boolean containsKey(long key) {
+        return used[slotOf(key)];
+    }
+
+    // EFFECTS: returns the value for key, or defaultValue if there is none
+    public int get(long key, int defaultValue) {
+        int slot = slotOf(key);
+        return used[slot] ? values[slot] : defaultValue;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: maps key to value
+    public void put(long key, int value) {
+        int slot = slotOf(key);
+        keys[slot] = key;
+        values[slot] = value;
+        if (!used[slot]) {
+            used[slot] = true;
+            if (++size > used.length * 3 / 4) {
+                resize(used.length * 2);
+            }
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes the entry for key and returns true, or returns false if there was none
+    public boolean remove(long key) {
+        int slot = slotOf(key);
+        if (!used[slot]) {
+            return false;
+        }
+        used[slot] = false;
+        size--;
+        shiftBack(slot);
+        return true;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: removes every entry
+    public void clear() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new int[INITIAL_CAPACITY];
+        used = new boolean[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    // EFFECTS: returns the slot holding key, or the empty slot where key would be inserted
+    private int slotOf(long key) {
+        int mask = used.length - 1;
+        int slot = LongHashMap.hash(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // MODIFIES: this
+    // EFFECTS: after the slot at hole was emptied, moves back the entries that follow it in the same
+    //          probe run so that each stays reachable from its home slot
+    private void shiftBack(int hole) {
+        int mask = used.length - 1;
+        int slot = (hole + 1) & mask;
+        while (used[slot]) {
+            int home = LongHashMap.hash(keys[slot]) & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = keys[slot];
+                values[hole] = values[slot];
+                used[hole] = true;
+                used[slot] = false;
+                hole = slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    // MODIFIES: this
+    // EFFECTS: rehashes every entry into tables of the given capacity (a power of two)
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        for (int i = 0; i < oldUsed.length; i++) {
+            if (oldUsed[i]) {
+                int slot = slotOf(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                used[slot] = true;
+            }
+        }
+    }
+}
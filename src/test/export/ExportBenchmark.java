@@ -0,0 +1,127 @@
+package export;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.TagRegistry;
+import model.Task;
+import persistence.Jsonifier;
+import utility.Benchmark;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+// Measures exporting 100k tasks by building the JSONArray of the list with Jsonifier.taskListToJson and writing
+// it out, as exports were done, against streaming them with each exporter, then streams 1M tasks built one at a
+// time by an iterator (and detached from their tags once written), which only runs in a small heap (e.g. with
+// -Xmx64m) if no exporter holds more than one task; given any argument, only that part is run. Output goes to a
+// writer that only counts characters.
+public class ExportBenchmark {
+    private static final int TASKS = 100_000;
+    private static final int GENERATED = 1_000_000;
+
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            List<Task> tasks = new ArrayList<>(TASKS);
+            generate(TASKS, false).forEachRemaining(tasks::add);
+            Benchmark.run("taskListToJson of " + TASKS + " tasks", 3, 10, () ->
+                    Benchmark.consume(export(tasks.iterator(), null)));
+            for (TaskExporter exporter : TaskExporters.all()) {
+                Benchmark.run("export " + TASKS + " tasks, " + exporter.getName(), 3, 10, () ->
+                        Benchmark.consume(export(tasks.iterator(), exporter)));
+            }
+        }
+        for (TaskExporter exporter : TaskExporters.all()) {
+            long chars = export(generate(GENERATED, true), exporter);
+            String name = "export " + GENERATED + " tasks, " + exporter.getName();
+            System.out.printf("%-50s %14.2f MB%n", name, chars / 1e6);
+        }
+    }
+
+    // EFFECTS: returns the number of characters written by exporter (or by taskListToJson, if exporter is null)
+    //          for tasks
+    private static long export(Iterator<Task> tasks, TaskExporter exporter) {
+        CountingWriter out = new CountingWriter();
+        try {
+            if (exporter == null) {
+                List<Task> list = new ArrayList<>();
+                tasks.forEachRemaining(list::add);
+                out.write(Jsonifier.taskListToJson(list).toString());
+            } else {
+                exporter.export(tasks, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.count;
+    }
+
+    // EFFECTS: returns an iterator building count tasks, half of them with tags and a due date, one at a time;
+    //          if detach, each task is removed from its tags once the next one is asked for
+    private static Iterator<Task> generate(int count, boolean detach) {
+        return new Iterator<Task>() {
+            private int built;
+            private Task last;
+
+            @Override
+            public boolean hasNext() {
+                return built < count;
+            }
+
+            @Override
+            public Task next() {
+                if (last != null && detach) {
+                    TagRegistry.removeTask(last);
+                }
+                last = task(built++);
+                return last;
+            }
+        };
+    }
+
+    // EFFECTS: returns the task with the given index
+    private static Task task(int i) {
+        Task t = Task.restore("Read chapter " + i + " of the textbook, then take notes", null,
+                new Priority(1 + i % 4), Status.values()[i % 4]);
+        if (i % 2 == 0) {
+            t.addTag(TagRegistry.getTag("cpsc210"));
+            t.addTag(TagRegistry.getTag("tag" + i % 50));
+            t.setDueDate(new DueDate());
+        }
+        t.setProgress(i % 101);
+        return t;
+    }
+
+    // A writer that drops what is written to it, only counting its characters
+    private static final class CountingWriter extends Writer {
+        private long count;
+
+        @Override
+        public void write(char[] chars, int offset, int length) {
+            count += length;
+        }
+
+        @Override
+        public void write(String text) {
+            count += text.length();
+        }
+
+        @Override
+        public Writer append(CharSequence text) {
+            count += text.length();
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package export;
+
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestCsvExporter {
+    private Task task;
+
+    @BeforeEach
+    void runBefore() {
+        task = new Task("Write \"report\", then send ## cpsc210; work; urgent; in progress");
+        Calendar due = Calendar.getInstance();
+        due.set(2030, Calendar.MARCH, 4, 17, 30, 0);
+        task.setDueDate(new DueDate(due.getTime()));
+        task.setEstimatedTimeToComplete(3);
+        task.setProgress(25);
+    }
+
+    @AfterEach
+    void runAfter() {
+        TagRegistry.removeTask(task);
+    }
+
+    @Test
+    void testExport() throws IOException {
+        Task plain = new Task("plain");
+        String text = export(Arrays.asList(task, plain));
+        TagRegistry.removeTask(plain);
+
+        String[] rows = text.split("\r\n", -1);
+        assertEquals(4, rows.length);
+        assertEquals(CsvExporter.HEADER, rows[0]);
+        assertEquals(task.getId() + ",\"Write \"\"report\"\", then send \",IN PROGRESS,false,true,2030-03-04 17:30,"
+                + "cpsc210;work,3,25", rows[1]);
+        assertEquals(plain.getId() + ",plain,TODO,false,false,,,0,0", rows[2]);
+        assertEquals("", rows[3]);
+    }
+
+    @Test
+    void testLineBreakIsQuoted() throws IOException {
+        task.setDescription("two\nlines");
+        String text = export(Collections.singletonList(task));
+        assertTrue(text.contains(",\"two\nlines\","));
+    }
+
+    @Test
+    void testNoTasks() throws IOException {
+        assertEquals(CsvExporter.HEADER + "\r\n", export(Collections.emptyList()));
+    }
+
+    private String export(List<Task> tasks) throws IOException {
+        StringWriter out = new StringWriter();
+        TaskExporters.CSV.export(tasks.iterator(), out);
+        return out.toString();
+    }
+}
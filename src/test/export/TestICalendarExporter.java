@@ -0,0 +1,64 @@
+package export;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestICalendarExporter {
+    @Test
+    void testExport() throws IOException {
+        Task task = new Task("Call Ann; then Bob, or Carl ## work; cpsc210; important; urgent; in progress");
+        Calendar due = Calendar.getInstance();
+        due.set(2030, Calendar.MARCH, 4, 17, 30, 0);
+        task.setDueDate(new DueDate(due.getTime()));
+        task.setProgress(40);
+        Task done = new Task("done ## done");
+        String text = export(Arrays.asList(task, done));
+        TagRegistry.removeTask(task);
+        TagRegistry.removeTask(done);
+
+        assertTrue(text.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\nPRODID:"));
+        assertTrue(text.endsWith("END:VTODO\r\nEND:VCALENDAR\r\n"));
+        assertTrue(text.contains("BEGIN:VTODO\r\nUID:" + task.getId() + "@pomotodo\r\nDTSTAMP:"));
+        assertTrue(text.contains("\r\nSUMMARY:Call Ann\\; then Bob\\, or Carl \r\nDUE:20300304T173000\r\n"
+                + "STATUS:IN-PROCESS\r\nPRIORITY:1\r\nCATEGORIES:cpsc210,work\r\nPERCENT-COMPLETE:40\r\nEND:VTODO"));
+        assertTrue(text.contains("\r\nSUMMARY:done \r\nSTATUS:COMPLETED\r\nPRIORITY:0\r\nEND:VTODO"));
+        assertTrue(text.matches("(?s).*\r\nDTSTAMP:\\d{8}T\\d{6}Z\r\n.*"));
+    }
+
+    @Test
+    void testLongLinesAreFolded() throws IOException {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            description.append("caf\u00e9 \u2615 ");  // accented e, hot beverage
+        }
+        Task task = new Task(description.toString());
+        String text = export(Collections.singletonList(task));
+
+        for (String line : text.split("\r\n")) {
+            assertTrue(line.getBytes(StandardCharsets.UTF_8).length <= 75);
+        }
+        String unfolded = text.replace("\r\n ", "");
+        assertTrue(unfolded.contains("\r\nSUMMARY:" + description + "\r\n"));
+    }
+
+    @Test
+    void testNoTasks() throws IOException {
+        assertTrue(export(Collections.emptyList()).endsWith("PRODID:-//PomoTodo//Export//EN\r\nEND:VCALENDAR\r\n"));
+    }
+
+    private String export(List<Task> tasks) throws IOException {
+        StringWriter out = new StringWriter();
+        TaskExporters.ICALENDAR.export(tasks.iterator(), out);
+        return out.toString();
+    }
+}
@@ -0,0 +1,33 @@
+package export;
+
+import model.TagRegistry;
+import model.Task;
+import org.junit.jupiter.api.Test;
+import persistence.Jsonifier;
+import persistence.TaskCodecs;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNdjsonExporter {
+    @Test
+    void testExportIsReadByCodec() throws IOException {
+        List<Task> tasks = Arrays.asList(new Task("first ## cpsc210"), new Task("second ## tomorrow"));
+        StringWriter out = new StringWriter();
+        TaskExporters.NDJSON.export(tasks.iterator(), out);
+        String expected = Jsonifier.taskListToJson(tasks).toString();
+        tasks.forEach(TagRegistry::removeTask);
+
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        List<Task> read = TaskCodecs.NDJSON.decode(new ByteArrayInputStream(bytes), bytes.length);
+        assertEquals(expected, Jsonifier.taskListToJson(read).toString());
+        assertEquals(TaskExporters.NDJSON, TaskExporters.forName("ndjson"));
+        assertNull(TaskExporters.forName("xml"));
+    }
+}
@@ -0,0 +1,64 @@
+package model;
+
+import utility.Benchmark;
+
+import java.util.Observable;
+import java.util.Observer;
+
+// Measures the cost of one estimated-time update on a task nested under a chain of projects,
+// comparing TodoListener propagation with the java.util.Observable propagation it replaced.
+public class EtcPropagationBenchmark {
+    private static final int UPDATES = 100_000;
+
+    public static void main(String[] args) {
+        for (int depth : new int[]{1, 10, 100}) {
+            Task leaf = new Task("leaf");
+            Project parent = new Project("project 0");
+            parent.add(leaf);
+            for (int i = 1; i < depth; i++) {
+                Project p = new Project("project " + i);
+                p.add(parent);
+                parent = p;
+            }
+            ObservableNode legacyLeaf = ObservableNode.chain(depth);
+            Benchmark.run("listener, depth " + depth + " (" + UPDATES + " updates)", 10, 20, () -> {
+                for (int i = 0; i < UPDATES; i++) {
+                    leaf.setEstimatedTimeToComplete(i & 7);
+                }
+            });
+            Benchmark.run("observable, depth " + depth + " (" + UPDATES + " updates)", 10, 20, () -> {
+                for (int i = 0; i < UPDATES; i++) {
+                    legacyLeaf.etcChanged(i & 7);
+                }
+            });
+        }
+    }
+
+    // The Observable-based propagation Todo and Project used before TodoListener
+    private static class ObservableNode extends Observable implements Observer {
+        private int etcHours;
+
+        // EFFECTS: returns the leaf of a chain of depth observers above it
+        static ObservableNode chain(int depth) {
+            ObservableNode leaf = new ObservableNode();
+            ObservableNode child = leaf;
+            for (int i = 0; i < depth; i++) {
+                ObservableNode parent = new ObservableNode();
+                child.addObserver(parent);
+                child = parent;
+            }
+            return leaf;
+        }
+
+        void etcChanged(int changed) {
+            setChanged();
+            notifyObservers(changed);
+        }
+
+        @Override
+        public void update(Observable o, Object arg) {
+            etcChanged((int) arg);
+            etcHours = etcHours + (int) arg;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package model;
+
+import utility.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures adding 100k tasks to a project nested 10 levels deep with addAll, which notifies the
+// ancestors once, against calling add for every task, which notifies every ancestor once per task.
+// Both variants then empty the project again with removeAll.
+public class ProjectBatchBenchmark {
+    private static final int CHILDREN = 100_000;
+    private static final int DEPTH = 10;
+
+    public static void main(String[] args) {
+        List<Task> children = new ArrayList<>(CHILDREN);
+        for (int i = 0; i < CHILDREN; i++) {
+            Task t = new Task("task " + i);
+            t.setEstimatedTimeToComplete(1 + i % 8);
+            t.setProgress(i % 101);
+            children.add(t);
+        }
+        Benchmark.run("add in a loop, depth " + DEPTH, 5, 20, () -> {
+            Project bottom = nestedProject();
+            for (Task t : children) {
+                bottom.add(t);
+            }
+            bottom.removeAll(children);
+        });
+        Benchmark.run("addAll, depth " + DEPTH, 5, 20, () -> {
+            Project bottom = nestedProject();
+            bottom.addAll(children);
+            bottom.removeAll(children);
+        });
+    }
+
+    // EFFECTS: returns an empty project under DEPTH - 1 ancestors
+    private static Project nestedProject() {
+        Project bottom = new Project("level 0");
+        Project child = bottom;
+        for (int i = 1; i < DEPTH; i++) {
+            Project p = new Project("level " + i);
+            p.add(child);
+            child = p;
+        }
+        return bottom;
+    }
+}
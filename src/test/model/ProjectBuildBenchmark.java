@@ -0,0 +1,35 @@
+package model;
+
+import utility.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures building a project of 100k children with Project.add, against the ArrayList-backed
+// membership check Project used before, which made building a project O(n^2).
+public class ProjectBuildBenchmark {
+    private static final int CHILDREN = 100_000;
+
+    public static void main(String[] args) {
+        List<Task> children = new ArrayList<>(CHILDREN);
+        for (int i = 0; i < CHILDREN; i++) {
+            children.add(new Task("task " + i));
+        }
+        Benchmark.run("Project.add, " + CHILDREN + " children", 5, 20, () -> {
+            Project p = new Project("bulk");
+            for (Task t : children) {
+                p.add(t);
+            }
+            Benchmark.consume(p);
+        });
+        Benchmark.run("ArrayList.contains + add, " + CHILDREN + " children", 0, 1, () -> {
+            List<Todo> tasks = new ArrayList<>();
+            for (Task t : children) {
+                if (!tasks.contains(t)) {
+                    tasks.add(t);
+                }
+            }
+            Benchmark.consume(tasks);
+        });
+    }
+}
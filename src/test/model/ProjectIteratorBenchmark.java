@@ -0,0 +1,91 @@
+package model;
+
+import utility.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+// Compares the bucketed priority iterator of Project against the previous recursive iterator,
+// which rescanned the children once per priority level and recursed on every skipped child.
+public class ProjectIteratorBenchmark {
+
+    public static void main(String[] args) {
+        for (int size : new int[]{10_000, 1_000_000}) {
+            List<Todo> children = randomChildren(size);
+            Project project = new Project("benchmark");
+            project.addAll(children);
+            Benchmark.run("bucketed, " + size + " children", 5, 20, () -> iterateBucketed(project));
+            try {
+                Benchmark.run("recursive, " + size + " children", 5, 20, () -> iterateRecursive(children));
+            } catch (StackOverflowError e) {
+                System.out.println("recursive, " + size + " children: StackOverflowError");
+            }
+        }
+    }
+
+    // EFFECTS: returns size tasks with uniformly distributed priority levels
+    private static List<Todo> randomChildren(int size) {
+        Random random = new Random(210);
+        List<Todo> children = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task t = new Task("task " + i);
+            t.setPriority(new Priority(random.nextInt(4) + 1));
+            children.add(t);
+        }
+        return children;
+    }
+
+    private static void iterateBucketed(Project project) {
+        for (Todo t : project) {
+            Benchmark.consume(t);
+        }
+    }
+
+    private static void iterateRecursive(List<Todo> children) {
+        RecursiveIterator it = new RecursiveIterator(children);
+        while (it.hasNext()) {
+            Benchmark.consume(it.next());
+        }
+    }
+
+    // The iterator Project used before children were bucketed by priority level
+    private static class RecursiveIterator {
+        private final List<Todo> tasks;
+        private int level = 1;
+        private int cursor = 0;
+        private int sent = 0;
+
+        RecursiveIterator(List<Todo> tasks) {
+            this.tasks = tasks;
+        }
+
+        boolean hasNext() {
+            return !tasks.isEmpty() && sent < tasks.size();
+        }
+
+        Todo next() {
+            if (hasNext()) {
+                if (tasks.get(cursor).getPriority().equals(new Priority(level))) {
+                    Todo next = tasks.get(cursor);
+                    cursor = incrementCursor();
+                    sent++;
+                    return next;
+                } else {
+                    cursor = incrementCursor();
+                    return next();
+                }
+            }
+            throw new NoSuchElementException();
+        }
+
+        private int incrementCursor() {
+            if (cursor >= tasks.size() - 1) {
+                level++;
+                return 0;
+            }
+            return cursor + 1;
+        }
+    }
+}
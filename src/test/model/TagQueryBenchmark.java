@@ -0,0 +1,82 @@
+package model;
+
+import utility.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Measures 2-, 5- and 10-tag queries over 1M tasks, answered by TagQuery from the tags' bitmaps,
+// against scanning every task and testing its tags. Tag "bench-k" is given to about 1 in k + 2 tasks.
+// Run with a large heap, e.g. -Xmx3g.
+public class TagQueryBenchmark {
+    private static final int TASKS = 1_000_000;
+    private static final int TAGS = 10;
+
+    public static void main(String[] args) {
+        List<Task> tasks = tasks();
+        run(tasks, "2 tags", "and");
+        run(tasks, "5 tags", "and", "or", "andNot", "and");
+        run(tasks, "10 tags", "and", "andNot", "or", "and", "and", "andNot", "or", "and", "andNot");
+    }
+
+    // EFFECTS: times the query over bench-0 ... bench-n combined by ops, with TagQuery and by scanning
+    private static void run(List<Task> tasks, String label, String... ops) {
+        TagQuery query = TagQuery.withTag("bench-0");
+        for (int i = 0; i < ops.length; i++) {
+            String name = "bench-" + (i + 1);
+            query = ops[i].equals("and") ? query.and(name) : ops[i].equals("or") ? query.or(name) : query.andNot(name);
+        }
+        TagQuery bitmaps = query;
+        Benchmark.run(label + ", bitmaps (count)", 10, 100, () -> Benchmark.consume(bitmaps.count()));
+        Benchmark.run(label + ", bitmaps (iterate)", 10, 100, () -> {
+            int n = 0;
+            for (Task t : bitmaps) {
+                n++;
+            }
+            Benchmark.consume(n);
+        });
+        Benchmark.run(label + ", scan", 2, 10, () -> Benchmark.consume(scan(tasks, ops)));
+        if (scan(tasks, ops) != bitmaps.count()) {
+            throw new IllegalStateException("TagQuery and the scan disagree");
+        }
+    }
+
+    // EFFECTS: returns the number of tasks matching the query, found by testing every task
+    private static int scan(List<Task> tasks, String[] ops) {
+        Tag[] tags = new Tag[TAGS];
+        for (int k = 0; k < TAGS; k++) {
+            tags[k] = TagRegistry.getTag("bench-" + k);
+        }
+        int n = 0;
+        for (Task t : tasks) {
+            boolean match = t.containsTag(tags[0]);
+            for (int i = 0; i < ops.length; i++) {
+                boolean has = t.containsTag(tags[i + 1]);
+                match = ops[i].equals("and") ? match && has : ops[i].equals("or") ? match || has : match && !has;
+            }
+            n += match ? 1 : 0;
+        }
+        return n;
+    }
+
+    // EFFECTS: returns TASKS tasks, tagged at random
+    private static List<Task> tasks() {
+        Random random = new Random(210);
+        Tag[] tags = new Tag[TAGS];
+        for (int k = 0; k < TAGS; k++) {
+            tags[k] = TagRegistry.getTag("bench-" + k);
+        }
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("task ## bench-untagged");
+            for (int k = 0; k < TAGS; k++) {
+                if (random.nextInt(k + 2) == 0) {
+                    t.addTag(tags[k]);
+                }
+            }
+            tasks.add(t);
+        }
+        return tasks;
+    }
+}
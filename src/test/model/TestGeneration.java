@@ -0,0 +1,109 @@
+package model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parsers.TaskParser;
+import persistence.Jsonifier;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestGeneration {
+    private Task task;
+    private Project project;
+    private long generation;
+
+    @BeforeEach
+    void runBefore() {
+        task = new Task("task");
+        project = new Project("project");
+        generation = Generation.current();
+    }
+
+    @Test
+    void testTaskChangesAdvanceGeneration() {
+        task.setStatus(Status.DONE);
+        assertTrue(advanced());
+        task.setPriority(new Priority(1));
+        assertTrue(advanced());
+        task.getPriority().setUrgent(false);
+        assertTrue(advanced());
+        task.setDueDate(new DueDate());
+        assertTrue(advanced());
+        task.setDescription("edited");
+        assertTrue(advanced());
+        task.addTag("tag");
+        assertTrue(advanced());
+        task.removeTag("tag");
+        assertTrue(advanced());
+        task.setProgress(50);
+        assertTrue(advanced());
+        task.setEstimatedTimeToComplete(3);
+        assertTrue(advanced());
+    }
+
+    @Test
+    void testProjectChangesAdvanceGeneration() {
+        project.add(task);
+        assertTrue(advanced());
+        project.remove(task);
+        assertTrue(advanced());
+    }
+
+    @Test
+    void testNoChangeKeepsGeneration() {
+        task.setStatus(Status.TODO);
+        task.getPriority().setUrgent(false);
+        task.setProgress(0);
+        task.removeTag("absent");
+        assertEquals(generation, Generation.current());
+    }
+
+    @Test
+    void testBuildingTasksKeepsGeneration() {
+        Task built = new Task("built ## inTestGeneration");
+        Task restored = Task.restore(built.getId(), "restored", new DueDate(), new Priority(1), Status.DONE);
+        String json = Jsonifier.taskListToJson(new ArrayList<>(Collections.singletonList(built))).toString();
+        List<Task> parsed = new TaskParser().parse(json);
+        assertEquals(1, parsed.size());
+        assertFalse(advanced());
+
+        restored.setDescription("edited");
+        assertTrue(advanced());
+        TagRegistry.removeTask(built);
+        parsed.forEach(TagRegistry::removeTask);
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void testQuietScope() {
+        try (Generation.Quiet building = Generation.quiet()) {
+            task.setStatus(Status.DONE);
+            try (Generation.Quiet nested = Generation.quiet()) {
+                task.addTag("inTestGeneration");
+            }
+            task.removeTag("inTestGeneration");
+        }
+        assertFalse(advanced());
+        task.setStatus(Status.TODO);
+        assertTrue(advanced());
+    }
+
+    @Test
+    void testQuietly() {
+        Generation.quietly(() -> task.setStatus(Status.DONE));
+        assertFalse(advanced());
+        task.setStatus(Status.TODO);
+        assertTrue(advanced());
+    }
+
+    // EFFECTS: returns true if the generation advanced since the last call
+    private boolean advanced() {
+        long previous = generation;
+        generation = Generation.current();
+        return generation != previous;
+    }
+}
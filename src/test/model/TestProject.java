@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.NoSuchElementException;
 
@@ -349,6 +351,158 @@ public class TestProject {
 
     }
 
+    @Test
+    void testRollupsFollowNestedChanges() {
+        Project.setRollupVerification(true);
+        try {
+            Project sub = new Project("sub");
+            Task t3 = new Task("3");
+            sub.add(t3);
+            testProject.add(task1);
+            testProject.add(sub);
+
+            t3.setProgress(100);
+            t3.setEstimatedTimeToComplete(6);
+            task1.setProgress(40);
+            assertEquals(70, testProject.getProgress());
+            assertEquals(140, testProject.getSumOfTaskProgress());
+            assertEquals(6, testProject.getEstimatedTimeToComplete());
+            assertFalse(testProject.isCompleted());
+
+            testProject.remove(task1);
+            assertEquals(100, testProject.getProgress());
+            assertTrue(testProject.isCompleted());
+
+            sub.remove(t3);
+            assertEquals(0, testProject.getProgress());
+            assertEquals(0, testProject.getEstimatedTimeToComplete());
+            assertFalse(testProject.isCompleted());
+        } finally {
+            Project.setRollupVerification(false);
+        }
+    }
+
+    @Test
+    void testSharedTaskCountedOncePerProject() {
+        Project other = new Project("other");
+        task1.setEstimatedTimeToComplete(3);
+        other.add(task1);
+        testProject.add(task1);
+        assertEquals(3, other.getEstimatedTimeToComplete());
+        assertEquals(3, testProject.getEstimatedTimeToComplete());
+
+        task1.setEstimatedTimeToComplete(5);
+        assertEquals(5, other.getEstimatedTimeToComplete());
+        assertEquals(5, testProject.getEstimatedTimeToComplete());
+
+        testProject.remove(task1);
+        assertEquals(0, testProject.getEstimatedTimeToComplete());
+        assertEquals(1, task1.countListeners());
+    }
+
+    @Test
+    void testManyAddsAndRemovesKeepOrder() {
+        List<Todo> expected = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Task t = new Task("task " + i);
+            testProject.add(t);
+            if (i % 3 == 0) {
+                testProject.remove(t);
+            } else {
+                expected.add(t);
+            }
+        }
+        assertEquals(expected.size(), testProject.getNumberOfTasks());
+        assertEquals(expected, iteratorHelper(testProject));
+    }
+
+    @Test
+    void testContainsAfterTaskIsEdited() {
+        testProject.add(task1);
+        task1.setDescription("edited ## today; urgent; in progress");
+        assertTrue(testProject.contains(task1));
+        testProject.remove(task1);
+        assertFalse(testProject.contains(task1));
+        assertEquals(0, testProject.getNumberOfTasks());
+    }
+
+    @Test
+    void testBatchMutationsNotifyOnce() {
+        Project parent = new Project("parent");
+        parent.add(testProject);
+        int[] etcNotifications = new int[1];
+        testProject.addListener(new TodoListener() {
+            @Override
+            public void onEtcDelta(Todo source, int delta) {
+                etcNotifications[0]++;
+            }
+
+            @Override
+            public void onProgressDelta(Todo source, int delta, int taskDelta) {
+            }
+        });
+        Task task3 = new Task("3");
+        task1.setEstimatedTimeToComplete(1);
+        task2.setEstimatedTimeToComplete(2);
+        task3.setEstimatedTimeToComplete(4);
+        task3.setProgress(100);
+
+        assertTrue(testProject.addAll(Arrays.asList(task1, task2, task3, task1)));
+        assertEquals(3, testProject.getNumberOfTasks());
+        assertEquals(7, parent.getEstimatedTimeToComplete());
+        assertEquals(33, parent.getProgress());
+
+        assertTrue(testProject.removeIf(t -> t.getEstimatedTimeToComplete() > 1));
+        assertEquals(Arrays.asList(task1), iteratorHelper(testProject));
+        assertEquals(1, parent.getEstimatedTimeToComplete());
+        assertFalse(testProject.removeAll(Arrays.asList(task2)));
+        assertEquals(2, etcNotifications[0]);
+    }
+
+    @Test
+    void testBatchWithNullLeavesProjectUnchanged() {
+        try {
+            testProject.addAll(Arrays.asList(task1, null));
+            fail();
+        } catch (NullArgumentException e) {
+            assertEquals(0, testProject.getNumberOfTasks());
+        }
+    }
+
+    @Test
+    void testParentsAndDeepContainment() {
+        Project sub = new Project("sub");
+        Project subSub = new Project("sub sub");
+        sub.add(subSub);
+        subSub.add(task1);
+        testProject.add(sub);
+        testProject.add(task1);
+
+        assertEquals(Arrays.asList(subSub, testProject), task1.getParents());
+        assertTrue(testProject.reallyContains(task1));
+        assertTrue(sub.reallyContains(task1));
+        assertFalse(sub.reallyContains(task2));
+        assertFalse(testProject.contains(subSub));
+        assertTrue(testProject.reallyContains(subSub));
+
+        sub.remove(subSub);
+        assertFalse(testProject.reallyContains(subSub));
+        assertTrue(subSub.getParents().isEmpty());
+    }
+
+    @Test
+    void testAddRejectsCycle() {
+        Project sub = new Project("sub");
+        Project subSub = new Project("sub sub");
+        testProject.add(sub);
+        sub.add(subSub);
+
+        assertTrue(subSub.wouldCreateCycle(testProject));
+        subSub.add(testProject);
+        assertFalse(subSub.contains(testProject));
+        assertFalse(testProject.wouldCreateCycle(task1));
+    }
+
     @Test
     void testAddSameTodoAsProject() {
         int i = testProject.getNumberOfTasks();
@@ -447,6 +601,85 @@ public class TestProject {
         }
     }
 
+    @Test
+    void testIteratorKeepsInsertionOrderWithinLevel() {
+        Task a = new Task("a");
+        Task b = new Task("b");
+        Task c = new Task("c");
+        a.setPriority(new Priority(3));
+        b.setPriority(new Priority(1));
+        c.setPriority(new Priority(3));
+        testProject.add(a);
+        testProject.add(b);
+        testProject.add(c);
+
+        assertEquals(Arrays.asList(b, a, c), iteratorHelper(testProject));
+    }
+
+    @Test
+    void testIteratorFollowsPriorityChanges() {
+        Task a = new Task("a");
+        Task b = new Task("b");
+        Task c = new Task("c");
+        testProject.add(a);
+        testProject.add(b);
+        testProject.add(c);
+        c.setPriority(new Priority(1));
+        b.getPriority().setUrgent(true);
+        assertEquals(Arrays.asList(c, b, a), iteratorHelper(testProject));
+        c.getPriority().setImportant(false);
+        assertEquals(Arrays.asList(b, c, a), iteratorHelper(testProject));
+        testProject.remove(b);
+        assertEquals(Arrays.asList(c, a), iteratorHelper(testProject));
+    }
+
+    @Test
+    void testIteratorFailsFastOnModification() {
+        testProject.add(task1);
+        testProject.add(task2);
+        Iterator<Todo> it = testProject.iterator();
+        it.next();
+        testProject.remove(task2);
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            System.out.println("passed");
+        }
+    }
+
+    @Test
+    void testTodoWithTheSameIdIsNotTheSame() {
+        testProject.add(task1);
+        Task twin = new Task(task1.getId(), "twin");
+        assertFalse(testProject.contains(twin));
+        testProject.remove(twin);
+        assertTrue(testProject.contains(task1));
+        testProject.add(twin);
+        assertEquals(1, testProject.getNumberOfTasks());
+        assertFalse(testProject.contains(twin));
+    }
+
+    @Test
+    void testChildrenFailFastAcrossCompaction() {
+        List<Task> added = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            added.add(new Task("child " + i));
+            testProject.add(added.get(i));
+        }
+        Iterator<Todo> it = testProject.getChildren().iterator();
+        it.next();
+        for (int i = 0; i < 8; i++) {
+            testProject.remove(added.get(i));
+        }
+        try {
+            it.next();
+            fail();
+        } catch (ConcurrentModificationException e) {
+            System.out.println("passed");
+        }
+    }
+
     //returns the result of iterating through a project in the form of an arraylist
     private List<Todo> iteratorHelper(Project p) {
         List<Todo> result = new ArrayList<>();
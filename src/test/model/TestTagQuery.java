@@ -0,0 +1,127 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTagQuery {
+    // The registry is global, so tag names are prefixed with "query-"
+    Task exam;
+    Task lab;
+    Task doneExam;
+
+    @BeforeEach
+    void runBefore() {
+        for (Tag t : TagRegistry.getTags()) {
+            if (t.getName().startsWith("query-")) {
+                for (Task task : new ArrayList<>(t.getTasks())) {
+                    t.removeTask(task);
+                }
+            }
+        }
+        exam = new Task("midterm ## query-cpsc210; query-exams");
+        lab = new Task("lab 4 ## query-cpsc210; query-labs");
+        doneExam = new Task("quiz ## query-cpsc210; query-exams; query-done");
+    }
+
+    @Test
+    void testAndAndNot() {
+        assertEquals(asSet(exam, doneExam), results(TagQuery.withTag("query-cpsc210").and("query-exams")));
+        assertEquals(asSet(exam),
+                results(TagQuery.withTag("query-cpsc210").and("query-exams").andNot("query-done")));
+    }
+
+    @Test
+    void testOrIsEvaluatedLeftToRight() {
+        assertEquals(asSet(exam, lab, doneExam), results(TagQuery.withTag("query-labs").or("query-exams")));
+        assertEquals(asSet(doneExam), results(TagQuery.withTag("query-labs").or("query-exams").and("query-done")));
+        assertEquals(asSet(lab, doneExam), results(TagQuery.withTag("query-done").or("query-labs")));
+    }
+
+    @Test
+    void testUnknownTagMatchesNothing() {
+        assertEquals(0, TagQuery.withTag("query-unknown").count());
+        assertEquals(0, TagQuery.withTag("query-cpsc210").and("query-unknown").count());
+        assertEquals(3, TagQuery.withTag("query-cpsc210").andNot("query-unknown").count());
+    }
+
+    @Test
+    void testQueryFollowsTagChanges() {
+        TagQuery query = TagQuery.withTag("query-exams").andNot("query-done");
+        assertEquals(asSet(exam), results(query));
+        exam.addTag("query-done");
+        lab.addTag("query-exams");
+        assertEquals(asSet(lab), results(query));
+        lab.removeTag("query-exams");
+        assertEquals(0, query.count());
+    }
+
+    @Test
+    void testManyTasks() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10000; i++) {
+            Task t = new Task("task " + i);
+            t.addTag(i % 2 == 0 ? "query-even" : "query-odd");
+            if (i % 3 == 0) {
+                t.addTag("query-three");
+            }
+            tasks.add(t);
+        }
+        assertEquals(1667, TagQuery.withTag("query-even").and("query-three").count());
+        assertEquals(3333, TagQuery.withTag("query-odd").andNot("query-three").count());
+        for (Task t : tasks) {
+            t.removeTag("query-three");
+        }
+        assertEquals(0, TagQuery.withTag("query-three").count());
+        assertEquals(5000, TagQuery.withTag("query-even").count());
+    }
+
+    @Test
+    void testIteratorFailsWhenOrdinalsMove() {
+        Iterator<Task> it = TagQuery.withTag("query-cpsc210").iterator();
+        lab.removeTag("query-cpsc210");
+        lab.removeTag("query-labs");
+        try {
+            it.next();
+            fail("ConcurrentModificationException should have been thrown");
+        } catch (ConcurrentModificationException e) {
+            System.out.println("Caught ConcurrentModificationException");
+        }
+    }
+
+    @Test
+    void testEmptyName() {
+        try {
+            TagQuery.withTag("query-cpsc210").and("");
+            fail("EmptyStringException should have been thrown");
+        } catch (EmptyStringException e) {
+            System.out.println("Caught EmptyStringException");
+        }
+    }
+
+    private Set<Task> results(TagQuery query) {
+        Set<Task> results = new HashSet<>();
+        for (Task t : query) {
+            results.add(t);
+        }
+        assertEquals(query.count(), results.size());
+        return results;
+    }
+
+    private Set<Task> asSet(Task... tasks) {
+        Set<Task> set = new HashSet<>();
+        for (Task t : tasks) {
+            set.add(t);
+        }
+        return set;
+    }
+}
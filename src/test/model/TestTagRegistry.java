@@ -0,0 +1,72 @@
+package model;
+
+import model.exceptions.EmptyStringException;
+import model.exceptions.NullArgumentException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTagRegistry {
+    // The registry is global, so every test uses tag names of its own
+
+    @Test
+    void testTasksShareRegisteredTag() {
+        Task t1 = new Task("first");
+        Task t2 = new Task("second");
+        t1.addTag("registry-shared");
+        t2.addTag("registry-shared");
+        Tag tag = TagRegistry.getTag("registry-shared");
+        assertTrue(tag == TagRegistry.findTag("registry-shared"));
+        assertEquals(2, tag.getTasks().size());
+        assertTrue(tag.containsTask(t1));
+        assertTrue(tag.containsTask(t2));
+    }
+
+    @Test
+    void testParsedTagIsRegistered() {
+        Task task = new Task("read ## registry-parsed");
+        assertTrue(TagRegistry.getTag("registry-parsed").containsTask(task));
+    }
+
+    @Test
+    void testRemoveTagByNameDetachesRegisteredTag() {
+        Task task = new Task("write");
+        task.addTag("registry-remove");
+        task.removeTag("registry-remove");
+        assertFalse(task.containsTag("registry-remove"));
+        assertTrue(TagRegistry.getTag("registry-remove").getTasks().isEmpty());
+    }
+
+    @Test
+    void testRemoveTaskDetachesAllTags() {
+        Task task = new Task("delete me");
+        task.addTag("registry-a");
+        task.addTag("registry-b");
+        TagRegistry.removeTask(task);
+        assertTrue(task.getTags().isEmpty());
+        assertFalse(TagRegistry.getTag("registry-a").containsTask(task));
+        assertFalse(TagRegistry.getTag("registry-b").containsTask(task));
+    }
+
+    @Test
+    void testFindUnknownTag() {
+        assertNull(TagRegistry.findTag("registry-never-used"));
+        assertNull(TagRegistry.findTag(null));
+    }
+
+    @Test
+    void testInvalidArguments() {
+        try {
+            TagRegistry.getTag("");
+            fail("EmptyStringException should have been thrown");
+        } catch (EmptyStringException e) {
+            System.out.println("Caught EmptyStringException");
+        }
+        try {
+            TagRegistry.removeTask(null);
+            fail("NullArgumentException should have been thrown");
+        } catch (NullArgumentException e) {
+            System.out.println("Caught NullArgumentException");
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package model;
+
+import model.exceptions.InvalidPriorityLevelException;
+import model.exceptions.NullArgumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestTaskIndex {
+    TaskIndex index;
+    Task essay;
+    Task lab;
+
+    @BeforeEach
+    void runBefore() {
+        index = new TaskIndex();
+        essay = new Task("essay ## important; in progress");
+        lab = new Task("lab");
+        index.addAll(Arrays.asList(essay, lab));
+    }
+
+    @Test
+    void testStatusIndex() {
+        assertEquals(new HashSet<>(Arrays.asList(essay)), new HashSet<>(index.getTasksWithStatus(Status.IN_PROGRESS)));
+        assertEquals(new HashSet<>(Arrays.asList(lab)), new HashSet<>(index.getTasksWithStatus(Status.TODO)));
+        lab.setStatus(Status.IN_PROGRESS);
+        assertEquals(2, index.getTasksWithStatus(Status.IN_PROGRESS).size());
+        assertTrue(index.getTasksWithStatus(Status.TODO).isEmpty());
+    }
+
+    @Test
+    void testPriorityIndexFollowsInPlaceChanges() {
+        assertTrue(index.getTasksWithPriority(new Priority(2)).contains(essay));
+        assertTrue(index.getTasksWithPriority(new Priority(4)).contains(lab));
+        lab.getPriority().setUrgent(true);
+        essay.getPriority().setUrgent(true);
+        assertTrue(index.getTasksWithPriority(new Priority(4)).isEmpty());
+        assertTrue(index.getTasksWithPriority(new Priority(3)).contains(lab));
+        assertTrue(index.getTasksWithPriority(new Priority(1)).contains(essay));
+        Priority shared = new Priority(2);
+        lab.setPriority(shared);
+        essay.setPriority(shared);
+        shared.setImportant(false);
+        assertEquals(2, index.getTasksWithPriority(new Priority(4)).size());
+    }
+
+    @Test
+    void testReplacedPriorityNoLongerTracked() {
+        Priority old = lab.getPriority();
+        lab.setPriority(new Priority(1));
+        old.setImportant(true);
+        assertTrue(index.getTasksWithPriority(new Priority(1)).contains(lab));
+        assertFalse(index.getTasksWithPriority(new Priority(2)).contains(lab));
+    }
+
+    @Test
+    void testDueDateRange() {
+        Date monday = date(2019, Calendar.MARCH, 4);
+        lab.setDueDate(new DueDate(date(2019, Calendar.MARCH, 6)));
+        essay.setDueDate(new DueDate(date(2019, Calendar.MARCH, 5)));
+        List<Task> due = index.getTasksDueBetween(monday, date(2019, Calendar.MARCH, 11));
+        assertEquals(Arrays.asList(essay, lab), due);
+        assertEquals(Arrays.asList(essay), index.getTasksDueBetween(monday, date(2019, Calendar.MARCH, 6)));
+        lab.setDueDate(Task.NO_DUE_DATE);
+        assertEquals(Arrays.asList(essay), index.getTasksDueBetween(monday, date(2019, Calendar.MARCH, 11)));
+        assertTrue(index.getTasksDueBetween(date(2019, Calendar.MARCH, 11), monday).isEmpty());
+    }
+
+    @Test
+    void testDueDateSetByDescription() {
+        Date now = new Date();
+        Task t = new Task("t");
+        index.add(t);
+        t.setDescription("t ## tomorrow");
+        Date inThreeDays = new Date(now.getTime() + 3L * 24 * 60 * 60 * 1000);
+        assertEquals(Arrays.asList(t), index.getTasksDueBetween(now, inThreeDays));
+        assertTrue(index.getTasksDueBetween(new Date(0), now).isEmpty());
+    }
+
+    @Test
+    void testRemove() {
+        index.remove(lab);
+        assertFalse(index.contains(lab));
+        assertEquals(1, index.size());
+        assertEquals(0, lab.countListeners());
+        lab.setStatus(Status.DONE);
+        assertTrue(index.getTasksWithStatus(Status.DONE).isEmpty());
+        index.remove(lab);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void testInvalidArguments() {
+        try {
+            index.add(null);
+            fail("NullArgumentException should have been thrown");
+        } catch (NullArgumentException e) {
+            System.out.println("Caught NullArgumentException");
+        }
+        try {
+            new Priority(5);
+            fail("InvalidPriorityLevelException should have been thrown");
+        } catch (InvalidPriorityLevelException e) {
+            System.out.println("Caught InvalidPriorityLevelException");
+        }
+    }
+
+    private Date date(int year, int month, int day) {
+        Calendar c = Calendar.getInstance();
+        c.clear();
+        c.set(year, month, day, 12, 0);
+        return c.getTime();
+    }
+}
@@ -4,7 +4,10 @@ import model.exceptions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -367,4 +370,50 @@ class TestTaskPhase3 {
     void testNotEqualToNull() {
         assertFalse(testTask.equals(null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testStatusChangeNotifiesListener() {
+        List<Status> previous = new ArrayList<>();
+        testTask.addListener(new TodoListener() {
+            @Override
+            public void onEtcDelta(Todo source, int delta) {
+            }
+
+            @Override
+            public void onProgressDelta(Todo source, int delta, int taskDelta) {
+            }
+
+            @Override
+            public void onStatusChanged(Task source, Status prev) {
+                previous.add(prev);
+            }
+        });
+        testTask.setStatus(Status.DONE);
+        testTask.setStatus(Status.DONE);
+        assertEquals(Arrays.asList(Status.TODO), previous);
+    }
+
+    @Test
+    void testTagStillFindsTaskAfterEdit() {
+        Tag tag = new Tag("tag");
+        testTask.addTag(tag);
+        testTask.setStatus(Status.IN_PROGRESS);
+        testTask.setDescription("edited ## urgent; tomorrow");
+        assertTrue(tag.containsTask(testTask));
+        assertTrue(tag.getTasks().contains(testTask));
+        testTask.removeTag(tag);
+        assertTrue(tag.getTasks().isEmpty());
+    }
+
+    @Test
+    void testIdsAreStableAndUnique() {
+        Task other = new Task("tester");
+        long id = testTask.getId();
+        testTask.setDescription("changed");
+        assertEquals(id, testTask.getId());
+        assertNotEquals(id, other.getId());
+
+        Task restored = new Task(other.getId() + 1000, "restored");
+        assertTrue(new Task("next").getId() > restored.getId());
+    }
+}
@@ -0,0 +1,41 @@
+package parsers;
+
+import model.Task;
+import parsers.exceptions.ParsingException;
+import utility.Benchmark;
+
+// Measures MetadataParser against TagParser, as Task used them: a new TagParser for every description
+// (catching the ParsingException thrown when there is no meta-data) versus one shared MetadataParser.
+// Each operation parses 10k descriptions onto the same task, so tags are only attached the first time.
+public class MetadataParserBenchmark {
+    private static final int DESCRIPTIONS = 10_000;
+
+    public static void main(String[] args) {
+        run("no meta-data", "Read the collaboration policy of the term project");
+        run("typical", "Buy milk ## today; important; grocery");
+        run("10 items", "Essay ## cpsc210; exams; in progress; important; urgent; tomorrow; a; b; c; d");
+    }
+
+    // EFFECTS: times both parsers on input
+    private static void run(String label, String input) {
+        Task task = new Task("target");
+        MetadataParser shared = new MetadataParser();
+        Benchmark.run(label + ", TagParser", 20, 100, () -> {
+            for (int i = 0; i < DESCRIPTIONS; i++) {
+                Parser parser = new TagParser();
+                try {
+                    parser.parse(input, task);
+                    Benchmark.consume(parser.getDescription());
+                } catch (ParsingException e) {
+                    Benchmark.consume(input);
+                }
+            }
+        });
+        Benchmark.run(label + ", MetadataParser", 20, 100, () -> {
+            for (int i = 0; i < DESCRIPTIONS; i++) {
+                String description = shared.apply(input, task);
+                Benchmark.consume(description == null ? input : description);
+            }
+        });
+    }
+}
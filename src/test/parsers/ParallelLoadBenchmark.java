@@ -0,0 +1,57 @@
+package parsers;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.TagRegistry;
+import model.Task;
+import persistence.Jsonifier;
+import utility.Benchmark;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+// Measures loading a file of about 100 MB of tasks with TaskParser.parse, which reads the tasks one at a
+// time, against TaskParser.parseParallel, which parses them in chunks on the common ForkJoinPool and only
+// builds them sequentially. Both are given the text of the file, already in memory.
+public class ParallelLoadBenchmark {
+    private static final int TASKS = 500_000;
+
+    public static void main(String[] args) {
+        String json = Jsonifier.taskListToJson(tasks()).toString();
+        System.out.printf("%d tasks, %.1f MB of JSON, %d processors%n", TASKS, json.length() / 1e6,
+                Runtime.getRuntime().availableProcessors());
+        TaskParser parser = new TaskParser();
+        Benchmark.run("load, sequential", 2, 5, () -> load(text -> parser.parse(new StringReader(text)), json));
+        Benchmark.run("load, parallel", 2, 5, () -> load(parser::parseParallel, json));
+    }
+
+    // EFFECTS: loads the tasks in json with parse, then detaches them from their (global) tags so that
+    //          the tasks of one run do not stay reachable during the next
+    private static void load(Function<String, List<Task>> parse, String json) {
+        List<Task> loaded = parse.apply(json);
+        Benchmark.consume(loaded);
+        for (Task t : loaded) {
+            TagRegistry.removeTask(t);
+        }
+    }
+
+    // EFFECTS: returns TASKS tasks with long descriptions, half of them with tags and a due date
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("Read chapter " + i + " of the textbook, then summarize it for the study group");
+            if (i % 2 == 0) {
+                t.addTag("cpsc210");
+                t.addTag("tag" + i % 50);
+                t.setDueDate(new DueDate());
+            }
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(Status.values()[i % Status.values().length]);
+            tasks.add(t);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,91 @@
+package parsers;
+
+import model.Priority;
+import model.Project;
+import model.Status;
+import model.Task;
+import persistence.Jsonifier;
+import utility.Benchmark;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures saving and loading a tree of 100k tasks spread over a chain of 100 nested projects, then isolates
+// the cost of building the tree: bottom-up, as ProjectParser does (each project given its todos at once with
+// addAll, before it has a parent), against top-down, as the tree was rebuilt by hand (each project added to its
+// parent first, then given its tasks one at a time), where the ETC and progress of every task are passed up
+// through all of its ancestors. Both builds create the same tasks.
+public class ProjectLoadBenchmark {
+    private static final int DEPTH = 100;
+    private static final int TASKS_PER_PROJECT = 1000;
+
+    public static void main(String[] args) {
+        Project root = buildTopDown();
+        String text = write(root);
+        System.out.printf("%-50s %14.2f MB%n", "size", text.length() / 1e6);
+        Benchmark.run("write tree of " + DEPTH * TASKS_PER_PROJECT + " tasks", 3, 10, () ->
+                Benchmark.consume(write(root)));
+        ProjectParser parser = new ProjectParser();
+        Benchmark.run("parse tree", 3, 10, () -> Benchmark.consume(parser.parse(new StringReader(text))));
+        Benchmark.run("build tree bottom-up", 3, 10, () -> Benchmark.consume(buildBottomUp()));
+        Benchmark.run("build tree top-down", 3, 10, () -> Benchmark.consume(buildTopDown()));
+    }
+
+    // EFFECTS: returns the tree, built bottom-up
+    private static Project buildBottomUp() {
+        Project child = null;
+        for (int level = DEPTH - 1; level >= 0; level--) {
+            Project project = new Project("level " + level);
+            project.addAll(tasks(level));
+            if (child != null) {
+                project.add(child);
+            }
+            child = project;
+        }
+        return child;
+    }
+
+    // EFFECTS: returns the tree, built top-down
+    private static Project buildTopDown() {
+        Project root = new Project("level 0");
+        Project parent = null;
+        for (int level = 0; level < DEPTH; level++) {
+            Project project = level == 0 ? root : new Project("level " + level);
+            if (parent != null) {
+                parent.add(project);
+            }
+            for (Task t : tasks(level)) {
+                project.add(t);
+            }
+            parent = project;
+        }
+        return root;
+    }
+
+    // EFFECTS: returns new tasks for the project at the given level, with ETC and progress
+    private static List<Task> tasks(int level) {
+        List<Task> tasks = new ArrayList<>(TASKS_PER_PROJECT);
+        for (int i = 0; i < TASKS_PER_PROJECT; i++) {
+            Task t = Task.restore("task " + i + " of level " + level, null, new Priority(), Status.TODO);
+            t.setEstimatedTimeToComplete(1 + i % 8);
+            t.setProgress(i % 101);
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    // EFFECTS: returns project written as JSON
+    private static String write(Project project) {
+        StringWriter out = new StringWriter();
+        try {
+            Jsonifier.writeProject(project, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toString();
+    }
+}
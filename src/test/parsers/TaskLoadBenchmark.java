@@ -0,0 +1,76 @@
+package parsers;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.TagRegistry;
+import model.Task;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import persistence.Jsonifier;
+import utility.Benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures loading 100k saved tasks with TaskParser, which restores each task without parsing its
+// description, against the previous parseTask, which built each task with new Task(description)
+// (running TagParser, which throws for every description without meta-data) and then overwrote
+// the parsed meta-data with the saved one.
+public class TaskLoadBenchmark {
+    private static final int TASKS = 100_000;
+
+    public static void main(String[] args) {
+        String json = Jsonifier.taskListToJson(tasks()).toString();
+        TaskParser restoring = new TaskParser();
+        TaskParser legacy = new LegacyTaskParser();
+        Benchmark.run("parse JSON only", 3, 10, () -> Benchmark.consume(new JSONArray(json)));
+        Benchmark.run("load " + TASKS + " tasks, restore", 3, 10, () -> load(restoring, json));
+        Benchmark.run("load " + TASKS + " tasks, new Task + setters", 3, 10, () -> load(legacy, json));
+    }
+
+    // EFFECTS: loads the tasks in json with parser, then detaches them from their (global) tags so that
+    //          the tasks of one run do not stay reachable during the next
+    private static void load(TaskParser parser, String json) {
+        List<Task> loaded = parser.parse(json);
+        Benchmark.consume(loaded);
+        for (Task t : loaded) {
+            TagRegistry.removeTask(t);
+        }
+    }
+
+    // EFFECTS: returns TASKS tasks, a quarter of them with tags and a due date
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("task " + i);
+            if (i % 4 == 0) {
+                t.addTag("cpsc210");
+                t.addTag("tag" + i % 50);
+                t.setDueDate(new DueDate());
+            }
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(Status.values()[i % Status.values().length]);
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    // TaskParser.parseTask as it was before tasks were restored without parsing their descriptions
+    private static class LegacyTaskParser extends TaskParser {
+        @Override
+        public Task parseTask(JSONObject taskJ) {
+            if (!isValidStringComponent(taskJ, "description") || !checkDueDate(taskJ) || !checkPriority(taskJ)
+                    || !checkStatus(taskJ) || !checkTags(taskJ) || !checkId(taskJ)) {
+                return null;
+            }
+            Task task = taskJ.has("id") ? new Task(taskJ.getLong("id"), taskJ.getString("description"))
+                    : new Task(taskJ.getString("description"));
+            task.setDueDate(parseDueDate(taskJ));
+            task.setPriority(parsePriority(taskJ));
+            task.setStatus(parseStatus(taskJ));
+            parseTags(taskJ, task);
+            return task;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package parsers;
+
+import org.json.JSONException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonArraySplitter {
+
+    @Test
+    void testElements() {
+        String text = " [ {\"a\":[1,{\"b\":\"],}\"}]} , \"x\\\",\" ,, 12 , ] trailing";
+        JsonArraySplitter elements = new JsonArraySplitter(text);
+
+        assertEquals(3, elements.size());
+        assertEquals("{\"a\":[1,{\"b\":\"],}\"}]} ,", text.substring(elements.start(0), elements.end(0) + 1));
+        assertEquals("\"x\\\",\" ,", text.substring(elements.start(1), elements.end(1) + 1));
+        assertEquals("12 ,", text.substring(elements.start(2), elements.end(2) + 1));
+    }
+
+    @Test
+    void testEmptyArray() {
+        assertEquals(0, new JsonArraySplitter("[]").size());
+        assertEquals(0, new JsonArraySplitter("\n[ \t]").size());
+    }
+
+    @Test
+    void testNotAnArray() {
+        for (String text : new String[] {"", "  ", "{}", "[1, 2", "[\"]"}) {
+            try {
+                new JsonArraySplitter(text);
+                fail("JSONException should have been thrown for " + text);
+            } catch (JSONException e) {
+                System.out.println("Caught JSONException");
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package parsers;
+
+import model.Priority;
+import model.Status;
+import model.Task;
+import model.exceptions.NullArgumentException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import parsers.exceptions.ParsingException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMetadataParser {
+    private static final String[] INPUTS = {
+        "Buy milk ## today; important; grocery",
+        "second ## tomorrow; urgent",
+        "essay ## cpsc210; exams; in progress; important; urgent",
+        "case ## TODAY; In Progress; Tag; tag; TAG; done; tomorrow",
+        "spaces ##  ;  a  ;;  b ; ; ",
+        "two sections ## up next ## done; more",
+        "## to do; x",
+        "a ###b;c",
+        "multi ## done; up next; to do; today; today; urgent; urgent",
+    };
+
+    private MetadataParser parser;
+
+    @BeforeEach
+    void runBefore() {
+        parser = new MetadataParser();
+    }
+
+    @Test
+    void testSameResultsAsTagParser() throws ParsingException {
+        for (String input : INPUTS) {
+            Task expected = new Task("expected");
+            TagParser tagParser = new TagParser();
+            tagParser.parse(input, expected);
+            Task actual = new Task("actual");
+            assertEquals(tagParser.getDescription(), parser.apply(input, actual), input);
+            assertEquals(expected.getTags(), actual.getTags(), input);
+            assertEquals(expected.getPriority(), actual.getPriority(), input);
+            assertEquals(expected.getStatus(), actual.getStatus(), input);
+            assertEquals(expected.getDueDate() == null, actual.getDueDate() == null, input);
+            if (expected.getDueDate() != null) {
+                assertEquals(expected.getDueDate().isDueToday(), actual.getDueDate().isDueToday(), input);
+            }
+        }
+    }
+
+    @Test
+    void testNoMetadata() {
+        Task task = new Task("plain");
+        assertNull(parser.apply("no meta-data; here", task));
+        assertTrue(task.getTags().isEmpty());
+        assertEquals(new Priority(4), task.getPriority());
+        assertEquals(Status.TODO, task.getStatus());
+        try {
+            parser.parse("no meta-data", task);
+            fail("ParsingException should have been thrown");
+        } catch (ParsingException e) {
+            System.out.println("Caught ParsingException");
+        }
+    }
+
+    @Test
+    void testParseKeepsDescription() throws ParsingException {
+        Task task = new Task("t");
+        parser.parse("read ## cpsc210", task);
+        assertEquals("read ", parser.getDescription());
+        assertTrue(task.containsTag("cpsc210"));
+    }
+
+    @Test
+    void testNothingAfterSeparator() {
+        Task task = new Task("t");
+        assertEquals("dangling ", parser.apply("dangling ##", task));
+        assertTrue(task.getTags().isEmpty());
+    }
+
+    @Test
+    void testNullArguments() {
+        try {
+            parser.apply(null, new Task("t"));
+            fail("NullArgumentException should have been thrown");
+        } catch (NullArgumentException e) {
+            System.out.println("Caught NullArgumentException");
+        }
+    }
+}
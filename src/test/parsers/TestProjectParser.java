@@ -0,0 +1,145 @@
+package parsers;
+
+import model.*;
+import org.json.JSONException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.Jsonifier;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestProjectParser {
+    private ProjectParser parser;
+    private Project root;
+    private Project sub;
+    private Task shared;
+
+    @BeforeEach
+    void runBefore() {
+        parser = new ProjectParser();
+        Project.setRollupVerification(true);
+        root = new Project("root");
+        sub = new Project("sub \"project\"");
+        Task first = new Task("first ## cpsc210; important");
+        first.setEstimatedTimeToComplete(4);
+        first.setProgress(50);
+        shared = new Task("shared ## tomorrow");
+        shared.setEstimatedTimeToComplete(2);
+        shared.setProgress(100);
+        Task last = new Task("last");
+        last.setEstimatedTimeToComplete(8);
+        sub.add(shared);
+        sub.add(new Project("empty"));
+        root.add(first);
+        root.add(sub);
+        root.add(shared);
+        root.add(last);
+    }
+
+    @AfterEach
+    void runAfter() {
+        Project.setRollupVerification(false);
+    }
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Project read = parser.parse(new StringReader(write(root)));
+
+        assertEquals(root.getId(), read.getId());
+        assertEquals(ids(root), ids(read));
+        assertEquals(root.getEstimatedTimeToComplete(), read.getEstimatedTimeToComplete());
+        assertEquals(root.getProgress(), read.getProgress());
+        assertEquals(root.getSumOfTaskProgress(), read.getSumOfTaskProgress());
+        Task first = (Task) read.getChildren().iterator().next();
+        assertTrue(first.containsTag("cpsc210"));
+        assertEquals(new Priority(2), first.getPriority());
+        assertEquals(50, first.getProgress());
+
+        Project readSub = (Project) get(read, 1);
+        assertEquals("sub \"project\"", readSub.getDescription());
+        assertEquals(ids(sub), ids(readSub));
+        assertSame(get(readSub, 0), get(read, 2));
+        assertEquals(2, get(read, 2).getParents().size());
+        assertEquals(write(root), write(read));
+    }
+
+    @Test
+    void testDeepTree() throws IOException {
+        Project.setRollupVerification(false);
+        Task task = new Task("deepest");
+        task.setEstimatedTimeToComplete(3);
+        Project top = new Project("level 20000");
+        top.add(task);
+        for (int i = 19_999; i > 0; i--) {
+            Project parent = new Project("level " + i);
+            parent.add(top);
+            top = parent;
+        }
+
+        Project read = parser.parse(new StringReader(write(top)));
+        assertEquals(3, read.getEstimatedTimeToComplete());
+        assertEquals(write(top), write(read));
+    }
+
+    @Test
+    void testInvalidTaskIsSkipped() {
+        String text = "{\"id\":1,\"description\":\"p\",\"todos\":[{\"description\":\"no tags\"},"
+                + "{\"id\":1,\"description\":\"d\",\"tags\":[],\"due-date\":null,\"status\":\"TODO\","
+                + "\"priority\":{\"important\":false,\"urgent\":false},\"etc-hours\":-1},{\"ref\":99}]}";
+        Project read = parser.parse(new StringReader(text));
+        assertEquals(0, read.getNumberOfTasks());
+    }
+
+    @Test
+    void testInvalidProject() throws IOException {
+        Project project = new Project("project");
+        project.add(new Task("tagged ## inInvalidProjectFile"));
+        String text = write(project).replace("\"project\"", "\"\"");
+        TagRegistry.removeTask((Task) project.getChildren().iterator().next());
+        try {
+            parser.parse(new StringReader(text));
+            fail("JSONException should have been thrown");
+        } catch (JSONException e) {
+            System.out.println("Caught JSONException");
+        }
+        assertTrue(TagRegistry.findTag("inInvalidProjectFile").getTasks().isEmpty());
+    }
+
+    @Test
+    void testNotAProject() {
+        for (String text : new String[] {"[]", "{\"id\":1,\"description\":\"p\",\"todos\":[}", "{\"ref\":1}",
+                "{\"id\":1,\"description\":\"p\",\"todos\":[]} {}"}) {
+            try {
+                parser.parse(new StringReader(text));
+                fail("JSONException should have been thrown");
+            } catch (JSONException e) {
+                System.out.println("Caught JSONException");
+            }
+        }
+    }
+
+    private String write(Project project) throws IOException {
+        StringWriter out = new StringWriter();
+        Jsonifier.writeProject(project, out);
+        return out.toString();
+    }
+
+    private List<Long> ids(Project project) {
+        List<Long> ids = new ArrayList<>();
+        for (Todo t : project.getChildren()) {
+            ids.add(t.getId());
+        }
+        return ids;
+    }
+
+    private Todo get(Project project, int index) {
+        return new ArrayList<>(project.getChildren()).get(index);
+    }
+}
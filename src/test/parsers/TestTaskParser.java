@@ -0,0 +1,183 @@
+package parsers;
+
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.json.JSONException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.Jsonifier;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskParser {
+    private TaskParser parser;
+    private List<Task> tasks;
+
+    @BeforeEach
+    void runBefore() {
+        parser = new TaskParser();
+        Task t1 = new Task("first ## cpsc210; exams; in progress; important");
+        Task t2 = new Task("second ## tomorrow; urgent");
+        Task t3 = new Task("third");
+        t3.setPriority(new Priority(1));
+        t3.setStatus(Status.DONE);
+        tasks = new ArrayList<>(Arrays.asList(t1, t2, t3));
+    }
+
+    @Test
+    void testRoundTripKeepsTasksAndIds() {
+        List<Task> parsed = parser.parse(Jsonifier.taskListToJson(tasks).toString());
+
+        assertEquals(tasks, parsed);
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).getId(), parsed.get(i).getId());
+            assertEquals(tasks.get(i).getTags(), parsed.get(i).getTags());
+        }
+    }
+
+    @Test
+    void testTaskWithoutIdGetsNewId() {
+        String input = "[{\"due-date\":null,\"description\":\"no id\",\"priority\":{\"important\":false,"
+                + "\"urgent\":false},\"tags\":[],\"status\":\"TODO\"}]";
+        List<Task> parsed = parser.parse(input);
+
+        assertEquals(1, parsed.size());
+        assertTrue(parsed.get(0).getId() > tasks.get(2).getId());
+    }
+
+    @Test
+    void testDuplicateIdIsReassigned() {
+        tasks.add(tasks.get(0));
+        List<Task> parsed = parser.parse(Jsonifier.taskListToJson(tasks).toString());
+
+        assertEquals(4, parsed.size());
+        assertEquals(tasks.get(0).getId(), parsed.get(0).getId());
+        assertNotEquals(parsed.get(0).getId(), parsed.get(3).getId());
+    }
+
+    @Test
+    void testMalformedIdSkipsTask() {
+        String input = "[{\"id\":\"x\",\"due-date\":null,\"description\":\"bad id\",\"priority\":"
+                + "{\"important\":false,\"urgent\":false},\"tags\":[],\"status\":\"TODO\"}]";
+        assertTrue(parser.parse(input).isEmpty());
+    }
+
+    @Test
+    void testSavedDescriptionIsNotParsedAgain() {
+        String input = "[{\"due-date\":null,\"description\":\"notes ## urgent; done\",\"priority\":"
+                + "{\"important\":true,\"urgent\":false},\"tags\":[{\"name\":\"cpsc210\"}],\"status\":\"UP_NEXT\"}]";
+        Task parsed = parser.parse(input).get(0);
+
+        assertEquals("notes ## urgent; done", parsed.getDescription());
+        assertEquals(new Priority(2), parsed.getPriority());
+        assertEquals(Status.UP_NEXT, parsed.getStatus());
+        assertEquals(1, parsed.getTags().size());
+        assertTrue(parsed.containsTag("cpsc210"));
+    }
+
+    @Test
+    void testReaderGivesSameTasksAsString() {
+        String input = Jsonifier.taskListToJson(tasks).toString();
+        List<Task> fromString = parser.parse(input);
+        List<Task> fromReader = parser.parse(new StringReader(input));
+
+        assertEquals(fromString.size(), fromReader.size());
+        for (int i = 0; i < fromString.size(); i++) {
+            assertEquals(fromString.get(i).getId(), fromReader.get(i).getId());
+            assertEquals(fromString.get(i).getDescription(), fromReader.get(i).getDescription());
+            assertEquals(fromString.get(i).getTags(), fromReader.get(i).getTags());
+        }
+    }
+
+    @Test
+    void testIteratorReadsLazily() {
+        String truncated = "[" + Jsonifier.taskToJson(tasks.get(0)) + ",{ not json";
+        Iterator<Task> parsed = parser.iterator(new StringReader(truncated));
+
+        assertTrue(parsed.hasNext());
+        assertEquals(tasks.get(0).getId(), parsed.next().getId());
+        try {
+            parsed.hasNext();
+            fail("JSONException should have been thrown");
+        } catch (JSONException e) {
+            System.out.println("Caught JSONException");
+        }
+    }
+
+    @Test
+    void testIteratorSkipsElementsThatAreNotTasks() {
+        String task = Jsonifier.taskToJson(tasks.get(0)).toString();
+        Iterator<Task> parsed = parser.iterator(new StringReader("[1,," + task + ",\"x\",{},null,]"));
+
+        assertTrue(parsed.hasNext());
+        assertEquals(tasks.get(0).getId(), parsed.next().getId());
+        assertFalse(parsed.hasNext());
+        try {
+            parsed.next();
+            fail("NoSuchElementException should have been thrown");
+        } catch (NoSuchElementException e) {
+            System.out.println("Caught NoSuchElementException");
+        }
+    }
+
+    @Test
+    void testEmptyAndInvalidArrays() {
+        assertTrue(parser.parse(new StringReader(" [ ] ")).isEmpty());
+        try {
+            parser.parse(new StringReader("{}"));
+            fail("JSONException should have been thrown");
+        } catch (JSONException e) {
+            System.out.println("Caught JSONException");
+        }
+    }
+
+    @Test
+    void testParallelGivesSameTasksInSameOrder() {
+        for (int i = 0; i < 2000; i++) {
+            Task t = new Task("task " + i + " ## tag" + i % 7 + "; tag" + i % 3);
+            t.setPriority(new Priority(1 + i % 4));
+            tasks.add(i % 10 == 0 ? tasks.get(i / 2) : t);
+        }
+        String task = "{\"id\":" + tasks.get(5).getId() + ",\"description\":\"no other data\"}";
+        String input = Jsonifier.taskListToJson(tasks).toString().replaceFirst("\\[", "[" + task + ",1,,");
+        long sequentialIds = new Task("before sequential").getId();
+        List<Task> sequential = parser.parse(input);
+        long parallelIds = new Task("before parallel").getId();
+        List<Task> parallel = parser.parseParallel(input);
+
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            Task expected = sequential.get(i);
+            Task actual = parallel.get(i);
+            // new ids are given in the same order, from where the counter of ids was
+            assertEquals(expected.getId() > sequentialIds ? expected.getId() - sequentialIds : -expected.getId(),
+                    actual.getId() > parallelIds ? actual.getId() - parallelIds : -actual.getId());
+            assertEquals(expected.getDescription(), actual.getDescription());
+            assertEquals(expected.getTags(), actual.getTags());
+            assertEquals(expected.getPriority(), actual.getPriority());
+            assertEquals(expected.getStatus(), actual.getStatus());
+        }
+        assertNotEquals(tasks.get(5).getId(), parallel.get(5).getId());
+    }
+
+    @Test
+    void testParallelInvalidArrays() {
+        assertTrue(parser.parseParallel(" [ ] ").isEmpty());
+        for (String input : new String[] {"{}", "[{}", "[{\"a\":\"]}", "[{\"a\" 1}]", "[{} {}]"}) {
+            try {
+                parser.parseParallel(input);
+                fail("JSONException should have been thrown for " + input);
+            } catch (JSONException e) {
+                System.out.println("Caught JSONException");
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package persistence;
+
+import model.DueDate;
+import model.Priority;
+import model.Task;
+import utility.Benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures saving 100k tasks by building the JSON document and writing its text (as JsonFileIO did,
+// minus its second copy printed to System.out) against streaming it with Jsonifier.writeTaskList.
+// Both write through a BufferedWriter into a writer that discards its input, so only the cost of
+// producing the text is measured. The bytes allocated per save are printed as well.
+public class JsonifierBenchmark {
+    private static final int TASKS = 100_000;
+
+    public static void main(String[] args) {
+        List<Task> tasks = tasks();
+        run("save " + TASKS + " tasks, JSON document", () -> {
+            Writer writer = new BufferedWriter(new DiscardingWriter());
+            writer.write(Jsonifier.taskListToJson(tasks).toString());
+            writer.flush();
+        });
+        run("save " + TASKS + " tasks, streamed", () -> {
+            Writer writer = new BufferedWriter(new DiscardingWriter());
+            Jsonifier.writeTaskList(tasks, writer);
+            writer.flush();
+        });
+    }
+
+    private interface Save {
+        void run() throws IOException;
+    }
+
+    // EFFECTS: times save, then prints the bytes it allocates
+    private static void run(String label, Save save) {
+        Runnable op = () -> {
+            try {
+                save.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+        Benchmark.run(label, 3, 10, op);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long before = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        op.run();
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - before;
+        System.out.printf("%-50s %14.1f MB allocated%n", label, allocated / 1e6);
+    }
+
+    // EFFECTS: returns TASKS tasks, half of them with tags and a due date
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("Read chapter " + i + " of the textbook");
+            if (i % 2 == 0) {
+                t.addTag("cpsc210");
+                t.addTag("tag" + i % 50);
+                t.setDueDate(new DueDate());
+            }
+            t.setPriority(new Priority(1 + i % 4));
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    // A writer that ignores everything written to it
+    private static class DiscardingWriter extends Writer {
+        @Override
+        public void write(char[] buffer, int offset, int length) {
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
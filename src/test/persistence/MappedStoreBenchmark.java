@@ -0,0 +1,100 @@
+package persistence;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.TagRegistry;
+import model.Task;
+import utility.Benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Measures a store of 1M tasks in a MappedTaskStore against decoding all of them from a binary snapshot (as
+// loading does): opening the store (which indexes it), scanning it for the tasks in progress, and building
+// 50 tasks picked at random by id, as a view showing one page of them would.
+public class MappedStoreBenchmark {
+    private static final int TASKS = 1_000_000;
+    private static final int PAGE = 50;
+
+    public static void main(String[] args) throws IOException {
+        File file = new File(Files.createTempDirectory("store").toFile(), "tasks.store");
+        List<Task> tasks = tasks();
+        byte[] snapshot = encode(tasks);
+        try (MappedTaskStore store = new MappedTaskStore(file)) {
+            store.putAll(tasks);
+        }
+        long[] ids = tasks.stream().mapToLong(Task::getId).toArray();
+        tasks.forEach(TagRegistry::removeTask);
+        tasks = null;
+        System.out.printf("%-50s %14.2f MB%n", "store size", (file.length() + heapOf(file).length()) / 1e6);
+
+        Benchmark.run("decode " + TASKS + " tasks, binary", 1, 3, () ->
+                decode(snapshot).forEach(TagRegistry::removeTask));
+        Benchmark.run("open store of " + TASKS + " tasks", 1, 5, () -> Benchmark.consume(sizeOf(file)));
+        try (MappedTaskStore store = new MappedTaskStore(file)) {
+            Benchmark.run("scan for tasks in progress", 2, 10, () ->
+                    Benchmark.consume(store.scan(r -> r.getStatus() == Status.IN_PROGRESS)));
+            Random random = new Random(42);
+            Benchmark.run("get a page of " + PAGE + " tasks by id", 100, 1000, () -> {
+                for (int i = 0; i < PAGE; i++) {
+                    TagRegistry.removeTask(store.get(ids[random.nextInt(ids.length)]));
+                }
+            });
+        }
+    }
+
+    // EFFECTS: opens the store saved in file, and returns its number of tasks
+    private static int sizeOf(File file) {
+        try (MappedTaskStore store = new MappedTaskStore(file)) {
+            return store.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns the heap of the store saved in file
+    private static File heapOf(File file) {
+        return new File(file.getPath() + ".heap");
+    }
+
+    // EFFECTS: returns tasks in binary format
+    private static byte[] encode(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskCodecs.BINARY.encode(tasks, out);
+        return out.toByteArray();
+    }
+
+    // EFFECTS: returns the tasks decoded from snapshot
+    private static List<Task> decode(byte[] snapshot) {
+        try {
+            return TaskCodecs.BINARY.decode(new ByteArrayInputStream(snapshot), snapshot.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns TASKS tasks, half of them with tags and a due date
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("Read chapter " + i + " of the textbook");
+            if (i % 2 == 0) {
+                t.addTag("cpsc210");
+                t.addTag("tag" + i % 50);
+                t.setDueDate(new DueDate());
+            }
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(i % 5 == 0 ? Status.IN_PROGRESS : Status.TODO);
+            tasks.add(t);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,124 @@
+package persistence;
+
+import model.Priority;
+import model.Status;
+import model.TagRegistry;
+import model.Task;
+import utility.Benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures showing the first screen of a list of 1M tasks (opening the store, listing the ids of its tasks and
+// reading the headers of the first 50) against decoding all of them from a binary snapshot (as loading does),
+// then scrolling through the list one screen at a time with a TaskCache of DEFAULT_CAPACITY tasks, hydrating
+// every task shown, and the heap held by the cache once scrolled against the heap held by the decoded tasks.
+public class TaskCacheBenchmark {
+    private static final int TASKS = 1_000_000;
+    private static final int SCREEN = 50;
+    private static final int SCROLLED = 20_000;
+
+    public static void main(String[] args) throws IOException {
+        File file = new File(Files.createTempDirectory("cache").toFile(), "tasks.store");
+        List<Task> tasks = tasks();
+        byte[] snapshot = encode(tasks);
+        try (MappedTaskStore store = new MappedTaskStore(file)) {
+            store.putAll(tasks);
+        }
+        tasks.forEach(TagRegistry::removeTask);
+        tasks = null;
+
+        Benchmark.run("decode " + TASKS + " tasks, binary", 1, 3, () ->
+                decode(snapshot).forEach(TagRegistry::removeTask));
+        Benchmark.run("first screen from store of " + TASKS + " tasks", 1, 5, () ->
+                Benchmark.consume(firstScreen(file)));
+        try (MappedTaskStore store = new MappedTaskStore(file)) {
+            long[] ids = store.scan(r -> true);
+            Benchmark.run("scroll " + SCROLLED + " tasks, cache of " + TaskCache.DEFAULT_CAPACITY, 1, 5, () ->
+                    Benchmark.consume(scroll(store, ids)));
+            printHeap(store, ids, snapshot);
+        }
+    }
+
+    // EFFECTS: prints the heap held by a cache of the tasks in store, scrolled through the given ids, and by the
+    //          tasks decoded from snapshot
+    private static void printHeap(MappedTaskStore store, long[] ids, byte[] snapshot) {
+        long before = usedMemory();
+        TaskCache cache = scroll(store, ids);
+        System.out.printf("%-50s %14.2f MB%n", "heap held by the cache", (usedMemory() - before) / 1e6);
+        Benchmark.consume(cache);
+        before = usedMemory();
+        List<Task> decoded = decode(snapshot);
+        System.out.printf("%-50s %14.2f MB%n", "heap held by the decoded tasks", (usedMemory() - before) / 1e6);
+        Benchmark.consume(decoded);
+    }
+
+    // EFFECTS: opens the store saved in file, and returns the headers of its first SCREEN tasks
+    private static List<TaskHeader> firstScreen(File file) {
+        try (MappedTaskStore store = new MappedTaskStore(file)) {
+            TaskCache cache = new TaskCache(store, TaskCache.DEFAULT_CAPACITY);
+            long[] ids = cache.getIds();
+            List<TaskHeader> headers = new ArrayList<>(SCREEN);
+            for (int i = 0; i < SCREEN; i++) {
+                headers.add(cache.getHeader(ids[i]));
+            }
+            return headers;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns a new cache of the tasks in store, having hydrated its first SCROLLED tasks, of the given ids
+    private static TaskCache scroll(MappedTaskStore store, long[] ids) {
+        TaskCache cache = new TaskCache(store, TaskCache.DEFAULT_CAPACITY);
+        for (int i = 0; i < SCROLLED; i++) {
+            Benchmark.consume(cache.get(ids[i]));
+        }
+        return cache;
+    }
+
+    // EFFECTS: returns the heap in use, after a collection
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // EFFECTS: returns tasks in binary format
+    private static byte[] encode(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskCodecs.BINARY.encode(tasks, out);
+        return out.toByteArray();
+    }
+
+    // EFFECTS: returns the tasks decoded from snapshot
+    private static List<Task> decode(byte[] snapshot) {
+        try {
+            return TaskCodecs.BINARY.decode(new ByteArrayInputStream(snapshot), snapshot.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns TASKS tasks, half of them tagged
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("Read chapter " + i + " of the textbook");
+            if (i % 2 == 0) {
+                t.addTag("cpsc210");
+                t.addTag("tag" + i % 50);
+            }
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(i % 5 == 0 ? Status.IN_PROGRESS : Status.TODO);
+            tasks.add(t);
+        }
+        return tasks;
+    }
+}
@@ -0,0 +1,69 @@
+package persistence;
+
+import model.DueDate;
+import model.Priority;
+import model.TagRegistry;
+import model.Task;
+import utility.Benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Measures encoding and decoding 100k tasks with each codec (JSON, NDJSON, then binary), in memory so that only the
+// codecs are measured, and prints the size of each encoding. Decoded tasks are removed from their tags
+// afterwards, so that the tags do not grow from one iteration to the next.
+public class TaskCodecBenchmark {
+    private static final int TASKS = 100_000;
+
+    public static void main(String[] args) {
+        List<Task> tasks = tasks();
+        for (TaskCodec codec : new TaskCodec[] {TaskCodecs.JSON, TaskCodecs.NDJSON, TaskCodecs.BINARY}) {
+            byte[] encoded = encode(codec, tasks);
+            Benchmark.run("encode " + TASKS + " tasks, " + codec.getName(), 3, 10,
+                    () -> Benchmark.consume(encode(codec, tasks)));
+            Benchmark.run("decode " + TASKS + " tasks, " + codec.getName(), 3, 10,
+                    () -> decode(codec, encoded).forEach(TagRegistry::removeTask));
+            System.out.printf("%-50s %14.2f MB%n", "size, " + codec.getName(), encoded.length / 1e6);
+        }
+    }
+
+    // EFFECTS: returns tasks encoded by codec
+    private static byte[] encode(TaskCodec codec, List<Task> tasks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            codec.encode(tasks, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    // EFFECTS: returns the tasks decoded by codec from encoded
+    private static List<Task> decode(TaskCodec codec, byte[] encoded) {
+        try {
+            return codec.decode(new ByteArrayInputStream(encoded), encoded.length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // EFFECTS: returns TASKS tasks, half of them with tags and a due date
+    private static List<Task> tasks() {
+        List<Task> tasks = new ArrayList<>(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            Task t = new Task("Read chapter " + i + " of the textbook");
+            if (i % 2 == 0) {
+                t.addTag("cpsc210");
+                t.addTag("tag" + i % 50);
+                t.setDueDate(new DueDate());
+            }
+            t.setPriority(new Priority(1 + i % 4));
+            tasks.add(t);
+        }
+        return tasks;
+    }
+}
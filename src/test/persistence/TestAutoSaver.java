@@ -0,0 +1,64 @@
+package persistence;
+
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestAutoSaver {
+    private SnapshotFile snapshot;
+    private List<Task> tasks;
+    private TaskJournal journal;
+    private AutoSaver saver;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        File directory = Files.createTempDirectory("autosave").toFile();
+        snapshot = new SnapshotFile(new File(directory, "tasks.json"), 0);
+        tasks = new ArrayList<>(Arrays.asList(new Task("first"), new Task("second")));
+        journal = new TaskJournal(snapshot, new File(directory, "tasks.journal"),
+                TaskJournal.DEFAULT_COMPACT_THRESHOLD, () -> tasks);
+        journal.replay(tasks);
+        saver = new AutoSaver(journal, 10, TimeUnit.MILLISECONDS, Runnable::run);
+    }
+
+    @Test
+    void testSavesChangesOnly() throws IOException, InterruptedException {
+        saver.start();
+        waitFor(() -> journal.getMetrics().getSkipped() > 0);
+        assertEquals(0, journal.getMetrics().getSaves());
+        assertFalse(snapshot.getFile().exists());
+
+        tasks.get(1).setDescription("edited");
+        waitFor(() -> journal.getMetrics().getSaves() == 1);
+        saver.stop();
+        assertFalse(journal.hasUnsavedChanges());
+        assertEquals("edited", snapshot.read().get(1).getDescription());
+        assertEquals(snapshot.getFile().length(), journal.getMetrics().getLastSnapshotBytes());
+        assertTrue(journal.getMetrics().getMaxLatencyMillis() >= journal.getMetrics().getLastWriteMillis());
+    }
+
+    @Test
+    void testCloseSkipsSaveWhenNothingChanged() {
+        journal.close();
+        assertFalse(snapshot.getFile().exists());
+    }
+
+    // EFFECTS: waits (up to 5 seconds) until condition holds
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
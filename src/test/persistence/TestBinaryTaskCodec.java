@@ -0,0 +1,158 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestBinaryTaskCodec {
+    private static final TaskCodec CODEC = TaskCodecs.BINARY;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        String tagged = "caf\u00e9 \u2615 ## cpsc210; tag";  // accented e, hot beverage
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Task t = new Task(i % 3 == 0 ? tagged + i % 7 : "task " + i);
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(Status.values()[i % Status.values().length]);
+            if (i % 2 == 0) {
+                t.setDueDate(new DueDate(new Date((i - 1000) * 7_200_000L)));
+            }
+            tasks.add(t);
+        }
+
+        List<Task> decoded = decode(encode(tasks));
+        assertEquals(Jsonifier.taskListToJson(tasks).toString(), Jsonifier.taskListToJson(decoded).toString());
+        assertTrue(TagRegistry.findTag("tag3").getTasks().contains(decoded.get(3)));
+    }
+
+    @Test
+    void testSavedFieldsAreEncodedIdentically() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            Task t = new Task("task " + i % 10 + " ## tag" + i % 3 + "; other" + i % 5);
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(Status.values()[i % Status.values().length]);
+            if (i % 2 == 0) {
+                t.setDueDate(new DueDate(new Date(i * 7_200_000L)));
+            }
+            tasks.add(t);
+        }
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        CODEC.encodeSaved(SavedFields.copy(tasks), saved);
+        assertArrayEquals(encode(tasks), saved.toByteArray());
+    }
+
+    @Test
+    void testStringsAreWrittenOnce() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            tasks.add(new Task("the same description ## cpsc210"));
+        }
+        assertTrue(encode(tasks).length < 100 * 10);
+    }
+
+    @Test
+    void testEmptyList() throws IOException {
+        assertTrue(decode(encode(new ArrayList<>())).isEmpty());
+    }
+
+    @Test
+    void testDuplicateIdIsReplaced() throws IOException {
+        Task task = new Task("twice");
+        List<Task> decoded = decode(encode(Arrays.asList(task, task)));
+        assertEquals(task.getId(), decoded.get(0).getId());
+        assertNotEquals(task.getId(), decoded.get(1).getId());
+        assertEquals("twice", decoded.get(1).getDescription());
+    }
+
+    @Test
+    void testCorruptBlockIsDetected() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            tasks.add(new Task("task ## inCorruptSnapshot"));
+        }
+        byte[] encoded = encode(tasks);
+        tasks.forEach(TagRegistry::removeTask);
+        encoded[encoded.length - 20] ^= 1;
+        try {
+            decode(encoded);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+        assertTrue(TagRegistry.findTag("inCorruptSnapshot").getTasks().isEmpty());
+    }
+
+    @Test
+    void testCorruptBlockLength() throws IOException {
+        byte[] encoded = {'P', 'T', 'D', 'B', BinaryTaskCodec.VERSION, 1, (byte) 0xff, (byte) 0xff, (byte) 0xff, 0x03};
+        try {
+            decode(encoded);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+        try {
+            CODEC.decode(new ByteArrayInputStream(encoded), -1);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+
+    @Test
+    void testTruncatedList() throws IOException {
+        byte[] encoded = encode(Arrays.asList(new Task("first"), new Task("second")));
+        try {
+            decode(Arrays.copyOf(encoded, encoded.length - 1));
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+
+    @Test
+    void testUnsupportedVersion() throws IOException {
+        byte[] encoded = encode(new ArrayList<>());
+        encoded[4] = BinaryTaskCodec.VERSION + 1;
+        try {
+            decode(encoded);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+
+    @Test
+    void testDetect() throws IOException {
+        byte[] binary = encode(new ArrayList<>());
+        byte[] json = " \n[]".getBytes(StandardCharsets.UTF_8);
+        byte[] other = "<tasks/>".getBytes(StandardCharsets.UTF_8);
+        assertEquals(TaskCodecs.BINARY, TaskCodecs.detect(binary, binary.length));
+        assertEquals(TaskCodecs.JSON, TaskCodecs.detect(json, json.length));
+        assertNull(TaskCodecs.detect(other, other.length));
+        assertNull(TaskCodecs.detect(binary, 0));
+    }
+
+    private byte[] encode(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CODEC.encode(tasks, out);
+        return out.toByteArray();
+    }
+
+    private List<Task> decode(byte[] encoded) throws IOException {
+        return CODEC.decode(new ByteArrayInputStream(encoded), encoded.length);
+    }
+}
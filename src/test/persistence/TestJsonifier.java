@@ -0,0 +1,91 @@
+package persistence;
+
+import model.DueDate;
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonifier {
+    private List<Task> tasks;
+
+    @BeforeEach
+    void runBefore() {
+        Task t1 = new Task("first ## cpsc210; exams; in progress; important");
+        Task t2 = new Task("second ## tomorrow; urgent; up next");
+        Task t3 = new Task("quotes \" and \\ and </script> and \u0001 and " + (char) 0x2028 + " and \u00e9");
+        t3.addTag("tag with \"quotes\"");
+        t3.setDueDate(new DueDate());
+        t3.setPriority(new Priority(1));
+        t3.setStatus(Status.DONE);
+        tasks = new ArrayList<>(Arrays.asList(t1, t2, t3));
+    }
+
+    @Test
+    void testStreamedTaskListIsIdentical() throws IOException {
+        assertEquals(Jsonifier.taskListToJson(tasks).toString(), streamed(tasks));
+    }
+
+    @Test
+    void testStreamedTaskIsIdentical() throws IOException {
+        for (Task t : tasks) {
+            StringWriter writer = new StringWriter();
+            Jsonifier.writeTask(t, writer);
+            assertEquals(Jsonifier.taskToJson(t).toString(), writer.toString());
+        }
+    }
+
+    @Test
+    void testSavedFieldsAreWrittenIdentically() throws IOException {
+        StringWriter list = new StringWriter();
+        Jsonifier.writeSavedList(SavedFields.copy(tasks), list);
+        assertEquals(Jsonifier.taskListToJson(tasks).toString(), list.toString());
+        for (Task t : tasks) {
+            StringWriter writer = new StringWriter();
+            Jsonifier.writeSaved(new SavedFields(t), writer);
+            assertEquals(Jsonifier.taskToJson(t).toString(), writer.toString());
+        }
+    }
+
+    @Test
+    void testLongListIsIdentical() throws IOException {
+        for (int i = 0; i < 1000; i++) {
+            tasks.add(new Task("task " + i + " ## tag" + i % 7));
+        }
+        assertEquals(Jsonifier.taskListToJson(tasks).toString(), streamed(tasks));
+    }
+
+    @Test
+    void testEmptyAndNullLists() throws IOException {
+        assertEquals(Jsonifier.taskListToJson(Collections.emptyList()).toString(), streamed(Collections.emptyList()));
+        assertEquals(Jsonifier.taskListToJson(null).toString(), streamed(null));
+    }
+
+    @Test
+    void testEveryCharacterEscapedLikeJsonObject() throws IOException {
+        StringBuilder description = new StringBuilder("<");
+        for (char c = 1; c < 0x2200; c++) {
+            description.append(c).append(c == '<' ? "/" : "");
+        }
+        Task task = new Task(description.toString());
+        StringWriter writer = new StringWriter();
+        Jsonifier.writeTask(task, writer);
+        assertEquals(Jsonifier.taskToJson(task).toString(), writer.toString());
+    }
+
+    private String streamed(List<Task> tasks) throws IOException {
+        StringWriter writer = new StringWriter();
+        Jsonifier.writeTaskList(tasks, writer);
+        return writer.toString();
+    }
+}
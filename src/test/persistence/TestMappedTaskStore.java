@@ -0,0 +1,225 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestMappedTaskStore {
+    private File file;
+    private MappedTaskStore store;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        file = new File(Files.createTempDirectory("store").toFile(), "tasks.store");
+        store = new MappedTaskStore(file);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testPutThenGet() throws IOException {
+        Task task = new Task("caf\u00e9 \u2615 ## cpsc210; urgent; in progress");  // accented e, hot beverage
+        Calendar due = Calendar.getInstance();
+        due.set(2030, Calendar.MARCH, 4, 17, 30, 0);
+        task.setDueDate(new DueDate(due.getTime()));
+        task.setEstimatedTimeToComplete(12);
+        task.setProgress(40);
+        store.put(task);
+        store.put(new Task("other"));
+
+        Task read = store.get(task.getId());
+        assertEquals(2, store.size());
+        assertEquals("caf\u00e9 \u2615 ", read.getDescription());  // accented e, hot beverage
+        assertTrue(read.containsTag("cpsc210"));
+        assertEquals(task.getPriority(), read.getPriority());
+        assertEquals(Status.IN_PROGRESS, read.getStatus());
+        assertEquals(task.getDueDate().toString(), read.getDueDate().toString());
+        assertEquals(12, read.getEstimatedTimeToComplete());
+        assertEquals(40, read.getProgress());
+        assertNull(store.get(-1));
+    }
+
+    @Test
+    void testEditInPlace() throws IOException {
+        Task task = new Task("a long description ## first; second");
+        store.put(task);
+        long length = file.length();
+        task.setStatus(Status.DONE);
+        task.setDescription("shorter");
+        task.removeTag("second");
+        store.put(task);
+
+        assertEquals(1, store.size());
+        assertEquals(length, file.length());
+        Task read = store.get(task.getId());
+        assertEquals("shorter", read.getDescription());
+        assertEquals(Status.DONE, read.getStatus());
+        assertEquals(1, read.getTags().size());
+    }
+
+    @Test
+    void testRemoveReusesSlot() throws IOException {
+        Task first = new Task("first");
+        Task second = new Task("second");
+        store.put(first);
+        store.put(second);
+        assertTrue(store.remove(first.getId()));
+        assertFalse(store.remove(first.getId()));
+        assertFalse(store.contains(first.getId()));
+        assertNull(store.get(first.getId()));
+
+        Task third = new Task("third");
+        store.put(third);
+        assertEquals(2, store.size());
+        assertEquals(third.getId(), store.scan(r -> true)[0]);
+    }
+
+    @Test
+    void testReopen() throws IOException {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            Task t = new Task("task " + i + " ## tag" + i % 10);
+            t.setStatus(i % 3 == 0 ? Status.DONE : Status.TODO);
+            tasks.add(t);
+        }
+        store.putAll(tasks);
+        store.remove(tasks.get(5).getId());
+        store.close();
+
+        store = new MappedTaskStore(file);
+        assertEquals(2999, store.size());
+        assertFalse(store.contains(tasks.get(5).getId()));
+        assertEquals("task 2999 ", store.get(tasks.get(2999).getId()).getDescription());
+        assertEquals(1000, store.scan(r -> r.getStatus() == Status.DONE).length);
+    }
+
+    @Test
+    void testScanThenGetPage() throws IOException {
+        for (int i = 0; i < 100; i++) {
+            Task t = new Task("task " + i);
+            t.setEstimatedTimeToComplete(i);
+            store.put(t);
+        }
+        long[] ids = store.scan(r -> r.getEstimatedTimeToComplete() >= 90 && !r.hasDueDate());
+        assertEquals(10, ids.length);
+
+        List<Task> page = store.get(ids, 2, 5);
+        assertEquals(3, page.size());
+        assertEquals("task 92", page.get(0).getDescription());
+        assertEquals(94, page.get(2).getEstimatedTimeToComplete());
+    }
+
+    @Test
+    void testScanOnePage() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            store.put(new Task("task " + i));
+        }
+        long[] all = store.scan(r -> true);
+        store.remove(all[1]);
+
+        long[] page = store.scan(2, 3);
+        assertEquals(3, page.length);
+        assertEquals(all[3], page[0]);
+        assertEquals(all[5], page[2]);
+        assertEquals(1, store.scan(8, 3).length);
+        assertEquals(0, store.scan(9, 3).length);
+    }
+
+    @Test
+    void testHeapIsCompacted() throws IOException {
+        List<Task> others = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            others.add(new Task("other " + i + " ## tag" + i % 10));
+        }
+        store.putAll(others);
+        Task task = new Task("growing");
+        StringBuilder description = new StringBuilder("growing");
+        for (int i = 0; i < 2000; i++) {
+            description.append(" more");
+            task.setDescription(description.toString());
+            store.put(task);
+        }
+        assertTrue(new File(file + ".heap").length() < 1 << 20);
+        store.close();
+
+        store = new MappedTaskStore(file);
+        assertEquals(description.toString(), store.get(task.getId()).getDescription());
+        assertEquals("other 57 ", store.get(others.get(57).getId()).getDescription());
+        assertTrue(store.get(others.get(57).getId()).containsTag("tag7"));
+    }
+
+    @Test
+    void testRemovedStringsAreGarbage() throws IOException {
+        Task task = new Task("removed ## removedTag");
+        store.put(task);
+        store.remove(task.getId());
+        long garbage = task.getDescription().length() + "removedTag".length();
+        assertEquals(garbage, store.getGarbage());
+        Task other = new Task("other");
+        store.put(other);
+        assertEquals("other", store.get(other.getId()).getDescription());
+        assertEquals(garbage, store.getGarbage());
+    }
+
+    @Test
+    void testCorruptStatus() throws IOException {
+        store.put(new Task("corrupt"));
+        store.close();
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(32 + 41);  // the status of the first record
+            raw.write(9);
+        }
+        try {
+            store = new MappedTaskStore(file);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+
+    @Test
+    void testDuplicateId() throws IOException {
+        Task first = new Task("first");
+        store.put(first);
+        store.put(new Task("second"));
+        store.close();
+        try (RandomAccessFile raw = new RandomAccessFile(file, "rw")) {
+            raw.seek(32 + MappedTaskStore.RECORD_SIZE);  // the id of the second record
+            raw.writeLong(first.getId());
+        }
+        try {
+            store = new MappedTaskStore(file);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+
+    @Test
+    void testNotAStore() throws IOException {
+        File other = new File(file.getParentFile(), "other");
+        Files.write(other.toPath(), "not a store".getBytes(StandardCharsets.UTF_8));
+        try {
+            new MappedTaskStore(other);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+}
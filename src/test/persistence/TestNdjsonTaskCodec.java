@@ -0,0 +1,184 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.Test;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestNdjsonTaskCodec {
+    private static final NdjsonTaskCodec CODEC = TaskCodecs.NDJSON;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        List<Task> tasks = tasks(300);
+        String text = new String(encode(tasks), StandardCharsets.UTF_8);
+        String[] lines = text.split("\n");
+        assertEquals(tasks.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(Jsonifier.taskToJson(tasks.get(i)).toString(), lines[i]);
+        }
+        String json = Jsonifier.taskListToJson(tasks).toString();
+        tasks.forEach(TagRegistry::removeTask);
+
+        List<Task> decoded = decode(text);
+        assertEquals(json, Jsonifier.taskListToJson(decoded).toString());
+        assertTrue(TagRegistry.findTag("tag3").getTasks().contains(decoded.get(3)));
+        assertSame(CODEC, TaskCodecs.detect(text.getBytes(StandardCharsets.UTF_8), TaskCodec.HEADER_LENGTH));
+    }
+
+    @Test
+    void testTornLineAndInvalidTasks() throws IOException {
+        Task task = new Task("kept");
+        String line = Jsonifier.taskToJson(task).toString();
+        String text = "\n" + line + "\n{\"description\":\"no tags\"}\n" + line + "\n" + line.substring(0, 10);
+        TagRegistry.removeTask(task);
+
+        List<Task> decoded = decode(text);
+        assertEquals(2, decoded.size());
+        assertEquals(task.getId(), decoded.get(0).getId());
+        assertNotEquals(task.getId(), decoded.get(1).getId());
+        assertEquals("kept", decoded.get(1).getDescription());
+    }
+
+    @Test
+    void testLastLineWithoutNewline() throws IOException {
+        Task task = new Task("last ## inLastNdjsonLine");
+        String line = Jsonifier.taskToJson(task).toString();
+        TagRegistry.removeTask(task);
+
+        List<Task> decoded = decode(line + "\n" + line);
+        assertEquals(2, decoded.size());
+        assertEquals("last ", decoded.get(1).getDescription());
+        assertTrue(TagRegistry.findTag("inLastNdjsonLine").getTasks().contains(decoded.get(1)));
+        decoded.forEach(TagRegistry::removeTask);
+        decoded = decode(line + "  \n  ");
+        assertEquals(1, decoded.size());
+        decoded.forEach(TagRegistry::removeTask);
+    }
+
+    @Test
+    void testCorrupt() throws IOException {
+        Task task = new Task("corrupt ## inCorruptNdjson");
+        String text = Jsonifier.taskToJson(task).toString() + "\n[1, 2]\n";
+        TagRegistry.removeTask(task);
+        try {
+            decode(text);
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+        assertTrue(TagRegistry.findTag("inCorruptNdjson").getTasks().isEmpty());
+    }
+
+    @Test
+    void testObjectsMustBeAloneOnTheirLines() throws IOException {
+        Task task = new Task("twice ## inOneNdjsonLine");
+        String line = Jsonifier.taskToJson(task).toString();
+        TagRegistry.removeTask(task);
+        try {
+            decode(line + line + "\n");
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+        assertTrue(TagRegistry.findTag("inOneNdjsonLine").getTasks().isEmpty());
+        List<Task> decoded = decode(line + " \t\r\n");
+        assertEquals(1, decoded.size());
+        decoded.forEach(TagRegistry::removeTask);
+    }
+
+    @Test
+    void testReadInChunks() throws IOException {
+        File file = new File(Files.createTempDirectory("ndjson").toFile(), "tasks.ndjson");
+        List<Task> tasks = tasks(50);
+        CODEC.append(tasks, file);
+        Files.write(file.toPath(), "{\"id\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        List<Task> read = new ArrayList<>();
+        long offset = CODEC.read(file, 0, read, 64);
+        assertEquals(file.length() - 6, offset);
+        assertEquals(50, read.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(tasks.get(i).getId(), read.get(i).getId());
+        }
+        read.forEach(TagRegistry::removeTask);
+    }
+
+    @Test
+    void testAppendThenReadFromOffset() throws IOException {
+        File file = new File(Files.createTempDirectory("ndjson").toFile(), "tasks.ndjson");
+        List<Task> tasks = tasks(3);
+        CODEC.append(tasks.subList(0, 2), file);
+        List<Task> read = new ArrayList<>();
+        long offset = CODEC.read(file, 0, read);
+        assertEquals(file.length(), offset);
+        assertEquals(2, read.size());
+
+        CODEC.append(tasks.subList(2, 3), file);
+        Files.write(file.toPath(), "{\"id\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        read.clear();
+        long next = CODEC.read(file, offset, read);
+        assertEquals(1, read.size());
+        assertEquals(tasks.get(2).getId(), read.get(0).getId());
+        assertEquals(file.length() - 6, next);
+        try (InputStream in = new FileInputStream(file)) {
+            assertEquals(3, CODEC.decode(in, file.length()).size());
+        }
+    }
+
+    @Test
+    void testConvert() throws IOException {
+        List<Task> tasks = tasks(20);
+        StringWriter array = new StringWriter();
+        Jsonifier.writeTaskList(tasks, array);
+        StringWriter lines = new StringWriter();
+        NdjsonTaskCodec.convert(new StringReader(array.toString()), lines);
+        assertEquals(new String(encode(tasks), StandardCharsets.UTF_8), lines.toString());
+
+        lines = new StringWriter();
+        NdjsonTaskCodec.convert(new StringReader(" [ ] "), lines);
+        assertEquals("", lines.toString());
+        for (String text : new String[] {"{}", "[{} {}]", "[{}"}) {
+            try {
+                NdjsonTaskCodec.convert(new StringReader(text), new StringWriter());
+                fail("TaskFormatException should have been thrown");
+            } catch (TaskFormatException e) {
+                System.out.println("Caught TaskFormatException");
+            }
+        }
+    }
+
+    private List<Task> tasks(int count) {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Task t = new Task(i % 3 == 0 ? "caf\u00e9 ## cpsc210; tag" + i % 7 : "task " + i);  // accented e
+            t.setPriority(new Priority(1 + i % 4));
+            t.setStatus(Status.values()[i % Status.values().length]);
+            if (i % 2 == 0) {
+                t.setDueDate(new DueDate(new Date((i - 100) * 7_200_000L)));
+            }
+            tasks.add(t);
+        }
+        return tasks;
+    }
+
+    private byte[] encode(List<Task> tasks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CODEC.encode(tasks, out);
+        return out.toByteArray();
+    }
+
+    private List<Task> decode(String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        return CODEC.decode(new ByteArrayInputStream(bytes), bytes.length);
+    }
+}
@@ -0,0 +1,182 @@
+package persistence;
+
+import model.TagRegistry;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import persistence.exceptions.SnapshotConflictException;
+import persistence.exceptions.TaskFormatException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSnapshotFile {
+    private File directory;
+    private SnapshotFile snapshot;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        directory = Files.createTempDirectory("snapshot").toFile();
+        snapshot = new SnapshotFile(new File(directory, "tasks.json"), 2);
+    }
+
+    @Test
+    void testWriteThenRead() throws IOException {
+        Task first = new Task("caf\u00e9 \u2615 ## cpsc210");  // accented e, hot beverage
+        List<Task> tasks = Arrays.asList(first, new Task("second"));
+        snapshot.write(tasks);
+
+        List<Task> read = snapshot.read();
+        assertEquals(2, read.size());
+        assertEquals(tasks.get(0).getId(), read.get(0).getId());
+        assertEquals("caf\u00e9 \u2615 ", read.get(0).getDescription());  // accented e, hot beverage
+        assertTrue(read.get(0).containsTag("cpsc210"));
+        assertEquals(Jsonifier.taskListToJson(tasks).toString(),
+                new String(Files.readAllBytes(snapshot.getFile().toPath()), StandardCharsets.UTF_8));
+        assertEquals(1, directory.list().length);
+    }
+
+    @Test
+    void testPreviousVersionsAreKeptAndBounded() throws IOException {
+        for (int i = 1; i <= 4; i++) {
+            snapshot.write(Collections.nCopies(i, new Task("task")));
+        }
+        assertEquals(4, sizeOf(snapshot.getVersion(0)));
+        assertEquals(3, sizeOf(snapshot.getVersion(1)));
+        assertEquals(2, sizeOf(snapshot.getVersion(2)));
+        assertFalse(snapshot.getVersion(3).exists());
+    }
+
+    @Test
+    void testFallBackToNewestValidVersion() throws IOException {
+        snapshot.write(Collections.singletonList(new Task("oldest")));
+        snapshot.write(Collections.singletonList(new Task("older")));
+        snapshot.write(Collections.singletonList(new Task("newest")));
+        Files.write(snapshot.getVersion(0).toPath(), "[{\"id\":1,".getBytes(StandardCharsets.UTF_8));
+        assertEquals("older", snapshot.read().get(0).getDescription());
+
+        Files.delete(snapshot.getVersion(0).toPath());
+        Files.write(snapshot.getVersion(1).toPath(), new byte[0]);
+        assertEquals("oldest", snapshot.read().get(0).getDescription());
+    }
+
+    @Test
+    void testNoSnapshot() throws IOException {
+        assertTrue(snapshot.read().isEmpty());
+    }
+
+    @Test
+    void testNoValidSnapshot() throws IOException {
+        Files.write(snapshot.getVersion(0).toPath(), "<tasks/>".getBytes(StandardCharsets.UTF_8));
+        try {
+            snapshot.read();
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+    }
+
+    @Test
+    void testTasksOfInvalidVersionAreDetachedFromTags() throws IOException {
+        Task task = new Task("tagged ## onlyInInvalidSnapshot");
+        String json = Jsonifier.taskListToJson(new ArrayList<>(Collections.singletonList(task))).toString();
+        TagRegistry.removeTask(task);
+        Files.write(snapshot.getVersion(1).toPath(), json.getBytes(StandardCharsets.UTF_8));
+        Files.write(snapshot.getVersion(0).toPath(),
+                (json.substring(0, json.length() - 1) + ",{").getBytes(StandardCharsets.UTF_8));
+
+        List<Task> read = snapshot.read();
+        assertEquals(1, read.size());
+        assertEquals(Collections.singleton(read.get(0)), TagRegistry.findTag("onlyInInvalidSnapshot").getTasks());
+    }
+
+    @Test
+    void testReadIfChanged() throws IOException {
+        assertNull(snapshot.readIfChanged());
+        Task task = new Task("own ## inReadIfChanged");
+        snapshot.write(Collections.singletonList(task));
+        assertNull(snapshot.readIfChanged());
+
+        String json = Jsonifier.taskListToJson(new ArrayList<>(Collections.singletonList(task))).toString();
+        Files.write(snapshot.getFile().toPath(), json.replace("own", "external").getBytes(StandardCharsets.UTF_8));
+        List<Task> read = snapshot.readIfChanged();
+        assertEquals("external ", read.get(0).getDescription());
+        assertNull(snapshot.readIfChanged());
+        read.forEach(TagRegistry::removeTask);
+        TagRegistry.removeTask(task);
+    }
+
+    @Test
+    void testBaseFollowsTheContent() throws IOException {
+        assertTrue(snapshot.getBase().isEmpty());
+        Task task = new Task("own ## inBase");
+        snapshot.write(Collections.singletonList(task));
+        task.setDescription("edited after the write");
+        assertEquals("own ", snapshot.getBase().get(task.getId()).getDescription());
+        assertEquals(Collections.singleton("inBase"), snapshot.getBase().get(task.getId()).getTagNames());
+
+        String json = Jsonifier.taskListToJson(new ArrayList<>(Collections.singletonList(task))).toString();
+        Files.write(snapshot.getFile().toPath(), json.getBytes(StandardCharsets.UTF_8));
+        snapshot.readIfChanged().forEach(TagRegistry::removeTask);
+        assertEquals("edited after the write", snapshot.getBase().get(task.getId()).getDescription());
+        Files.write(snapshot.getFile().toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        snapshot.read();
+        assertTrue(snapshot.getBase().isEmpty());
+        TagRegistry.removeTask(task);
+    }
+
+    @Test
+    void testReadIfChangedToInvalid() throws IOException {
+        snapshot.write(Collections.singletonList(new Task("own")));
+        Files.write(snapshot.getFile().toPath(), "[{".getBytes(StandardCharsets.UTF_8));
+        try {
+            snapshot.readIfChanged();
+            fail("TaskFormatException should have been thrown");
+        } catch (TaskFormatException e) {
+            System.out.println("Caught TaskFormatException");
+        }
+        Files.write(snapshot.getFile().toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        assertTrue(snapshot.readIfChanged().isEmpty());
+        assertTrue(snapshot.read().isEmpty());
+        assertNull(snapshot.readIfChanged());
+    }
+
+    @Test
+    void testExternalChangeIsNotOverwritten() throws IOException {
+        snapshot.write(Collections.singletonList(new Task("own")));
+        Files.write(snapshot.getFile().toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        try {
+            snapshot.write(Collections.singletonList(new Task("unmerged")));
+            fail("SnapshotConflictException should have been thrown");
+        } catch (SnapshotConflictException e) {
+            System.out.println("Caught SnapshotConflictException");
+        }
+        assertTrue(snapshot.readIfChanged().isEmpty());
+        snapshot.write(Collections.singletonList(new Task("merged")));
+        assertEquals("merged", snapshot.read().get(0).getDescription());
+        assertEquals(0, sizeOf(snapshot.getVersion(1)));
+    }
+
+    @Test
+    void testFormatIsDetected() throws IOException {
+        SnapshotFile binary = new SnapshotFile(snapshot.getFile(), 2, TaskCodecs.BINARY);
+        binary.write(Collections.singletonList(new Task("binary")));
+        snapshot.write(Collections.singletonList(new Task("json")));
+        assertEquals("json", binary.read().get(0).getDescription());
+
+        Files.delete(snapshot.getFile().toPath());
+        assertEquals("binary", snapshot.read().get(0).getDescription());
+    }
+
+    private int sizeOf(File version) throws IOException {
+        return new SnapshotFile(version, 0).read().size();
+    }
+}
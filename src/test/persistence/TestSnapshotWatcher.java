@@ -0,0 +1,81 @@
+package persistence;
+
+import model.Task;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestSnapshotWatcher {
+    private SnapshotFile snapshot;
+    private List<Task> tasks;
+    private List<List<Task>> reads;
+    private AtomicInteger checks;
+    private SnapshotWatcher watcher;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        File directory = Files.createTempDirectory("watch").toFile();
+        snapshot = new SnapshotFile(new File(directory, "tasks.json"), 0);
+        tasks = new ArrayList<>(Arrays.asList(new Task("first"), new Task("second")));
+        snapshot.write(tasks);
+        reads = Collections.synchronizedList(new ArrayList<>());
+        checks = new AtomicInteger();
+        watcher = new SnapshotWatcher(snapshot, check -> {
+            check.run();
+            checks.incrementAndGet();
+        }, (read, base) -> reads.add(read));
+        watcher.start();
+    }
+
+    @AfterEach
+    void runAfter() {
+        watcher.stop();
+    }
+
+    @Test
+    void testOwnWriteIsNotRead() throws IOException, InterruptedException {
+        tasks.get(0).setDescription("edited");
+        snapshot.write(tasks);
+        waitFor(() -> checks.get() > 0);
+        assertTrue(reads.isEmpty());
+    }
+
+    @Test
+    void testExternalChangeIsRead() throws IOException, InterruptedException {
+        String json = Jsonifier.taskListToJson(tasks).toString();
+        Files.write(snapshot.getFile().toPath(), json.replace("second", "external").getBytes(StandardCharsets.UTF_8));
+        waitFor(() -> reads.size() == 1);
+        assertEquals(2, reads.get(0).size());
+        assertEquals("external", reads.get(0).get(1).getDescription());
+    }
+
+    @Test
+    void testStoppedWatcherReadsNothing() throws IOException, InterruptedException {
+        watcher.stop();
+        Files.write(snapshot.getFile().toPath(), "[]".getBytes(StandardCharsets.UTF_8));
+        Thread.sleep(3 * SnapshotWatcher.QUIET_MILLIS);
+        assertEquals(0, checks.get());
+        watcher.check();
+        assertEquals(Collections.singletonList(Collections.emptyList()), reads);
+    }
+
+    private void waitFor(BooleanSupplier condition) throws InterruptedException {
+        for (int i = 0; i < 500 && !condition.getAsBoolean(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
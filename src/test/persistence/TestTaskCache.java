@@ -0,0 +1,166 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskCache {
+    private MappedTaskStore store;
+    private TaskCache cache;
+    private Task first;
+    private Task second;
+    private Task third;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        File file = new File(Files.createTempDirectory("cache").toFile(), "tasks.store");
+        store = new MappedTaskStore(file);
+        first = new Task("first ## inTaskCache; important; up next");
+        second = new Task("second ## inTaskCache; urgent");
+        third = new Task("third ## inTaskCache");
+        store.putAll(Arrays.asList(first, second, third));
+        for (Task t : new Task[] {first, second, third}) {
+            TagRegistry.removeTask(t);
+        }
+        cache = new TaskCache(store, 2);
+    }
+
+    @AfterEach
+    void runAfter() throws IOException {
+        store.close();
+    }
+
+    @Test
+    void testGetHydratesOnce() {
+        Task read = cache.get(first.getId());
+        assertEquals("first ", read.getDescription());
+        assertTrue(read.containsTag("inTaskCache"));
+        assertSame(read, cache.get(first.getId()));
+        assertNull(cache.get(-1));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testReadYieldsEveryTaskOnce() {
+        Task cached = cache.get(second.getId());
+        int tagged = TagRegistry.findTag("inTaskCache").getTasks().size();
+        TaskCache.Reading reading = cache.read();
+        Task read = reading.next();
+        assertEquals(first.getId(), read.getId());
+        assertTrue(TagRegistry.findTag("inTaskCache").getTasks().contains(read));
+        assertSame(cached, reading.next());
+        assertFalse(TagRegistry.findTag("inTaskCache").getTasks().contains(read));
+        assertEquals(third.getId(), reading.next().getId());
+        assertFalse(reading.hasNext());
+        reading.close();
+        assertEquals(tagged, TagRegistry.findTag("inTaskCache").getTasks().size());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void testHeaderDoesNotHydrate() {
+        int tagged = TagRegistry.findTag("inTaskCache").getTasks().size();
+        assertArrayEquals(new long[] {first.getId(), second.getId(), third.getId()}, cache.getIds());
+        TaskHeader header = cache.getHeader(first.getId());
+        assertEquals(first.getId(), header.getId());
+        assertEquals("first ", header.getDescription());
+        assertEquals(Status.UP_NEXT, header.getStatus());
+        assertEquals(first.getPriority(), header.getPriority());
+        assertNull(cache.getHeader(-1));
+        assertEquals(0, cache.size());
+        assertEquals(tagged, TagRegistry.findTag("inTaskCache").getTasks().size());
+
+        cache.get(second.getId()).setStatus(Status.DONE);
+        assertEquals(Status.DONE, cache.getHeader(second.getId()).getStatus());
+    }
+
+    @Test
+    void testLeastRecentlyUsedIsEvicted() {
+        Task readFirst = cache.get(first.getId());
+        Task readSecond = cache.get(second.getId());
+        readFirst.setProgress(60);
+        readSecond.setProgress(30);
+        cache.get(first.getId());
+        cache.get(third.getId());
+
+        assertEquals(2, cache.size());
+        assertFalse(TagRegistry.findTag("inTaskCache").getTasks().contains(readSecond));
+        assertSame(readFirst, cache.get(first.getId()));
+        Task again = cache.get(second.getId());
+        assertNotSame(readSecond, again);
+        assertEquals(30, again.getProgress());
+        assertEquals(4, cache.getMisses());
+    }
+
+    @Test
+    void testCheckedOutIsNotEvicted() throws IOException {
+        Task edited = cache.checkOut(first.getId());
+        assertTrue(cache.isCheckedOut(first.getId()));
+        cache.get(second.getId());
+        cache.get(third.getId());
+        cache.get(second.getId());
+        assertEquals(2, cache.size());
+        assertSame(edited, cache.get(first.getId()));
+
+        edited.setProgress(80);
+        cache.checkIn(edited);
+        assertFalse(cache.isCheckedOut(first.getId()));
+        assertEquals(80, store.get(first.getId()).getProgress());
+        cache.get(third.getId());
+        cache.get(second.getId());
+        assertFalse(TagRegistry.findTag("inTaskCache").getTasks().contains(edited));
+        assertNotSame(edited, cache.get(first.getId()));
+    }
+
+    @Test
+    void testNestedCheckOuts() throws IOException {
+        Task edited = cache.checkOut(first.getId());
+        assertSame(edited, cache.checkOut(first.getId()));
+        cache.checkIn(edited);
+        assertTrue(cache.isCheckedOut(first.getId()));
+        cache.checkIn(edited);
+        assertFalse(cache.isCheckedOut(first.getId()));
+        assertNull(cache.checkOut(-1));
+    }
+
+    @Test
+    void testCheckInAfterRemoveDoesNotWrite() throws IOException {
+        Task edited = cache.checkOut(first.getId());
+        assertTrue(cache.remove(first.getId()));
+        assertFalse(cache.isCheckedOut(first.getId()));
+        cache.checkIn(edited);
+        assertFalse(store.contains(first.getId()));
+    }
+
+    @Test
+    void testFlush() throws IOException {
+        cache.get(first.getId()).setProgress(75);
+        assertEquals(0, store.get(first.getId()).getProgress());
+        cache.flush();
+        assertEquals(75, store.get(first.getId()).getProgress());
+    }
+
+    @Test
+    void testPutAndRemove() throws IOException {
+        Task task = new Task("new ## inTaskCache");
+        cache.put(task);
+        assertSame(task, cache.get(task.getId()));
+        assertTrue(store.contains(task.getId()));
+
+        assertTrue(cache.remove(task.getId()));
+        assertFalse(store.contains(task.getId()));
+        assertFalse(TagRegistry.findTag("inTaskCache").getTasks().contains(task));
+        assertFalse(cache.remove(task.getId()));
+        assertEquals(0, cache.size());
+    }
+}
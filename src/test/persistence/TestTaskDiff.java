@@ -0,0 +1,171 @@
+package persistence;
+
+import model.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskDiff {
+    private SnapshotFile snapshot;
+    private TaskJournal journal;
+    private List<Task> tasks;
+    private TaskIndex index;
+    private Task kept;
+    private Task edited;
+    private Task removed;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        File directory = Files.createTempDirectory("diff").toFile();
+        snapshot = new SnapshotFile(new File(directory, "tasks.json"), 0);
+        kept = new Task("kept ## inTaskDiff");
+        edited = new Task("edited ## inTaskDiff; other");
+        removed = new Task("removed ## inTaskDiff");
+        tasks = new ArrayList<>(Arrays.asList(kept, edited, removed));
+        index = new TaskIndex();
+        index.addAll(tasks);
+        journal = new TaskJournal(snapshot, new File(directory, "tasks.journal"),
+                TaskJournal.DEFAULT_COMPACT_THRESHOLD, () -> tasks);
+        snapshot.write(tasks);
+    }
+
+    @AfterEach
+    void runAfter() {
+        tasks.forEach(TagRegistry::removeTask);
+        journal.close();
+    }
+
+    @Test
+    void testNoChanges() throws IOException {
+        TaskDiff diff = TaskDiff.between(tasks, snapshot.read(), snapshot.getBase());
+        assertTrue(diff.isEmpty());
+        assertEquals(3, TagRegistry.findTag("inTaskDiff").getTasks().size());
+        assertTrue(TagRegistry.findTag("inTaskDiff").getTasks().contains(kept));
+    }
+
+    @Test
+    void testAddsRemovesAndEdits() throws IOException {
+        List<Task> read = readChanged();
+        TaskDiff diff = TaskDiff.between(tasks, read, snapshot.getBase());
+        assertEquals(Collections.singletonList(removed), diff.getRemoved());
+        assertEquals(Collections.singleton(edited), diff.getEdited());
+        assertEquals(Collections.singletonList(read.get(2)), diff.getAdded());
+        assertFalse(diff.isEmpty());
+        diff.getAdded().forEach(TagRegistry::removeTask);
+    }
+
+    @Test
+    void testApply() throws IOException {
+        List<Task> read = readChanged();
+        TaskDiff.between(tasks, read, snapshot.getBase()).apply(tasks, index, journal);
+        assertEquals(Arrays.asList(kept, edited, read.get(2)), tasks);
+        assertSame(edited, tasks.get(1));
+        assertEquals(Status.DONE, edited.getStatus());
+        assertEquals(1, edited.getPriority().getLevel());
+        assertTrue(index.getTasksWithStatus(Status.DONE).contains(edited));
+        assertFalse(index.contains(removed));
+        assertTrue(index.contains(read.get(2)));
+    }
+
+    @Test
+    void testApplyMovesTasksBetweenTags() throws IOException {
+        List<Task> read = readChanged();
+        TaskDiff.between(tasks, read, snapshot.getBase()).apply(tasks, index, journal);
+        Tag tag = TagRegistry.findTag("inTaskDiff");
+        assertEquals(3, tag.getTasks().size());
+        assertTrue(tag.getTasks().containsAll(Arrays.asList(kept, edited, read.get(2))));
+        assertFalse(tag.getTasks().contains(removed));
+        assertTrue(edited.containsTag("fresh"));
+        assertFalse(edited.containsTag("other"));
+        assertTrue(TagRegistry.findTag("fresh").getTasks().contains(edited));
+        assertTrue(TagRegistry.findTag("other").getTasks().isEmpty());
+    }
+
+    @Test
+    void testKeepsChangesMadeHere() throws IOException {
+        Task addedHere = new Task("added here ## inTaskDiff");
+        tasks.add(addedHere);
+        kept.setDescription("kept, edited here");
+        edited.setDescription("edited here too");
+        edited.addTag("here");
+        List<Task> read = readChanged();
+        TaskDiff diff = TaskDiff.between(tasks, read, snapshot.getBase());
+        assertEquals(Collections.singletonList(removed), diff.getRemoved());
+        assertEquals(Collections.singleton(edited), diff.getEdited());
+        diff.apply(tasks, index, journal);
+        assertEquals(Arrays.asList(kept, edited, addedHere, read.get(2)), tasks);
+        assertEquals("kept, edited here", kept.getDescription());
+        assertEquals("edited here too", edited.getDescription());
+        assertEquals(Status.DONE, edited.getStatus());
+        assertTrue(edited.containsTag("here"));
+        assertTrue(edited.containsTag("fresh"));
+        assertFalse(edited.containsTag("other"));
+    }
+
+    @Test
+    void testRemovedHereIsNotAddedBack() throws IOException {
+        tasks.remove(removed);
+        TagRegistry.removeTask(removed);
+        edited.setStatus(Status.UP_NEXT);
+        List<Task> read = snapshot.read();
+        read.get(0).setDescription("kept, edited there");
+        TaskDiff diff = TaskDiff.between(tasks, read, snapshot.getBase());
+        assertTrue(diff.getAdded().isEmpty());
+        assertEquals(Collections.singleton(kept), diff.getEdited());
+        assertFalse(TagRegistry.findTag("inTaskDiff").getTasks().contains(read.get(2)));
+        diff.apply(tasks, index, journal);
+        assertEquals(Arrays.asList(kept, edited), tasks);
+        assertEquals("kept, edited there", kept.getDescription());
+        assertEquals(Status.UP_NEXT, edited.getStatus());
+    }
+
+    @Test
+    void testChangedOnBothSides() throws IOException {
+        edited.setStatus(Status.UP_NEXT);
+        edited.setPriority(new Priority(2));
+        List<Task> read = readChanged();
+        TaskDiff.between(tasks, read, snapshot.getBase()).apply(tasks, index, journal);
+        assertEquals(Status.DONE, edited.getStatus());
+        assertEquals(1, edited.getPriority().getLevel());
+    }
+
+    @Test
+    void testChangesAreJournaled() throws IOException {
+        List<Task> read = snapshot.read();
+        read.remove(0);
+        read.get(0).setStatus(Status.UP_NEXT);
+        TaskDiff.between(tasks, read, snapshot.getBase()).apply(tasks, index, journal);
+        journal.close();
+
+        List<Task> replayed = snapshot.read();
+        replayed.forEach(TagRegistry::removeTask);
+        tasks.forEach(t -> t.getTags().forEach(tag -> tag.addTask(t)));
+        assertEquals(2, replayed.size());
+        assertEquals(edited.getId(), replayed.get(0).getId());
+        assertEquals(Status.UP_NEXT, replayed.get(0).getStatus());
+    }
+
+    // EFFECTS: returns the tasks of the snapshot, changed as another program would: removed is dropped, edited
+    //          is done, important and moved from tag "other" to tag "fresh", and a task is added
+    private List<Task> readChanged() throws IOException {
+        List<Task> read = snapshot.read();
+        read.remove(2);
+        Task changed = read.get(1);
+        changed.setStatus(Status.DONE);
+        changed.setPriority(new Priority(1));
+        changed.removeTag("other");
+        changed.addTag("fresh");
+        read.add(new Task("added ## inTaskDiff"));
+        return read;
+    }
+}
@@ -0,0 +1,128 @@
+package persistence;
+
+import model.Priority;
+import model.Status;
+import model.Task;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestTaskJournal {
+    private SnapshotFile snapshot;
+    private File journalFile;
+    private List<Task> tasks;
+    private TaskJournal journal;
+
+    @BeforeEach
+    void runBefore() throws IOException {
+        File directory = Files.createTempDirectory("journal").toFile();
+        snapshot = new SnapshotFile(new File(directory, "tasks.json"), 0);
+        journalFile = new File(directory, "tasks.journal");
+        tasks = new ArrayList<>(Arrays.asList(new Task("first ## cpsc210"), new Task("second"), new Task("third")));
+        journal = new TaskJournal(snapshot, journalFile, TaskJournal.DEFAULT_COMPACT_THRESHOLD, () -> tasks);
+    }
+
+    @Test
+    void testReplayAddEditDelete() throws IOException {
+        List<Task> saved = new ArrayList<>(tasks);
+        Task added = new Task("added ## urgent; exams");
+        journal.recordAdd(added);
+        tasks.get(1).setStatus(Status.DONE);
+        tasks.get(1).addTag("edited");
+        journal.recordEdit(tasks.get(1));
+        journal.recordDelete(tasks.get(0));
+
+        List<Task> loaded = new ArrayList<>(saved);
+        reopen().replay(loaded);
+        assertEquals(3, loaded.size());
+        assertEquals(tasks.get(1).getId(), loaded.get(0).getId());
+        assertEquals(Status.DONE, loaded.get(0).getStatus());
+        assertTrue(loaded.get(0).containsTag("edited"));
+        assertEquals(tasks.get(2), loaded.get(1));
+        assertEquals(added.getId(), loaded.get(2).getId());
+        assertEquals(new Priority(3), loaded.get(2).getPriority());
+        assertTrue(loaded.get(2).containsTag("exams"));
+    }
+
+    @Test
+    void testIncompleteRecordIsCutOff() throws IOException {
+        journal.recordDelete(tasks.get(0));
+        long complete = journalFile.length();
+        Files.write(journalFile.toPath(), "E {\"id\":".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        List<Task> loaded = new ArrayList<>(tasks);
+        TaskJournal reopened = reopen();
+        reopened.replay(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals(complete, journalFile.length());
+
+        reopened.recordDelete(tasks.get(1));
+        loaded = new ArrayList<>(tasks);
+        reopen().replay(loaded);
+        assertEquals(1, loaded.size());
+        assertEquals(tasks.get(2), loaded.get(0));
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        journal = new TaskJournal(snapshot, journalFile, 1, () -> tasks);
+        Task added = new Task("added");
+        tasks.add(added);
+        journal.recordAdd(added);
+        journal.close();
+
+        assertEquals(0, journalFile.length());
+        assertFalse(new File(journalFile.getPath() + ".old").exists());
+        assertEquals(tasks.size(), readSnapshot().size());
+        assertEquals(added.getId(), readSnapshot().get(3).getId());
+    }
+
+    @Test
+    void testOldJournalOfUnfinishedCompactionIsReplayed() throws IOException {
+        List<Task> saved = new ArrayList<>(tasks);
+        journal.recordDelete(tasks.get(0));
+        Files.move(journalFile.toPath(), new File(journalFile.getPath() + ".old").toPath());
+        journal = reopen();
+        journal.recordDelete(tasks.get(1));
+
+        List<Task> loaded = new ArrayList<>(saved);
+        reopen().replay(loaded);
+        assertEquals(1, loaded.size());
+        assertEquals(tasks.get(2), loaded.get(0));
+    }
+
+    @Test
+    void testSnapshotChangedByAnotherProgramIsNotOverwritten() throws IOException {
+        snapshot.write(tasks);
+        String json = Jsonifier.taskListToJson(tasks).toString().replace("second", "external");
+        journal.recordDelete(tasks.remove(0));
+        Files.write(snapshot.getFile().toPath(), json.getBytes(StandardCharsets.UTF_8));
+        journal.close();
+
+        assertTrue(journal.hasUnsavedChanges());
+        assertTrue(new File(journalFile.getPath() + ".old").exists());
+        List<Task> loaded = readSnapshot();
+        assertEquals(3, loaded.size());
+        reopen().replay(loaded);
+        assertEquals(2, loaded.size());
+        assertEquals("external", loaded.get(0).getDescription());
+    }
+
+    private TaskJournal reopen() {
+        return new TaskJournal(snapshot, journalFile, TaskJournal.DEFAULT_COMPACT_THRESHOLD, () -> tasks);
+    }
+
+    private List<Task> readSnapshot() throws IOException {
+        return snapshot.read();
+    }
+}
@@ -0,0 +1,32 @@
+package utility;
+
+import java.util.concurrent.TimeUnit;
+
+// A minimal micro-benchmark harness used by the *Benchmark classes under src/test.
+// Each benchmark is warmed up before it is measured; the mean time per operation is printed.
+public final class Benchmark {
+    private static volatile Object sink;
+
+    private Benchmark() {
+    }
+
+    // EFFECTS: runs op warmups times, then measures iterations runs of op and prints
+    //          the mean time per run (in microseconds) labelled with name
+    public static void run(String name, int warmups, int iterations, Runnable op) {
+        for (int i = 0; i < warmups; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            op.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        double micros = (double) TimeUnit.NANOSECONDS.toMicros(elapsed) / iterations;
+        System.out.printf("%-50s %14.2f us/op%n", name, micros);
+    }
+
+    // EFFECTS: keeps value reachable so that the JIT cannot eliminate the code producing it
+    public static void consume(Object value) {
+        sink = value;
+    }
+}
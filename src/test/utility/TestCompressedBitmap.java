@@ -0,0 +1,105 @@
+package utility;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TestCompressedBitmap {
+    CompressedBitmap bitmap;
+
+    @BeforeEach
+    void runBefore() {
+        bitmap = new CompressedBitmap();
+    }
+
+    @Test
+    void testAddRemoveContains() {
+        assertTrue(bitmap.isEmpty());
+        assertTrue(bitmap.add(7));
+        assertFalse(bitmap.add(7));
+        assertTrue(bitmap.add(70000));
+        assertTrue(bitmap.contains(7));
+        assertTrue(bitmap.contains(70000));
+        assertFalse(bitmap.contains(8));
+        assertFalse(bitmap.contains(-1));
+        assertEquals(2, bitmap.cardinality());
+        assertTrue(bitmap.remove(7));
+        assertFalse(bitmap.remove(7));
+        assertEquals(1, bitmap.cardinality());
+    }
+
+    @Test
+    void testNegativeValue() {
+        try {
+            bitmap.add(-1);
+            fail("IllegalArgumentException should have been thrown");
+        } catch (IllegalArgumentException e) {
+            System.out.println("Caught IllegalArgumentException");
+        }
+    }
+
+    @Test
+    void testDenseChunkBecomesSparseAgain() {
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int v = 0; v < 10000; v++) {
+            bitmap.add(v * 3);
+            expected.add(v * 3);
+        }
+        for (int v = 0; v < 30000; v += 2) {
+            bitmap.remove(v);
+            expected.remove(v);
+        }
+        assertSameValues(expected, bitmap);
+    }
+
+    @Test
+    void testOperationsMatchSets() {
+        Random random = new Random(42);
+        CompressedBitmap other = new CompressedBitmap();
+        TreeSet<Integer> a = new TreeSet<>();
+        TreeSet<Integer> b = new TreeSet<>();
+        for (int i = 0; i < 40000; i++) {
+            int v = random.nextInt(300000);
+            a.add(v);
+            bitmap.add(v);
+            int w = random.nextInt(i % 2 == 0 ? 70000 : 300000);
+            b.add(w);
+            other.add(w);
+        }
+        TreeSet<Integer> and = new TreeSet<>(a);
+        and.retainAll(b);
+        TreeSet<Integer> or = new TreeSet<>(a);
+        or.addAll(b);
+        TreeSet<Integer> andNot = new TreeSet<>(a);
+        andNot.removeAll(b);
+        assertSameValues(and, CompressedBitmap.and(bitmap, other));
+        assertSameValues(or, CompressedBitmap.or(bitmap, other));
+        assertSameValues(andNot, CompressedBitmap.andNot(bitmap, other));
+        assertSameValues(a, bitmap);
+    }
+
+    @Test
+    void testCopyIsIndependent() {
+        bitmap.add(1);
+        CompressedBitmap copy = bitmap.copy();
+        copy.add(2);
+        bitmap.remove(1);
+        assertFalse(bitmap.contains(1));
+        assertTrue(copy.contains(1));
+        assertFalse(bitmap.contains(2));
+    }
+
+    private void assertSameValues(TreeSet<Integer> expected, CompressedBitmap actual) {
+        assertEquals(expected.size(), actual.cardinality());
+        PrimitiveIterator.OfInt it = actual.iterator();
+        for (int v : expected) {
+            assertEquals(v, it.nextInt());
+        }
+        assertFalse(it.hasNext());
+    }
+}
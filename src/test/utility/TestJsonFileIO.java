@@ -0,0 +1,41 @@
+package utility;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import persistence.TaskCodecs;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TestJsonFileIO {
+    @AfterEach
+    void runAfter() {
+        System.clearProperty(JsonFileIO.FORMAT_PROPERTY);
+        System.clearProperty(JsonFileIO.LOAD_PROPERTY);
+    }
+
+    @Test
+    void testJsonIsTheDefaultFormat() {
+        assertSame(TaskCodecs.JSON, JsonFileIO.getFormat());
+        System.setProperty(JsonFileIO.FORMAT_PROPERTY, "xml");
+        assertSame(TaskCodecs.JSON, JsonFileIO.getFormat());
+        assertEquals(JsonFileIO.jsonDataFile, JsonFileIO.getDataFile(JsonFileIO.getFormat()));
+    }
+
+    @Test
+    void testBinaryIsSavedToItsOwnFile() {
+        System.setProperty(JsonFileIO.FORMAT_PROPERTY, "binary");
+        assertSame(TaskCodecs.BINARY, JsonFileIO.getFormat());
+        assertEquals(JsonFileIO.binaryDataFile, JsonFileIO.getDataFile(JsonFileIO.getFormat()));
+        System.setProperty(JsonFileIO.FORMAT_PROPERTY, "ndjson");
+        assertEquals(JsonFileIO.jsonDataFile, JsonFileIO.getDataFile(JsonFileIO.getFormat()));
+    }
+
+    @Test
+    void testLazyLoadingIsOptIn() {
+        assertFalse(JsonFileIO.isLazy());
+        System.setProperty(JsonFileIO.LOAD_PROPERTY, "eager");
+        assertFalse(JsonFileIO.isLazy());
+        System.setProperty(JsonFileIO.LOAD_PROPERTY, "lazy");
+        assertTrue(JsonFileIO.isLazy());
+    }
+}